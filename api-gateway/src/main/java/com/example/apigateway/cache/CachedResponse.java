@@ -0,0 +1,67 @@
+package com.example.apigateway.cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An upstream GET response as stored in the response cache.
+ */
+public class CachedResponse {
+
+    private int status;
+    private Map<String, List<String>> headers;
+    private byte[] body;
+    private String etag;
+    private long storedAt;
+
+    public CachedResponse() {
+    }
+
+    public CachedResponse(int status, Map<String, List<String>> headers, byte[] body, String etag, long storedAt) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.etag = etag;
+        this.storedAt = storedAt;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, List<String>> headers) {
+        this.headers = headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public long getStoredAt() {
+        return storedAt;
+    }
+
+    public void setStoredAt(long storedAt) {
+        this.storedAt = storedAt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.apigateway.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Entries are JSON strings with a Redis TTL, so expiry needs no sweeping.
+ * A Redis outage turns every lookup into a miss instead of an error.
+ */
+@Component
+public class RedisResponseCacheStore implements ResponseCacheStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisResponseCacheStore.class);
+    private static final String KEY_PREFIX = "gateway:response-cache:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public RedisResponseCacheStore(ReactiveStringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<CachedResponse> get(String key) {
+        return redisTemplate.opsForValue().get(KEY_PREFIX + key)
+                .flatMap(json -> Mono.fromCallable(() -> objectMapper.readValue(json, CachedResponse.class)))
+                .onErrorResume(e -> {
+                    log.warn("Response cache lookup failed for {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Void> put(String key, CachedResponse response, Duration ttl) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        return redisTemplate.opsForValue().set(KEY_PREFIX + key, json, ttl)
+                .onErrorResume(e -> {
+                    log.warn("Response cache store failed for {}: {}", key, e.getMessage());
+                    return Mono.just(false);
+                })
+                .then();
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.apigateway.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shared cache for idempotent catalog GETs, in front of the upstream call.
+ * <ul>
+ *   <li>Lookups are keyed by path, sorted query, Accept, Accept-Encoding and Origin.
+ *   A hit is answered from the store, or with 304 when If-None-Match matches.</li>
+ *   <li>On a miss, identical concurrent GETs wait for the first one (the leader)
+ *   and reuse its response, so a read storm costs one upstream call.</li>
+ *   <li>Only 200 responses are stored. Responses are skipped when they carry
+ *   Set-Cookie, are marked no-store, private or no-cache, or are streamed.
+ *   The TTL comes from s-maxage or max-age, otherwise from gateway.cache.default-ttl.</li>
+ *   <li>A request with Cache-Control no-cache skips the lookup.
+ *   A request with no-store bypasses the cache entirely.</li>
+ * </ul>
+ * The X-Cache response header reports HIT, MISS or COALESCED, and so does
+ * the outcome tag of the gateway.cache.requests counter.
+ */
+@Component
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+
+    public static final String CACHE_HEADER = "X-Cache";
+
+    private static final Set<String> KEYED_VARY_HEADERS = Set.of("accept", "accept-encoding", "origin",
+            "access-control-request-method", "access-control-request-headers");
+    private static final Set<String> UNCACHED_HEADERS = Set.of("transfer-encoding", "connection", "keep-alive",
+            "content-length", "age", CACHE_HEADER.toLowerCase(Locale.ROOT));
+    private static final Set<MediaType> STREAMING_TYPES = Set.of(MediaType.TEXT_EVENT_STREAM,
+            MediaType.APPLICATION_NDJSON);
+
+    private final ResponseCacheStore store;
+    private final Duration defaultTtl;
+    private final long maxBodySize;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Mono<Optional<CachedResponse>>> inFlight = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(ResponseCacheStore store,
+                               @Value("${gateway.cache.default-ttl:10s}") Duration defaultTtl,
+                               @Value("${gateway.cache.max-body-size:1MB}") DataSize maxBodySize,
+                               MeterRegistry meterRegistry) {
+        this.store = store;
+        this.defaultTtl = defaultTtl;
+        this.maxBodySize = maxBodySize.toBytes();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        Set<String> directives = directives(request.getHeaders().getCacheControl());
+        if (directives.contains("no-store")) {
+            return chain.filter(exchange);
+        }
+        String key = cacheKey(request);
+        if (directives.contains("no-cache") || directives.contains("max-age=0")
+                || "no-cache".equalsIgnoreCase(request.getHeaders().getPragma())) {
+            return forward(exchange, chain, key, null);
+        }
+        return store.get(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(cached -> cached.isPresent()
+                        ? writeCached(exchange, cached.get(), "HIT")
+                        : coalesce(exchange, chain, key));
+    }
+
+    // Filters below NettyWriteResponseFilter see the decorated response
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private Mono<Void> coalesce(ServerWebExchange exchange, GatewayFilterChain chain, String key) {
+        Sinks.One<Optional<CachedResponse>> sink = Sinks.one();
+        Mono<Optional<CachedResponse>> shared = sink.asMono();
+        Mono<Optional<CachedResponse>> leader = inFlight.putIfAbsent(key, shared);
+        if (leader != null) {
+            // Responses the leader could not share are fetched independently
+            return leader.flatMap(response -> response.isPresent()
+                    ? writeCached(exchange, response.get(), "COALESCED")
+                    : forward(exchange, chain, key, null));
+        }
+        return forward(exchange, chain, key, sink)
+                .doFinally(signal -> {
+                    inFlight.remove(key, shared);
+                    sink.tryEmitValue(Optional.empty());
+                });
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                               Sinks.One<Optional<CachedResponse>> sink) {
+        ServerHttpResponse response = exchange.getResponse();
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                getHeaders().set(CACHE_HEADER, "MISS");
+                count("MISS");
+                Duration ttl = storableTtl(getRawStatusCode(), getHeaders());
+                if (ttl == null || getHeaders().getContentLength() > maxBodySize) {
+                    share(sink, null);
+                    return super.writeWith(body);
+                }
+                ByteArrayOutputStream captured = new ByteArrayOutputStream();
+                AtomicBoolean overflow = new AtomicBoolean();
+                Flux<? extends DataBuffer> tee = Flux.from(body).doOnNext(buffer -> {
+                    int length = buffer.readableByteCount();
+                    if (overflow.get() || captured.size() + length > maxBodySize) {
+                        overflow.set(true);
+                        return;
+                    }
+                    byte[] bytes = new byte[length];
+                    buffer.asByteBuffer().get(bytes);
+                    captured.write(bytes, 0, length);
+                });
+                return super.writeWith(tee).then(Mono.defer(() -> {
+                    if (overflow.get()) {
+                        share(sink, null);
+                        return Mono.empty();
+                    }
+                    CachedResponse entry = toEntry(getRawStatusCode(), getHeaders(), captured.toByteArray());
+                    share(sink, entry);
+                    return store.put(key, entry, ttl).onErrorResume(e -> Mono.empty());
+                }));
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                share(sink, null);
+                return super.writeAndFlushWith(body);
+            }
+        };
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    private void count(String outcome) {
+        Counter.builder("gateway.cache.requests")
+                .description("Cacheable GETs by cache outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static void share(Sinks.One<Optional<CachedResponse>> sink, CachedResponse entry) {
+        if (sink != null) {
+            sink.tryEmitValue(Optional.ofNullable(entry));
+        }
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String outcome) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        // Headers set by the gateway itself (CORS) win over the stored ones
+        cached.getHeaders().forEach(headers::putIfAbsent);
+        headers.setETag(cached.getEtag());
+        headers.set(HttpHeaders.AGE, String.valueOf(
+                Math.max(0, (System.currentTimeMillis() - cached.getStoredAt()) / 1000)));
+        headers.set(CACHE_HEADER, outcome);
+        count(outcome);
+        if (matches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.getEtag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setRawStatusCode(cached.getStatus());
+        headers.setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    // How long a response may be stored, or null when it must not be
+    private Duration storableTtl(Integer status, HttpHeaders headers) {
+        if (status == null || status != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        MediaType contentType = headers.getContentType();
+        if (contentType != null && STREAMING_TYPES.stream().anyMatch(contentType::isCompatibleWith)) {
+            return null;
+        }
+        for (String vary : headers.getVary()) {
+            if (!KEYED_VARY_HEADERS.contains(vary.toLowerCase(Locale.ROOT))) {
+                return null;
+            }
+        }
+        Set<String> directives = directives(headers.getCacheControl());
+        if (directives.contains("no-store") || directives.contains("private") || directives.contains("no-cache")) {
+            return null;
+        }
+        Duration ttl = maxAge(directives, "s-maxage=");
+        if (ttl == null) {
+            ttl = maxAge(directives, "max-age=");
+        }
+        if (ttl == null) {
+            ttl = defaultTtl;
+        }
+        return ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    private static Duration maxAge(Set<String> directives, String prefix) {
+        for (String directive : directives) {
+            if (directive.startsWith(prefix)) {
+                try {
+                    return Duration.ofSeconds(Long.parseLong(directive.substring(prefix.length())));
+                } catch (NumberFormatException e) {
+                    return Duration.ZERO;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> directives(String cacheControl) {
+        if (cacheControl == null || cacheControl.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> directives = new HashSet<>();
+        for (String directive : cacheControl.split(",")) {
+            directives.add(directive.trim().toLowerCase(Locale.ROOT).replace("\"", ""));
+        }
+        return directives;
+    }
+
+    private static CachedResponse toEntry(Integer status, HttpHeaders headers, byte[] body) {
+        Map<String, List<String>> stored = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            if (!UNCACHED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                stored.put(name, new ArrayList<>(values));
+            }
+        });
+        String etag = headers.getETag() != null ? headers.getETag() : weakEtag(body);
+        stored.remove(HttpHeaders.ETAG);
+        return new CachedResponse(status, stored, body, etag, System.currentTimeMillis());
+    }
+
+    private static String weakEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Weak comparison, as If-None-Match requires
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getURI().getRawPath());
+        new TreeMap<>(request.getQueryParams()).forEach((name, values) ->
+                values.stream().sorted().forEach(value -> key.append('&').append(name).append('=').append(value)));
+        HttpHeaders headers = request.getHeaders();
+        key.append('|').append(String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT)))
+                .append('|').append(String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)))
+                .append('|').append(Objects.toString(headers.getOrigin(), ""));
+        return key.toString();
+    }
+}
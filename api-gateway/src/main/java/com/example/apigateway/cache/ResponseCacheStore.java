@@ -0,0 +1,16 @@
+package com.example.apigateway.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Backing store of {@link ResponseCacheFilter}. Implementations should
+ * complete empty rather than fail when the entry cannot be read.
+ */
+public interface ResponseCacheStore {
+
+    Mono<CachedResponse> get(String key);
+
+    Mono<Void> put(String key, CachedResponse response, Duration ttl);
+}
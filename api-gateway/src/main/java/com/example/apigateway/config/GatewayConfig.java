@@ -0,0 +1,58 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.cache.ResponseCacheFilter;
+import com.example.apigateway.ratelimit.ConcurrencyLimitFilter;
+import com.example.apigateway.ratelimit.EdgeRateLimiters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Explicit routes for the Java services. Catalog and search reads go
+ * through the response cache; the discovery locator still exposes every
+ * other registered service under /{service-id}/**.
+ * <p>
+ * Every explicit route sheds load at the edge with 429s, in this order:
+ * per-IP and per-user token buckets, then the response cache, then the
+ * per-route concurrency cap on what actually goes upstream.
+ */
+@Configuration
+public class GatewayConfig {
+
+    private static final int IP_RATE_LIMIT_ORDER = -20;
+    private static final int USER_RATE_LIMIT_ORDER = -10;
+
+    @Bean
+    public RouteLocator libraryRoutes(RouteLocatorBuilder builder, ResponseCacheFilter responseCache,
+                                      EdgeRateLimiters rateLimiters, ConcurrencyLimitFilter concurrencyLimit,
+                                      @Value("${gateway.routes.books-uri}") String booksUri,
+                                      @Value("${gateway.routes.search-uri}") String searchUri,
+                                      @Value("${gateway.routes.loans-uri}") String loansUri,
+                                      @Value("${gateway.routes.users-uri}") String usersUri) {
+        EdgeFilters edge = f -> f
+                .filter(rateLimiters.ipRateLimit(), IP_RATE_LIMIT_ORDER)
+                .filter(rateLimiters.userRateLimit(), USER_RATE_LIMIT_ORDER)
+                .filter(concurrencyLimit);
+        return builder.routes()
+                .route("books-management-service", r -> r.path("/api/books/**")
+                        .filters(f -> edge.apply(f).filter(responseCache))
+                        .uri(booksUri))
+                .route("search-service", r -> r.path("/api/search/**")
+                        .filters(f -> edge.apply(f).filter(responseCache))
+                        .uri(searchUri))
+                .route("loan-service", r -> r.path("/api/loans/**")
+                        .filters(edge::apply)
+                        .uri(loansUri))
+                .route("user-service", r -> r.path("/api/auth/**", "/api/user/**", "/api/user-books/**")
+                        .filters(edge::apply)
+                        .uri(usersUri))
+                .build();
+    }
+
+    private interface EdgeFilters {
+        GatewayFilterSpec apply(GatewayFilterSpec filters);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead per route: at most max-concurrent requests of a route are in
+ * flight upstream at once. Extra requests get 429 straight away instead
+ * of piling up in the service's thread pool.
+ */
+@Component
+public class ConcurrencyLimitFilter implements GatewayFilter, Ordered {
+
+    private final RateLimitProperties limits;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(RateLimitProperties limits) {
+        this.limits = limits;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        Integer max = limits.forRoute(route.getId()).getMaxConcurrent();
+        if (max == null || max <= 0) {
+            return chain.filter(exchange);
+        }
+        AtomicInteger counter = inFlight.computeIfAbsent(route.getId(), id -> new AtomicInteger());
+        if (counter.incrementAndGet() > max) {
+            counter.decrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange).doFinally(signal -> counter.decrementAndGet());
+    }
+
+    // After the response cache, so hits answered at the edge do not take a slot
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    public int inFlight(String routeId) {
+        AtomicInteger counter = inFlight.get(routeId);
+        return counter == null ? 0 : counter.get();
+    }
+}
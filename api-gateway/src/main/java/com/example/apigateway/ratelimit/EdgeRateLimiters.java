@@ -0,0 +1,134 @@
+package com.example.apigateway.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Token-bucket filters backed by the gateway's Redis rate limiter script:
+ * one bucket per client IP and one per JWT subject, both scoped to the
+ * route. The subject is read without verifying the signature (the services
+ * do that), so a forged token only buys a fresh user bucket; the IP bucket
+ * still applies. Anonymous requests are only IP-limited.
+ * <p>
+ * Denied requests get 429. If Redis is unreachable the limiter lets
+ * requests through rather than failing them.
+ */
+@Component
+public class EdgeRateLimiters {
+
+    private static final String BEARER = "Bearer ";
+
+    private final GatewayFilter ipRateLimit;
+    private final GatewayFilter userRateLimit;
+    private final ObjectMapper objectMapper;
+
+    public EdgeRateLimiters(RequestRateLimiterGatewayFilterFactory factory, RateLimitProperties limits,
+                            ReactiveStringRedisTemplate redisTemplate,
+                            @Qualifier(RedisRateLimiter.REDIS_SCRIPT_NAME) RedisScript<List<Long>> script,
+                            ConfigurationService configurationService, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        RedisRateLimiter ipLimiter = new TunableRedisRateLimiter(redisTemplate, script, configurationService,
+                routeId -> {
+                    RouteLimits route = limits.forRoute(routeId);
+                    return bucket(route.getIpReplenishRate(), route.getIpBurstCapacity());
+                });
+        RedisRateLimiter userLimiter = new TunableRedisRateLimiter(redisTemplate, script, configurationService,
+                routeId -> {
+                    RouteLimits route = limits.forRoute(routeId);
+                    return bucket(route.getUserReplenishRate(), route.getUserBurstCapacity());
+                });
+        this.ipRateLimit = factory.apply(new RequestRateLimiterGatewayFilterFactory.Config()
+                .setRateLimiter(ipLimiter)
+                .setKeyResolver(scoped(exchange -> Mono.justOrEmpty(clientIp(exchange)).map(ip -> "ip:" + ip))));
+        this.userRateLimit = factory.apply(new RequestRateLimiterGatewayFilterFactory.Config()
+                .setRateLimiter(userLimiter)
+                .setKeyResolver(scoped(exchange -> Mono.justOrEmpty(subject(exchange)).map(sub -> "user:" + sub)))
+                .setDenyEmptyKey(false));
+    }
+
+    public GatewayFilter ipRateLimit() {
+        return ipRateLimit;
+    }
+
+    public GatewayFilter userRateLimit() {
+        return userRateLimit;
+    }
+
+    // The Redis keys do not include the route, so the resolver adds it
+    private static KeyResolver scoped(KeyResolver resolver) {
+        return exchange -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unrouted";
+            return resolver.resolve(exchange).map(key -> routeId + ":" + key);
+        };
+    }
+
+    private static RedisRateLimiter.Config bucket(int replenishRate, int burstCapacity) {
+        return new RedisRateLimiter.Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(Math.max(burstCapacity, replenishRate))
+                .setRequestedTokens(1);
+    }
+
+    static String clientIp(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return remote == null || remote.getAddress() == null ? null : remote.getAddress().getHostAddress();
+    }
+
+    String subject(ServerWebExchange exchange) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            return null;
+        }
+        String[] parts = authorization.substring(BEARER.length()).split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            String subject = claims.path("sub").asText(null);
+            return subject == null || subject.isBlank() ? null : subject;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Looks the bucket size up on every call instead of once at startup.
+     */
+    private static class TunableRedisRateLimiter extends RedisRateLimiter {
+
+        private final Function<String, Config> configSource;
+
+        TunableRedisRateLimiter(ReactiveStringRedisTemplate redisTemplate, RedisScript<List<Long>> script,
+                                ConfigurationService configurationService, Function<String, Config> configSource) {
+            super(redisTemplate, script, configurationService);
+            this.configSource = configSource;
+        }
+
+        @Override
+        public Mono<Response> isAllowed(String routeId, String id) {
+            getConfig().put(routeId, configSource.apply(routeId));
+            return super.isAllowed(routeId, id);
+        }
+    }
+}
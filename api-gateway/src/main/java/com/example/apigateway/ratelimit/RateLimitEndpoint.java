@@ -0,0 +1,63 @@
+package com.example.apigateway.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/ratelimits: effective limits and in-flight counts per route.
+ * POST /actuator/ratelimits/{routeId} with any of the RouteLimits fields
+ * changes them on this instance without a restart; it needs the admin
+ * token (see {@link RateLimitEndpointGuard}).
+ */
+@Component
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    private final RateLimitProperties limits;
+    private final ConcurrencyLimitFilter concurrencyLimit;
+    private final RouteLocator routeLocator;
+
+    public RateLimitEndpoint(RateLimitProperties limits, ConcurrencyLimitFilter concurrencyLimit,
+                             RouteLocator routeLocator) {
+        this.limits = limits;
+        this.concurrencyLimit = concurrencyLimit;
+        this.routeLocator = routeLocator;
+    }
+
+    @ReadOperation
+    public Map<String, Object> routes() {
+        Map<String, Object> routes = new LinkedHashMap<>();
+        routeLocator.getRoutes().toStream().forEach(route -> routes.put(route.getId(), describe(route.getId())));
+        return routes;
+    }
+
+    @ReadOperation
+    public Map<String, Object> route(@Selector String routeId) {
+        return describe(routeId);
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Selector String routeId,
+                                      @Nullable Integer userReplenishRate, @Nullable Integer userBurstCapacity,
+                                      @Nullable Integer ipReplenishRate, @Nullable Integer ipBurstCapacity,
+                                      @Nullable Integer maxConcurrent) {
+        limits.update(routeId, new RouteLimits(userReplenishRate, userBurstCapacity,
+                ipReplenishRate, ipBurstCapacity, maxConcurrent));
+        return describe(routeId);
+    }
+
+    private Map<String, Object> describe(String routeId) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("limits", limits.forRoute(routeId));
+        description.put("inFlight", concurrencyLimit.inFlight(routeId));
+        return description;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.apigateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * The gateway has no authentication of its own, so only reads of
+ * /actuator/ratelimits are public. Changing limits needs an
+ * {@value #TOKEN_HEADER} header equal to gateway.limits.admin-token; while
+ * no token is configured, every write gets 403.
+ */
+@Component
+public class RateLimitEndpointGuard implements WebFilter {
+
+    public static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final String endpointPath;
+    private final byte[] adminToken;
+
+    public RateLimitEndpointGuard(@Value("${management.endpoints.web.base-path:/actuator}") String basePath,
+                                  @Value("${gateway.limits.admin-token:}") String adminToken) {
+        this.endpointPath = basePath + "/ratelimits";
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        boolean endpoint = path.equals(endpointPath) || path.startsWith(endpointPath + "/");
+        if (!endpoint || HttpMethod.GET.equals(request.getMethod()) || authorized(request)) {
+            return chain.filter(exchange);
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+        return exchange.getResponse().setComplete();
+    }
+
+    // Constant-time comparison, so the token cannot be guessed byte by byte
+    private boolean authorized(ServerHttpRequest request) {
+        String token = request.getHeaders().getFirst(TOKEN_HEADER);
+        return adminToken.length > 0 && token != null
+                && MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.apigateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * gateway.limits.defaults.* and per-route gateway.limits.routes.{route-id}.*.
+ * Read on every request, so changes made through the ratelimits actuator
+ * endpoint apply immediately (to this gateway instance only).
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.limits")
+public class RateLimitProperties {
+
+    private RouteLimits defaults = new RouteLimits(20, 40, 50, 100, 0);
+    private Map<String, RouteLimits> routes = new ConcurrentHashMap<>();
+
+    public RouteLimits forRoute(String routeId) {
+        RouteLimits route = routes.get(routeId);
+        return route == null ? defaults : route.orElse(defaults);
+    }
+
+    public void update(String routeId, RouteLimits changes) {
+        routes.merge(routeId, changes, (current, update) -> update.orElse(current));
+    }
+
+    public RouteLimits getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(RouteLimits defaults) {
+        this.defaults = defaults.orElse(this.defaults);
+    }
+
+    public Map<String, RouteLimits> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, RouteLimits> routes) {
+        this.routes = new ConcurrentHashMap<>(routes);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.apigateway.ratelimit;
+
+/**
+ * Edge limits of one route. Unset values fall back to gateway.limits.defaults.
+ * Rates are requests per second; a burst capacity is the token bucket size.
+ * A max-concurrent of 0 disables the concurrency cap.
+ */
+public class RouteLimits {
+
+    private Integer userReplenishRate;
+    private Integer userBurstCapacity;
+    private Integer ipReplenishRate;
+    private Integer ipBurstCapacity;
+    private Integer maxConcurrent;
+
+    public RouteLimits() {
+    }
+
+    public RouteLimits(Integer userReplenishRate, Integer userBurstCapacity, Integer ipReplenishRate,
+                       Integer ipBurstCapacity, Integer maxConcurrent) {
+        this.userReplenishRate = userReplenishRate;
+        this.userBurstCapacity = userBurstCapacity;
+        this.ipReplenishRate = ipReplenishRate;
+        this.ipBurstCapacity = ipBurstCapacity;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    // Values set here win; the rest come from fallback
+    public RouteLimits orElse(RouteLimits fallback) {
+        return new RouteLimits(
+                userReplenishRate != null ? userReplenishRate : fallback.userReplenishRate,
+                userBurstCapacity != null ? userBurstCapacity : fallback.userBurstCapacity,
+                ipReplenishRate != null ? ipReplenishRate : fallback.ipReplenishRate,
+                ipBurstCapacity != null ? ipBurstCapacity : fallback.ipBurstCapacity,
+                maxConcurrent != null ? maxConcurrent : fallback.maxConcurrent);
+    }
+
+    public Integer getUserReplenishRate() {
+        return userReplenishRate;
+    }
+
+    public void setUserReplenishRate(Integer userReplenishRate) {
+        this.userReplenishRate = userReplenishRate;
+    }
+
+    public Integer getUserBurstCapacity() {
+        return userBurstCapacity;
+    }
+
+    public void setUserBurstCapacity(Integer userBurstCapacity) {
+        this.userBurstCapacity = userBurstCapacity;
+    }
+
+    public Integer getIpReplenishRate() {
+        return ipReplenishRate;
+    }
+
+    public void setIpReplenishRate(Integer ipReplenishRate) {
+        this.ipReplenishRate = ipReplenishRate;
+    }
+
+    public Integer getIpBurstCapacity() {
+        return ipBurstCapacity;
+    }
+
+    public void setIpBurstCapacity(Integer ipBurstCapacity) {
+        this.ipBurstCapacity = ipBurstCapacity;
+    }
+
+    public Integer getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(Integer maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+}
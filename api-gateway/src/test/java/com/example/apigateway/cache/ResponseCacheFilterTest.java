@@ -0,0 +1,139 @@
+package com.example.apigateway.cache;
+
+import com.example.apigateway.support.InMemoryResponseCacheStore;
+import com.example.apigateway.support.StubCatalogServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.cache.default-ttl=1m"
+})
+class ResponseCacheFilterTest {
+
+    private static final StubCatalogServer upstream = startUpstream();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private InMemoryResponseCacheStore store;
+
+    @TestConfiguration
+    static class InMemoryStoreConfig {
+        @Bean
+        @Primary
+        InMemoryResponseCacheStore inMemoryResponseCacheStore() {
+            return new InMemoryResponseCacheStore();
+        }
+    }
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("gateway.routes.books-uri", upstream::url);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @BeforeEach
+    void reset() {
+        store.clear();
+        upstream.calls.set(0);
+        upstream.latencyMs = 0;
+        upstream.cacheControl = null;
+    }
+
+    @Test
+    void repeatedGetIsServedFromCacheAndRevalidatesWithEtag() {
+        EntityExchangeResult<String> first = get("/api/books/genre/Fantasy");
+        EntityExchangeResult<String> second = get("/api/books/genre/Fantasy");
+
+        assertThat(first.getResponseHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER)).isEqualTo("MISS");
+        assertThat(second.getResponseHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER)).isEqualTo("HIT");
+        assertThat(second.getResponseBody()).isEqualTo(first.getResponseBody());
+        assertThat(upstream.calls).hasValue(1);
+
+        String etag = second.getResponseHeaders().getETag();
+        client.get().uri("/api/books/genre/Fantasy")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(upstream.calls).hasValue(1);
+    }
+
+    @Test
+    void respectsCacheControl() {
+        upstream.cacheControl = "no-store";
+        get("/api/books/available");
+        get("/api/books/available");
+        assertThat(upstream.calls).hasValue(2);
+
+        upstream.cacheControl = "max-age=60";
+        get("/api/books/out-of-stock");
+        client.get().uri("/api/books/out-of-stock")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .exchange()
+                .expectHeader().valueEquals(ResponseCacheFilter.CACHE_HEADER, "MISS");
+        assertThat(upstream.calls).hasValue(4);
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() {
+        upstream.latencyMs = 300;
+
+        WebClient webClient = WebClient.create("http://localhost:" + port);
+        List<String> bodies = Flux.range(0, 20)
+                .flatMap(i -> webClient.get().uri("/api/books/search?query=tolkien")
+                        .retrieve()
+                        .bodyToMono(String.class), 20)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(bodies).hasSize(20).allMatch(body -> body.equals(bodies.get(0)));
+        assertThat(upstream.calls).hasValue(1);
+    }
+
+    private EntityExchangeResult<String> get(String uri) {
+        return client.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult();
+    }
+
+    private static StubCatalogServer startUpstream() {
+        try {
+            return new StubCatalogServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
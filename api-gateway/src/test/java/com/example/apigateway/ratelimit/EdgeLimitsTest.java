@@ -0,0 +1,233 @@
+package com.example.apigateway.ratelimit;
+
+import com.example.apigateway.support.InMemoryTokenBuckets;
+import com.example.apigateway.support.StubCatalogServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The token buckets run against {@link InMemoryTokenBuckets} instead of
+ * Redis. user-service routes to the stub as well, which answers 404 there,
+ * so anything but 429 means the request got past the limits. Requests are
+ * sent from different loopback addresses to get separate IP buckets.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.limits.admin-token=" + EdgeLimitsTest.ADMIN_TOKEN,
+        "gateway.limits.routes.books-management-service.max-concurrent=2",
+        "gateway.limits.routes.user-service.ip-replenish-rate=1",
+        "gateway.limits.routes.user-service.ip-burst-capacity=5",
+        "gateway.limits.routes.user-service.user-replenish-rate=1",
+        "gateway.limits.routes.user-service.user-burst-capacity=3"
+})
+class EdgeLimitsTest {
+
+    static final String ADMIN_TOKEN = "test-admin-token";
+
+    private static final StubCatalogServer upstream = startUpstream();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EdgeRateLimiters rateLimiters;
+
+    @Autowired
+    private RateLimitProperties limits;
+
+    @Autowired
+    private InMemoryTokenBuckets buckets;
+
+    @TestConfiguration
+    static class TokenBucketConfig {
+        @Bean
+        @Primary
+        InMemoryTokenBuckets inMemoryTokenBuckets(ReactiveRedisConnectionFactory connectionFactory) {
+            return new InMemoryTokenBuckets(connectionFactory);
+        }
+    }
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("gateway.routes.books-uri", upstream::url);
+        registry.add("gateway.routes.users-uri", upstream::url);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @AfterEach
+    void restoreLimits() {
+        limits.update("books-management-service", new RouteLimits(null, null, null, null, 2));
+        buckets.clear();
+    }
+
+    @Test
+    void requestsAboveTheRouteConcurrencyCapAreShedWith429() {
+        upstream.latencyMs = 500;
+
+        List<HttpStatus> statuses = burst(6);
+
+        assertThat(statuses).filteredOn(HttpStatus.OK::equals).hasSize(2);
+        assertThat(statuses).filteredOn(HttpStatus.TOO_MANY_REQUESTS::equals).hasSize(4);
+    }
+
+    @Test
+    void concurrencyCapCanBeRaisedAtRuntime() {
+        upstream.latencyMs = 500;
+        WebClient.create("http://localhost:" + port).post()
+                .uri("/actuator/ratelimits/books-management-service")
+                .header(RateLimitEndpointGuard.TOKEN_HEADER, ADMIN_TOKEN)
+                .bodyValue(Map.of("maxConcurrent", 10))
+                .retrieve()
+                .toBodilessEntity()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(burst(6)).containsOnly(HttpStatus.OK);
+    }
+
+    @Test
+    void limitsCannotBeChangedWithoutTheAdminToken() {
+        WebClient client = WebClient.create("http://localhost:" + port);
+
+        assertThat(updateLimits(client, null)).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(updateLimits(client, "wrong-token")).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(limits.forRoute("books-management-service").getMaxConcurrent()).isEqualTo(2);
+        assertThat(client.get().uri("/actuator/ratelimits/books-management-service")
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .block(Duration.ofSeconds(5))).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void ipBucketAnswers429OnceItsBurstIsSpent() {
+        List<HttpStatus> statuses = send("127.0.0.2", null, 6);
+
+        assertThat(statuses.subList(0, 5)).doesNotContain(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(statuses.get(5)).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(send("127.0.0.3", null, 1)).doesNotContain(HttpStatus.TOO_MANY_REQUESTS);
+
+        buckets.advanceSeconds(1);
+        assertThat(send("127.0.0.2", null, 1)).doesNotContain(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void userBucketAnswers429PerSubjectAndRoute() {
+        List<HttpStatus> alice = send("127.0.0.4", "alice", 4);
+
+        assertThat(alice.subList(0, 3)).doesNotContain(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(alice.get(3)).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        // Same IP, whose bucket still has a token left
+        assertThat(send("127.0.0.4", "bob", 1)).doesNotContain(HttpStatus.TOO_MANY_REQUESTS);
+        // Alice's bucket on the books route is a different one
+        assertThat(client("127.0.0.4").get().uri("/api/books/1")
+                .header(HttpHeaders.AUTHORIZATION, bearer("alice"))
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .block(Duration.ofSeconds(5))).isEqualTo(HttpStatus.OK);
+        assertThat(buckets.keys()).contains(
+                "request_rate_limiter.{user-service:user:alice}.tokens",
+                "request_rate_limiter.{books-management-service:user:alice}.tokens",
+                "request_rate_limiter.{user-service:ip:127.0.0.4}.tokens");
+    }
+
+    @Test
+    void userBucketIsKeyedByJwtSubject() {
+        MockServerWebExchange withToken = MockServerWebExchange.from(MockServerHttpRequest.get("/api/books")
+                .header(HttpHeaders.AUTHORIZATION, bearer("alice")));
+        MockServerWebExchange anonymous = MockServerWebExchange.from(MockServerHttpRequest.get("/api/books"));
+
+        assertThat(rateLimiters.subject(withToken)).isEqualTo("alice");
+        assertThat(rateLimiters.subject(anonymous)).isNull();
+    }
+
+    // Distinct queries so the response cache cannot coalesce them
+    private List<HttpStatus> burst(int requests) {
+        WebClient client = WebClient.create("http://localhost:" + port);
+        return Flux.range(0, requests)
+                .flatMap(i -> client.get().uri("/api/books/search?query=q" + i + "-" + System.nanoTime())
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode())),
+                        requests)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+
+    // Sequential user-service requests from the given local address, with a token for the subject if set
+    private List<HttpStatus> send(String ip, String subject, int requests) {
+        WebClient client = client(ip);
+        return Flux.range(0, requests)
+                .concatMap(i -> client.get().uri("/api/user/profile")
+                        .headers(headers -> {
+                            if (subject != null) {
+                                headers.set(HttpHeaders.AUTHORIZATION, bearer(subject));
+                            }
+                        })
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode())))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private WebClient client(String ip) {
+        HttpClient http = HttpClient.create().bindAddress(() -> new InetSocketAddress(ip, 0));
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(http))
+                .build();
+    }
+
+    private static HttpStatus updateLimits(WebClient client, String token) {
+        return client.post().uri("/actuator/ratelimits/books-management-service")
+                .headers(headers -> {
+                    if (token != null) {
+                        headers.set(RateLimitEndpointGuard.TOKEN_HEADER, token);
+                    }
+                })
+                .bodyValue(Map.of("maxConcurrent", 10))
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .block(Duration.ofSeconds(5));
+    }
+
+    // The gateway reads the subject without checking the signature
+    private static String bearer(String subject) {
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("{\"sub\":\"" + subject + "\",\"exp\":4102444800}").getBytes(StandardCharsets.UTF_8));
+        return "Bearer eyJhbGciOiJIUzUxMiJ9." + payload + ".signature";
+    }
+
+    private static StubCatalogServer startUpstream() {
+        try {
+            return new StubCatalogServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.apigateway.support;
+
+import com.example.apigateway.cache.CachedResponse;
+import com.example.apigateway.cache.ResponseCacheStore;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stands in for Redis in tests; honours the TTL on read.
+ */
+public class InMemoryResponseCacheStore implements ResponseCacheStore {
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<CachedResponse> get(String key) {
+        Long expiry = expiries.get(key);
+        if (expiry == null || expiry < System.currentTimeMillis()) {
+            return Mono.empty();
+        }
+        return Mono.justOrEmpty(entries.get(key));
+    }
+
+    @Override
+    public Mono<Void> put(String key, CachedResponse response, Duration ttl) {
+        entries.put(key, response);
+        expiries.put(key, System.currentTimeMillis() + ttl.toMillis());
+        return Mono.empty();
+    }
+
+    public void clear() {
+        entries.clear();
+        expiries.clear();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.apigateway.support;
+
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stands in for Redis under the gateway's rate limiter: runs the token
+ * bucket of request_rate_limiter.lua in memory instead of the script.
+ * Time only moves when a test calls {@link #advanceSeconds(long)}, so a
+ * burst drains a bucket exactly. Every other Redis call goes to the real
+ * (unreachable) connection, as before.
+ */
+public class InMemoryTokenBuckets extends ReactiveStringRedisTemplate {
+
+    private final Map<String, long[]> buckets = new ConcurrentHashMap<>();
+    private volatile long now = 1_000_000;
+
+    public InMemoryTokenBuckets(ReactiveRedisConnectionFactory connectionFactory) {
+        super(connectionFactory);
+    }
+
+    // KEYS = {tokens key, timestamp key}; ARGV = {rate, capacity, now (unused), requested}
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> execute(RedisScript<T> script, List<String> keys, List<?> args) {
+        long rate = Long.parseLong(args.get(0).toString());
+        long capacity = Long.parseLong(args.get(1).toString());
+        long requested = Long.parseLong(args.get(3).toString());
+        long[] bucket = buckets.computeIfAbsent(keys.get(0), key -> new long[]{capacity, 0});
+        synchronized (bucket) {
+            long filled = Math.min(capacity, bucket[0] + Math.max(0, now - bucket[1]) * rate);
+            boolean allowed = filled >= requested;
+            bucket[0] = allowed ? filled - requested : filled;
+            bucket[1] = now;
+            return Flux.just((T) List.of(allowed ? 1L : 0L, bucket[0]));
+        }
+    }
+
+    public void advanceSeconds(long seconds) {
+        now += seconds;
+    }
+
+    public Set<String> keys() {
+        return buckets.keySet();
+    }
+
+    public void clear() {
+        buckets.clear();
+    }
+}
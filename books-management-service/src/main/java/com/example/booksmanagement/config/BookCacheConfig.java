@@ -0,0 +1,27 @@
+package com.example.booksmanagement.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+
+/**
+ * Caffeine caches for single-book lookups. Size, TTL and stats recording
+ * come from spring.cache.caffeine.spec; hit/miss/eviction counters are
+ * published by actuator under the cache.* metrics.
+ */
+@Configuration
+@EnableCaching
+public class BookCacheConfig {
+
+    public static final String BOOKS_BY_ID = "books";
+    public static final String BOOKS_BY_ISBN = "booksByIsbn";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> bookCacheNames() {
+        return cacheManager -> cacheManager.setCacheNames(Arrays.asList(BOOKS_BY_ID, BOOKS_BY_ISBN));
+    }
+}
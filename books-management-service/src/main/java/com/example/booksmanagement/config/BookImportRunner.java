@@ -0,0 +1,57 @@
+package com.example.booksmanagement.config;
+
+import com.example.booksmanagement.dto.ImportReport;
+import com.example.booksmanagement.service.BookImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line import: start the service with --import=books.json (or .csv),
+ * usually together with --spring.main.web-application-type=none. The
+ * application exits once the file is loaded; the exit code is 0 only if
+ * every record was inserted.
+ */
+@Component
+public class BookImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportRunner.class);
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("import")) {
+            return;
+        }
+        Path file = Paths.get(args.getOptionValues("import").get(0));
+        BookImportService.Format format = file.getFileName().toString().toLowerCase().endsWith(".csv")
+                ? BookImportService.Format.CSV : BookImportService.Format.JSON;
+
+        ImportReport report;
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            report = bookImportService.importBooks(input, format);
+        }
+        report.getErrors().forEach(error ->
+                log.warn("Record {} (ISBN {}): {}", error.getRecord(), error.getIsbn(), error.getMessage()));
+        log.info("Imported {}: {}", file, report);
+
+        int exitCode = report.getDuplicates() + report.getFailed() == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.booksmanagement.config;
+
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.entity.BookChangeEvent;
+import com.example.booksmanagement.service.BookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+/**
+ * Creates the compound indexes the keyset-paginated listings seek on, and
+ * the (isbn, isActive) index used by duplicate checks on create and import,
+ * and the change feed's sequence and trim indexes.
+ * ensureIndex is a no-op when an index already exists.
+ */
+@Configuration
+public class MongoIndexConfig {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureBookIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Book.class);
+        for (String sortKey : BookService.PAGE_SORT_KEYS) {
+            Index index = new Index().on("isActive", Sort.Direction.ASC);
+            String name = "isActive_id";
+            if (!"id".equals(sortKey)) {
+                index.on(sortKey, Sort.Direction.ASC);
+                name = "isActive_" + sortKey + "_id";
+            }
+            indexOps.ensureIndex(index.on("_id", Sort.Direction.ASC).named(name));
+        }
+        indexOps.ensureIndex(new Index()
+                .on("isbn", Sort.Direction.ASC)
+                .on("isActive", Sort.Direction.ASC)
+                .named("isbn_isActive"));
+
+        IndexOperations changeIndexOps = mongoTemplate.indexOps(BookChangeEvent.class);
+        changeIndexOps.ensureIndex(new Index().on("sequence", Sort.Direction.ASC).unique().named("sequence"));
+        changeIndexOps.ensureIndex(new Index().on("createdAt", Sort.Direction.ASC).named("createdAt"));
+    }
+}
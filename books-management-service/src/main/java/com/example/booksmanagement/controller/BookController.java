@@ -1,25 +1,60 @@
 package com.example.booksmanagement.controller;
 
+import com.example.booksmanagement.dto.BookChangeBatch;
+import com.example.booksmanagement.dto.CatalogStatsSnapshot;
+import com.example.booksmanagement.dto.CursorPage;
+import com.example.booksmanagement.dto.ImportReport;
+import com.example.booksmanagement.dto.Suggestion;
 import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.service.BookChangeLog;
+import com.example.booksmanagement.service.BookImportService;
+import com.example.booksmanagement.service.BookSearchIndex;
 import com.example.booksmanagement.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/books")
 @CrossOrigin(origins = "*") // Permet l'accès à l'API depuis n'importe quelle origine (CORS)
 public class BookController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_SUMMARY = "summary";
+
     @Autowired
     private BookService bookService; // Injection du service métier pour la gestion des livres
 
+    @Autowired
+    private BookImportService bookImportService; // Import en masse du catalogue
+
+    @Autowired
+    private BookChangeLog bookChangeLog; // Flux des modifications du catalogue (lu par search-service)
+
+    @Autowired
+    private ObjectMapper objectMapper; // Sérialiseur JSON configuré par Spring Boot
+
+    @Autowired
+    private MeterRegistry meterRegistry; // Compteurs métier exposés à Prometheus
+
     // Récupérer tous les livres actifs (non supprimés, ou disponibles)
     @GetMapping
     public ResponseEntity<List<Book>> getAllBooks() {
@@ -27,13 +62,42 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
-    // Récupérer tous les livres actifs avec pagination
+    // Exporter le catalogue actif en NDJSON, document par document depuis le curseur Mongo
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(Book.class);
+            OutputStream out = new BufferedOutputStream(outputStream);
+            try (Stream<Book> books = bookService.streamActiveBooks()) {
+                Iterator<Book> iterator = books.iterator();
+                while (iterator.hasNext()) {
+                    out.write(writer.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                }
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    // Récupérer les livres actifs page par page (pagination par curseur)
     @GetMapping("/paginated")
-    public ResponseEntity<Page<Book>> getAllBooksPaginated(Pageable pageable) {
-        Page<Book> books = bookService.getAllActiveBooksPaginated(pageable);
+    public ResponseEntity<CursorPage<Book>> getAllBooksPaginated(
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPage<Book> books = bookService.getActiveBooksPage(sort, cursor, size, includeTotal);
         return ResponseEntity.ok(books);
     }
 
+    // Lire les modifications du catalogue postérieures à une position (synchronisation incrémentale)
+    @GetMapping("/changes")
+    public ResponseEntity<BookChangeBatch> getChanges(@RequestParam(defaultValue = "0") long after,
+                                                      @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(bookChangeLog.read(after, limit));
+    }
+
     // Récupérer un livre par son identifiant
     @GetMapping("/{id}")
     public ResponseEntity<Book> getBookById(@PathVariable String id) {
@@ -41,6 +105,12 @@ public class BookController {
         return ResponseEntity.ok(book);
     }
 
+    // Vérifier qu'un livre existe et est actif (utilisé par loan-service)
+    @GetMapping("/validate/{id}")
+    public ResponseEntity<Boolean> validateBook(@PathVariable String id) {
+        return ResponseEntity.ok(bookService.isActiveBook(id));
+    }
+
     // Récupérer un livre par son numéro ISBN
     @GetMapping("/isbn/{isbn}")
     public ResponseEntity<Book> getBookByIsbn(@PathVariable String isbn) {
@@ -55,6 +125,16 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdBook);
     }
 
+    // Importer un catalogue complet (tableau JSON ou CSV) en lots, avec un rapport d'erreurs par enregistrement
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<ImportReport> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    InputStream body) throws IOException {
+        BookImportService.Format format = contentType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                ? BookImportService.Format.JSON : BookImportService.Format.CSV;
+        ImportReport report = bookImportService.importBooks(body, format);
+        return ResponseEntity.ok(report);
+    }
+
     // Mettre à jour les données d’un livre existant
     @PutMapping("/{id}")
     public ResponseEntity<Book> updateBook(@PathVariable String id, @Valid @RequestBody Book book) {
@@ -69,55 +149,113 @@ public class BookController {
         return ResponseEntity.noContent().build(); // 204 No Content
     }
 
+    // Suggestions de titres et d'auteurs pendant la saisie, les plus empruntés en premier
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam String prefix,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(bookService.getSuggestions(prefix, limit));
+    }
+
     // Recherche globale de livres (par titre, auteur, etc.)
     @GetMapping("/search")
-    public ResponseEntity<List<Book>> searchBooks(@RequestParam String query) {
+    public ResponseEntity<List<?>> searchBooks(@RequestParam String query,
+                                               @RequestParam(defaultValue = VIEW_FULL) String view) {
+        countSearch("all", view);
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(bookService.searchBookSummaries(query, BookSearchIndex.Field.values()));
+        }
         List<Book> books = bookService.searchBooks(query);
         return ResponseEntity.ok(books);
     }
 
     // Recherche de livres par titre
     @GetMapping("/search/title")
-    public ResponseEntity<List<Book>> searchBooksByTitle(@RequestParam String title) {
+    public ResponseEntity<List<?>> searchBooksByTitle(@RequestParam String title,
+                                                      @RequestParam(defaultValue = VIEW_FULL) String view) {
+        countSearch("title", view);
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(bookService.searchBookSummaries(title, BookSearchIndex.Field.TITLE));
+        }
         List<Book> books = bookService.searchBooksByTitle(title);
         return ResponseEntity.ok(books);
     }
 
     // Recherche de livres par auteur
     @GetMapping("/search/author")
-    public ResponseEntity<List<Book>> searchBooksByAuthor(@RequestParam String author) {
+    public ResponseEntity<List<?>> searchBooksByAuthor(@RequestParam String author,
+                                                       @RequestParam(defaultValue = VIEW_FULL) String view) {
+        countSearch("author", view);
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(bookService.searchBookSummaries(author, BookSearchIndex.Field.AUTHOR));
+        }
         List<Book> books = bookService.searchBooksByAuthor(author);
         return ResponseEntity.ok(books);
     }
 
     // Recherche de livres par genre
     @GetMapping("/search/genre")
-    public ResponseEntity<List<Book>> searchBooksByGenre(@RequestParam String genre) {
+    public ResponseEntity<List<?>> searchBooksByGenre(@RequestParam String genre,
+                                                      @RequestParam(defaultValue = VIEW_FULL) String view) {
+        countSearch("genre", view);
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(bookService.searchBookSummaries(genre, BookSearchIndex.Field.GENRE));
+        }
         List<Book> books = bookService.searchBooksByGenre(genre);
         return ResponseEntity.ok(books);
     }
 
     // Obtenir tous les livres d’un genre spécifique
     @GetMapping("/genre/{genre}")
-    public ResponseEntity<List<Book>> getBooksByGenre(@PathVariable String genre) {
+    public ResponseEntity<List<?>> getBooksByGenre(@PathVariable String genre,
+                                                   @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(bookService.getBookSummariesByGenre(genre));
+        }
         List<Book> books = bookService.getBooksByGenre(genre);
         return ResponseEntity.ok(books);
     }
 
     // Obtenir les livres disponibles (copies > 0)
     @GetMapping("/available")
-    public ResponseEntity<List<Book>> getAvailableBooks() {
+    public ResponseEntity<List<?>> getAvailableBooks(@RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(bookService.getAvailableBookSummaries());
+        }
         List<Book> books = bookService.getAvailableBooks();
         return ResponseEntity.ok(books);
     }
 
     // Obtenir les livres en rupture de stock (copies = 0)
     @GetMapping("/out-of-stock")
-    public ResponseEntity<List<Book>> getOutOfStockBooks() {
+    public ResponseEntity<List<?>> getOutOfStockBooks(@RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(bookService.getOutOfStockBookSummaries());
+        }
         List<Book> books = bookService.getOutOfStockBooks();
         return ResponseEntity.ok(books);
     }
 
+    // Une recherche par requête, étiquetée par type et par vue
+    private void countSearch(String type, String view) {
+        Counter.builder("books.searches")
+                .description("Catalog searches served")
+                .tag("type", type)
+                .tag("view", isSummaryView(view) ? VIEW_SUMMARY : VIEW_FULL)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // "summary" renvoie des BookSummary (projection Mongo), "full" les documents complets
+    private static boolean isSummaryView(String view) {
+        if (VIEW_SUMMARY.equals(view)) {
+            return true;
+        }
+        if (VIEW_FULL.equals(view)) {
+            return false;
+        }
+        throw new RuntimeException("Unsupported view: " + view);
+    }
+
     // Mettre à jour manuellement le nombre de copies disponibles
     @PutMapping("/{id}/availability")
     public ResponseEntity<Book> updateBookAvailability(@PathVariable String id, @RequestParam Integer availableCopies) {
@@ -139,6 +277,12 @@ public class BookController {
         return ResponseEntity.ok(returnedBook);
     }
 
+    // Obtenir toutes les statistiques du catalogue en une seule réponse (servies depuis la mémoire)
+    @GetMapping("/stats")
+    public ResponseEntity<CatalogStatsSnapshot> getCatalogStats() {
+        return ResponseEntity.ok(bookService.getCatalogStats());
+    }
+
     // Obtenir le nombre total de livres
     @GetMapping("/stats/total")
     public ResponseEntity<Long> getTotalBooksCount() {
@@ -0,0 +1,36 @@
+package com.example.booksmanagement.dto;
+
+import com.example.booksmanagement.entity.BookChangeEvent;
+
+import java.util.List;
+
+/**
+ * Changes after a consumer's position, in sequence order. {@code head} is
+ * the last sequence handed out so far. Events up to {@code trimmedThrough}
+ * have been discarded; a consumer positioned before it has missed changes
+ * and must reload the catalog.
+ */
+public class BookChangeBatch {
+
+    private final List<BookChangeEvent> changes;
+    private final long head;
+    private final long trimmedThrough;
+
+    public BookChangeBatch(List<BookChangeEvent> changes, long head, long trimmedThrough) {
+        this.changes = changes;
+        this.head = head;
+        this.trimmedThrough = trimmedThrough;
+    }
+
+    public List<BookChangeEvent> getChanges() {
+        return changes;
+    }
+
+    public long getHead() {
+        return head;
+    }
+
+    public long getTrimmedThrough() {
+        return trimmedThrough;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.booksmanagement.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token for book listings: the sort key, the sort value of the
+ * last book returned and its id as a tie-breaker, Base64url-encoded.
+ */
+public class BookCursor {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final String sortKey;
+    private final String value;
+    private final String id;
+
+    public BookCursor(String sortKey, String value, String id) {
+        this.sortKey = sortKey;
+        this.value = value;
+        this.id = id;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + (value == null ? "" : value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            if (first < 0 || first == last) {
+                throw new IllegalArgumentException();
+            }
+            return new BookCursor(raw.substring(0, first), raw.substring(first + 1, last), raw.substring(last + 1));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.booksmanagement.dto;
+
+import com.example.booksmanagement.entity.Book;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * One row of a bulk catalog import. Accepts the sample_books.json layout,
+ * where the genre is called "category" and copies are optional.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BookImportRecord {
+
+    private String title;
+    private String author;
+    private String isbn;
+    private String description;
+    private Integer publicationYear;
+    private String genre;
+    private String category;
+    private String publisher;
+    private Integer totalCopies;
+    private Integer availableCopies;
+    private String coverImageUrl;
+    private List<String> tags;
+
+    public Book toBook() {
+        int copies = totalCopies != null ? totalCopies : 1;
+        Book book = new Book(title, author, isbn, description, publicationYear,
+                genre != null ? genre : category, publisher, copies);
+        if (availableCopies != null) {
+            book.setAvailableCopies(availableCopies);
+        }
+        book.setCoverImageUrl(coverImageUrl);
+        book.setTags(tags);
+        return book;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Integer getPublicationYear() {
+        return publicationYear;
+    }
+
+    public void setPublicationYear(Integer publicationYear) {
+        this.publicationYear = publicationYear;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getPublisher() {
+        return publisher;
+    }
+
+    public void setPublisher(String publisher) {
+        this.publisher = publisher;
+    }
+
+    public Integer getTotalCopies() {
+        return totalCopies;
+    }
+
+    public void setTotalCopies(Integer totalCopies) {
+        this.totalCopies = totalCopies;
+    }
+
+    public Integer getAvailableCopies() {
+        return availableCopies;
+    }
+
+    public void setAvailableCopies(Integer availableCopies) {
+        this.availableCopies = availableCopies;
+    }
+
+    public String getCoverImageUrl() {
+        return coverImageUrl;
+    }
+
+    public void setCoverImageUrl(String coverImageUrl) {
+        this.coverImageUrl = coverImageUrl;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
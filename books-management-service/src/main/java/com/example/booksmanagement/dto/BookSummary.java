@@ -0,0 +1,62 @@
+package com.example.booksmanagement.dto;
+
+/**
+ * Compact list-view representation of a book, returned with ?view=summary.
+ * Its properties double as the Mongo field projection, so the skipped
+ * fields (description, tags, cover URL, timestamps...) are never read.
+ */
+public class BookSummary {
+
+    private final String id;
+    private final String title;
+    private final String author;
+    private final String isbn;
+    private final String genre;
+    private final Integer publicationYear;
+    private final Integer availableCopies;
+    private final Integer totalCopies;
+
+    public BookSummary(String id, String title, String author, String isbn, String genre,
+                       Integer publicationYear, Integer availableCopies, Integer totalCopies) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+        this.genre = genre;
+        this.publicationYear = publicationYear;
+        this.availableCopies = availableCopies;
+        this.totalCopies = totalCopies;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public Integer getPublicationYear() {
+        return publicationYear;
+    }
+
+    public Integer getAvailableCopies() {
+        return availableCopies;
+    }
+
+    public Integer getTotalCopies() {
+        return totalCopies;
+    }
+}
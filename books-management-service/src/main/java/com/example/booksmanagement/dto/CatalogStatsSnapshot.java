@@ -0,0 +1,53 @@
+package com.example.booksmanagement.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of the catalog counters served by /api/books/stats.
+ */
+public class CatalogStatsSnapshot {
+
+    private final long totalBooks;
+    private final long availableBooks;
+    private final long outOfStockBooks;
+    private final Map<String, Long> booksByGenre;
+    private final Map<Integer, Long> booksByPublicationYear;
+    private final LocalDateTime rebuiltAt;
+
+    public CatalogStatsSnapshot(long totalBooks, long availableBooks, long outOfStockBooks,
+                                Map<String, Long> booksByGenre, Map<Integer, Long> booksByPublicationYear,
+                                LocalDateTime rebuiltAt) {
+        this.totalBooks = totalBooks;
+        this.availableBooks = availableBooks;
+        this.outOfStockBooks = outOfStockBooks;
+        this.booksByGenre = booksByGenre;
+        this.booksByPublicationYear = booksByPublicationYear;
+        this.rebuiltAt = rebuiltAt;
+    }
+
+    public long getTotalBooks() {
+        return totalBooks;
+    }
+
+    public long getAvailableBooks() {
+        return availableBooks;
+    }
+
+    public long getOutOfStockBooks() {
+        return outOfStockBooks;
+    }
+
+    public Map<String, Long> getBooksByGenre() {
+        return booksByGenre;
+    }
+
+    public Map<Integer, Long> getBooksByPublicationYear() {
+        return booksByPublicationYear;
+    }
+
+    // Last full recount from Mongo; counters are kept current incrementally since then
+    public LocalDateTime getRebuiltAt() {
+        return rebuiltAt;
+    }
+}
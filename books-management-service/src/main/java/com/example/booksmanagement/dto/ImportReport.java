@@ -0,0 +1,108 @@
+package com.example.booksmanagement.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Every rejected record is counted, but only the
+ * first {@link #MAX_ERRORS} are described so a bad file cannot exhaust the heap.
+ */
+public class ImportReport {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private long received;
+    private long inserted;
+    private long duplicates;
+    private long failed;
+    private long durationMs;
+    private final List<RecordError> errors = new ArrayList<>();
+
+    public void recordReceived() {
+        received++;
+    }
+
+    public void recordInserted(long count) {
+        inserted += count;
+    }
+
+    public void recordDuplicate(long record, String isbn) {
+        duplicates++;
+        addError(record, isbn, "Duplicate ISBN");
+    }
+
+    public void recordFailure(long record, String isbn, String message) {
+        failed++;
+        addError(record, isbn, message);
+    }
+
+    private void addError(long record, String isbn, String message) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RecordError(record, isbn, message));
+        }
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<RecordError> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "received=" + received +
+                ", inserted=" + inserted +
+                ", duplicates=" + duplicates +
+                ", failed=" + failed +
+                ", durationMs=" + durationMs +
+                '}';
+    }
+
+    public static class RecordError {
+        private final long record;
+        private final String isbn;
+        private final String message;
+
+        public RecordError(long record, String isbn, String message) {
+            this.record = record;
+            this.isbn = isbn;
+            this.message = message;
+        }
+
+        // 1-based position of the record in the uploaded file
+        public long getRecord() {
+            return record;
+        }
+
+        public String getIsbn() {
+            return isbn;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.booksmanagement.dto;
+
+/**
+ * One type-ahead suggestion: a book title (with its id) or an author name.
+ * {@code borrowCount} is the book's borrows, or the sum over the author's
+ * books.
+ */
+public class Suggestion {
+
+    public enum Type { TITLE, AUTHOR }
+
+    private final String text;
+    private final Type type;
+    private final String bookId;
+    private final long borrowCount;
+
+    public Suggestion(String text, Type type, String bookId, long borrowCount) {
+        this.text = text;
+        this.type = type;
+        this.bookId = bookId;
+        this.borrowCount = borrowCount;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // Null for author suggestions
+    public String getBookId() {
+        return bookId;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+}
@@ -53,6 +53,9 @@ public class Book {
 
     private boolean isActive;
 
+    // Incremented by every borrow, never by returns; ranks type-ahead suggestions
+    private long borrowCount;
+
     // Constructors
     public Book() {
         this.createdAt = LocalDateTime.now();
@@ -199,6 +202,14 @@ public class Book {
         this.updatedAt = updatedAt;
     }
 
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public void setBorrowCount(long borrowCount) {
+        this.borrowCount = borrowCount;
+    }
+
     public boolean isActive() {
         return isActive;
     }
@@ -0,0 +1,133 @@
+package com.example.booksmanagement.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the catalog change feed. Each event carries the book's full
+ * searchable state after the change, so consumers can apply events as
+ * upserts and replaying one is harmless.
+ */
+@Document(collection = "book_changes")
+public class BookChangeEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED, AVAILABILITY }
+
+    @Id
+    private String id;
+
+    private long sequence;
+
+    private Type type;
+
+    private String bookId;
+
+    private String title;
+
+    private String author;
+
+    private String genre;
+
+    private Integer availableCopies;
+
+    private Integer totalCopies;
+
+    private LocalDateTime createdAt;
+
+    public BookChangeEvent() {
+    }
+
+    public BookChangeEvent(long sequence, Type type, Book book) {
+        this.sequence = sequence;
+        this.type = type;
+        this.bookId = book.getId();
+        this.title = book.getTitle();
+        this.author = book.getAuthor();
+        this.genre = book.getGenre();
+        this.availableCopies = book.getAvailableCopies();
+        this.totalCopies = book.getTotalCopies();
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(String bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+
+    public Integer getAvailableCopies() {
+        return availableCopies;
+    }
+
+    public void setAvailableCopies(Integer availableCopies) {
+        this.availableCopies = availableCopies;
+    }
+
+    public Integer getTotalCopies() {
+        return totalCopies;
+    }
+
+    public void setTotalCopies(Integer totalCopies) {
+        this.totalCopies = totalCopies;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
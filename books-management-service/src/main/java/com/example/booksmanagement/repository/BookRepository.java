@@ -1,18 +1,27 @@
 package com.example.booksmanagement.repository;
 
 import com.example.booksmanagement.entity.Book;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends MongoRepository<Book, String> {
 
     List<Book> findByIsActive(boolean isActive);
 
+    // Small cursor batches keep full-catalog walks at a constant memory footprint
+    @Meta(cursorBatchSize = 500)
+    Stream<Book> streamByIsActive(boolean isActive);
+
+    List<Book> findByIdInAndIsActive(Collection<String> ids, boolean isActive);
+
     Optional<Book> findByIsbnAndIsActive(String isbn, boolean isActive);
 
     @Query("{ 'title': { $regex: ?0, $options: 'i' }, 'isActive': true }")
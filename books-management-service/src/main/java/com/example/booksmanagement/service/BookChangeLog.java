@@ -0,0 +1,125 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.dto.BookChangeBatch;
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.entity.BookChangeEvent;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only feed of catalog changes in the book_changes collection,
+ * read by search-service to keep its index in step without full reloads.
+ * <p>
+ * Sequences come from a single counter document, so they are unique and
+ * increasing, but a writer can be slower to insert its event than a later
+ * one, and a writer that dies between the two leaves a hole. Consumers
+ * wait briefly on a hole before moving past it. Events older than the
+ * retention window are trimmed; {@link BookChangeBatch#getTrimmedThrough()}
+ * tells a consumer when it has fallen behind the trim point.
+ */
+@Service
+public class BookChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeLog.class);
+
+    static final String COUNTERS = "counters";
+    static final String COUNTER_ID = "book_changes";
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${books.changes.retention-hours:168}")
+    private long retentionHours;
+
+    public void record(BookChangeEvent.Type type, Book book) {
+        recordAll(type, List.of(book));
+    }
+
+    // One counter round trip reserves the sequences for the whole batch
+    public void recordAll(BookChangeEvent.Type type, List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        long sequence = reserve(books.size()) - books.size();
+        List<BookChangeEvent> events = new ArrayList<>(books.size());
+        for (Book book : books) {
+            events.add(new BookChangeEvent(++sequence, type, book));
+        }
+        mongoTemplate.insert(events, BookChangeEvent.class);
+    }
+
+    private long reserve(int count) {
+        Document counter = mongoTemplate.findAndModify(counterQuery(), new Update().inc("head", count),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COUNTERS);
+        return counter.get("head", Number.class).longValue();
+    }
+
+    /**
+     * Up to {@code limit} events with a sequence greater than {@code after}.
+     * The counter is read first, so the head it reports never runs behind
+     * the events returned.
+     */
+    public BookChangeBatch read(long after, int limit) {
+        if (limit < 1 || limit > MAX_BATCH_SIZE) {
+            throw new RuntimeException("Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        Document counter = mongoTemplate.findOne(counterQuery(), Document.class, COUNTERS);
+        long head = counterValue(counter, "head");
+        long trimmedThrough = counterValue(counter, "trimmedThrough");
+        Query query = new Query(Criteria.where("sequence").gt(after))
+                .with(Sort.by("sequence"))
+                .limit(limit);
+        return new BookChangeBatch(mongoTemplate.find(query, BookChangeEvent.class), head, trimmedThrough);
+    }
+
+    /**
+     * Drops events past the retention window. The trim point is published
+     * before the delete, so a consumer never reads across the removed range
+     * without being told.
+     */
+    @Scheduled(fixedDelayString = "${books.changes.trim-interval-ms:3600000}",
+            initialDelayString = "${books.changes.trim-interval-ms:3600000}")
+    public long trim() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        Query newestExpired = new Query(Criteria.where("createdAt").lt(cutoff))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(1);
+        BookChangeEvent last = mongoTemplate.findOne(newestExpired, BookChangeEvent.class);
+        if (last == null) {
+            return 0;
+        }
+        mongoTemplate.updateFirst(counterQuery(), new Update().max("trimmedThrough", last.getSequence()), COUNTERS);
+        DeleteResult result = mongoTemplate.remove(
+                new Query(Criteria.where("sequence").lte(last.getSequence())), BookChangeEvent.class);
+        log.info("Trimmed {} book change events through sequence {}", result.getDeletedCount(), last.getSequence());
+        return result.getDeletedCount();
+    }
+
+    private static Query counterQuery() {
+        return new Query(Criteria.where("_id").is(COUNTER_ID));
+    }
+
+    private static long counterValue(Document counter, String field) {
+        if (counter == null || counter.get(field) == null) {
+            return 0;
+        }
+        return counter.get(field, Number.class).longValue();
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.dto.BookImportRecord;
+import com.example.booksmanagement.dto.ImportReport;
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.entity.BookChangeEvent;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a JSON array or CSV catalog file through
+ * parse -> validate -> dedupe by ISBN -> unordered bulk insert,
+ * one batch at a time. Bad records are reported and skipped; they never
+ * abort the rest of the import.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportService.class);
+
+    public enum Format { JSON, CSV }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private BookSuggestIndex suggestIndex;
+
+    @Autowired
+    private CatalogStats catalogStats;
+
+    @Autowired
+    private BookChangeLog changeLog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${books.import.batch-size:1000}")
+    private int batchSize;
+
+    public ImportReport importBooks(InputStream input, Format format) throws IOException {
+        long start = System.currentTimeMillis();
+        Batch batch = new Batch();
+        if (format == Format.CSV) {
+            readCsv(input, batch);
+        } else {
+            readJson(input, batch);
+        }
+        batch.flush();
+        batch.report.setDurationMs(System.currentTimeMillis() - start);
+        log.info("Catalog import finished: {}", batch.report);
+        return batch.report;
+    }
+
+    private void readJson(InputStream input, Batch batch) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of books");
+            }
+            long record = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                record++;
+                // Read the raw tree first so a badly typed field only rejects this record
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    batch.add(record, objectMapper.treeToValue(node, BookImportRecord.class));
+                } catch (JsonProcessingException e) {
+                    batch.reject(record, node.path("isbn").asText(null), "Unreadable record: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private void readCsv(InputStream input, Batch batch) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        List<String> header = parseCsvLine(headerLine.replace("\uFEFF", ""));
+        String line;
+        long record = 0;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            record++;
+            List<String> values = parseCsvLine(line);
+            Map<String, Object> row = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                String value = values.get(i).trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                String column = header.get(i).trim();
+                row.put(column, "tags".equals(column) ? Arrays.asList(value.split("\\s*;\\s*")) : value);
+            }
+            try {
+                batch.add(record, objectMapper.convertValue(row, BookImportRecord.class));
+            } catch (IllegalArgumentException e) {
+                batch.reject(record, (String) row.get("isbn"), "Unreadable record: " + e.getMessage());
+            }
+        }
+    }
+
+    // RFC 4180 fields: comma separated, optionally quoted, "" escapes a quote
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private class Batch {
+        private final ImportReport report = new ImportReport();
+        private final Set<String> seenIsbns = new HashSet<>();
+        private final List<Book> books = new ArrayList<>();
+        private final List<Long> records = new ArrayList<>();
+
+        void add(long record, BookImportRecord importRecord) {
+            report.recordReceived();
+            Book book = importRecord.toBook();
+            Set<ConstraintViolation<Book>> violations = validator.validate(book);
+            if (!violations.isEmpty()) {
+                report.recordFailure(record, book.getIsbn(), violations.stream()
+                        .map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", ")));
+                return;
+            }
+            book.setIsbn(book.getIsbn().trim());
+            if (!seenIsbns.add(book.getIsbn())) {
+                report.recordDuplicate(record, book.getIsbn());
+                return;
+            }
+            books.add(book);
+            records.add(record);
+            if (books.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long record, String isbn, String message) {
+            report.recordReceived();
+            report.recordFailure(record, isbn, message);
+        }
+
+        void flush() {
+            if (books.isEmpty()) {
+                return;
+            }
+            Set<String> existing = existingIsbns(books);
+            List<Book> toInsert = new ArrayList<>(books.size());
+            List<Long> toInsertRecords = new ArrayList<>(books.size());
+            for (int i = 0; i < books.size(); i++) {
+                Book book = books.get(i);
+                if (existing.contains(book.getIsbn())) {
+                    report.recordDuplicate(records.get(i), book.getIsbn());
+                } else {
+                    // Assign ids up front so the search index can be updated without re-reading
+                    book.setId(new ObjectId().toHexString());
+                    toInsert.add(book);
+                    toInsertRecords.add(records.get(i));
+                }
+            }
+            books.clear();
+            records.clear();
+            if (!toInsert.isEmpty()) {
+                insert(toInsert, toInsertRecords);
+            }
+        }
+
+        private void insert(List<Book> toInsert, List<Long> toInsertRecords) {
+            Set<Integer> failedIndexes = new HashSet<>();
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class).insert(toInsert).execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    failedIndexes.add(error.getIndex());
+                    Book book = toInsert.get(error.getIndex());
+                    report.recordFailure(toInsertRecords.get(error.getIndex()), book.getIsbn(), error.getMessage());
+                }
+            }
+            report.recordInserted(toInsert.size() - failedIndexes.size());
+            List<Book> inserted = new ArrayList<>(toInsert.size());
+            for (int i = 0; i < toInsert.size(); i++) {
+                if (!failedIndexes.contains(i)) {
+                    searchIndex.index(toInsert.get(i));
+                    suggestIndex.index(toInsert.get(i));
+                    catalogStats.add(toInsert.get(i));
+                    inserted.add(toInsert.get(i));
+                }
+            }
+            changeLog.recordAll(BookChangeEvent.Type.CREATED, inserted);
+        }
+
+        private Set<String> existingIsbns(List<Book> batch) {
+            List<String> isbns = batch.stream().map(Book::getIsbn).collect(Collectors.toList());
+            Query query = new Query(Criteria.where("isbn").in(isbns).and("isActive").is(true));
+            query.fields().include("isbn");
+            return mongoTemplate.find(query, Book.class).stream()
+                    .map(Book::getIsbn)
+                    .collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the searchable fields of active books.
+ *
+ * Each field keeps two posting structures keyed by normalized text:
+ * a sorted token dictionary (token -> book ids) used for prefix lookups,
+ * and a trigram table (trigram -> book ids) used to narrow substring
+ * queries down to a handful of candidates before an exact "contains" check.
+ * Queries shorter than a trigram fall back to token-prefix matching.
+ */
+@Component
+public class BookSearchIndex {
+
+    public enum Field { TITLE, AUTHOR, GENRE, ISBN }
+
+    static final int GRAM_SIZE = 3;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<Field, NavigableMap<String, Set<String>>> tokens = new EnumMap<>(Field.class);
+    private final Map<Field, Map<String, Set<String>>> grams = new EnumMap<>(Field.class);
+    private final Map<String, String[]> documents = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public BookSearchIndex() {
+        for (Field field : Field.values()) {
+            tokens.put(field, new ConcurrentSkipListMap<>());
+            grams.put(field, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Adds or replaces a book. Inactive books are removed from the index.
+     */
+    public void index(Book book) {
+        if (book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(book.getId());
+            if (!book.isActive()) {
+                return;
+            }
+            String[] values = new String[Field.values().length];
+            values[Field.TITLE.ordinal()] = normalize(Field.TITLE, book.getTitle());
+            values[Field.AUTHOR.ordinal()] = normalize(Field.AUTHOR, book.getAuthor());
+            values[Field.GENRE.ordinal()] = normalize(Field.GENRE, book.getGenre());
+            values[Field.ISBN.ordinal()] = normalize(Field.ISBN, book.getIsbn());
+            for (Field field : Field.values()) {
+                String value = values[field.ordinal()];
+                for (String token : tokenize(value)) {
+                    post(tokens.get(field), token, book.getId());
+                }
+                for (String gram : grams(value)) {
+                    post(grams.get(field), gram, book.getId());
+                }
+            }
+            documents.put(book.getId(), values);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            tokens.values().forEach(Map::clear);
+            grams.values().forEach(Map::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Ids of books whose title, author, genre or ISBN contains the query.
+     */
+    public Set<String> search(String query) {
+        return search(query, Field.values());
+    }
+
+    /**
+     * Ids of books where any of the given fields contains the query,
+     * ignoring case and accents.
+     */
+    public Set<String> search(String query, Field... fields) {
+        lock.readLock().lock();
+        try {
+            Set<String> result = new LinkedHashSet<>();
+            for (Field field : fields) {
+                String normalized = normalize(field, query);
+                if (normalized.isEmpty()) {
+                    continue;
+                }
+                if (normalized.length() < GRAM_SIZE) {
+                    collectByPrefix(field, normalized, result);
+                } else {
+                    collectBySubstring(field, normalized, result);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collectByPrefix(Field field, String prefix, Set<String> result) {
+        for (Set<String> ids : tokens.get(field).subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            result.addAll(ids);
+        }
+    }
+
+    private void collectBySubstring(Field field, String query, Set<String> result) {
+        Map<String, Set<String>> table = grams.get(field);
+        List<Set<String>> postings = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<String> ids = table.get(gram);
+            if (ids == null) {
+                return;
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        // Walk the rarest posting list and verify each candidate against the others
+        for (String id : postings.get(0)) {
+            boolean candidate = true;
+            for (int i = 1; i < postings.size() && candidate; i++) {
+                candidate = postings.get(i).contains(id);
+            }
+            if (candidate) {
+                String[] values = documents.get(id);
+                if (values != null && values[field.ordinal()].contains(query)) {
+                    result.add(id);
+                }
+            }
+        }
+    }
+
+    private void removeInternal(String id) {
+        String[] values = documents.remove(id);
+        if (values == null) {
+            return;
+        }
+        for (Field field : Field.values()) {
+            String value = values[field.ordinal()];
+            for (String token : tokenize(value)) {
+                unpost(tokens.get(field), token, id);
+            }
+            for (String gram : grams(value)) {
+                unpost(grams.get(field), gram, id);
+            }
+        }
+    }
+
+    private static void post(Map<String, Set<String>> table, String key, String id) {
+        table.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private static void unpost(Map<String, Set<String>> table, String key, String id) {
+        Set<String> ids = table.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                table.remove(key);
+            }
+        }
+    }
+
+    /**
+     * ISBNs are compared without their separators so that "978-0-74" and
+     * "978074" find the same books.
+     */
+    static String normalize(Field field, String text) {
+        String normalized = normalize(text);
+        return field == Field.ISBN ? normalized.replace(" ", "") : normalized;
+    }
+
+    /**
+     * Lower-cases, strips accents and collapses punctuation to single spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return NON_ALNUM.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    static List<String> tokenize(String normalized) {
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(normalized.split(" "));
+    }
+
+    static Set<String> grams(String normalized) {
+        if (normalized.length() < GRAM_SIZE) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            result.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+}
@@ -1,30 +1,232 @@
 package com.example.booksmanagement.service;
 
+import com.example.booksmanagement.config.BookCacheConfig;
+import com.example.booksmanagement.dto.BookCursor;
+import com.example.booksmanagement.dto.BookSummary;
+import com.example.booksmanagement.dto.CatalogStatsSnapshot;
+import com.example.booksmanagement.dto.CursorPage;
+import com.example.booksmanagement.dto.Suggestion;
 import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.entity.BookChangeEvent;
 import com.example.booksmanagement.repository.BookRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
 
 @Service
 public class BookService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookService.class);
+
+    // Each key is backed by an (isActive, key, _id) index, see MongoIndexConfig
+    public static final List<String> PAGE_SORT_KEYS = Arrays.asList("id", "title", "author");
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Properties of BookSummary, projected for ?view=summary
+    private static final String[] SUMMARY_FIELDS = {
+            "title", "author", "isbn", "genre", "publicationYear", "availableCopies", "totalCopies"
+    };
+
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CatalogStats catalogStats;
+
+    @Autowired
+    private BookChangeLog changeLog;
+
+    @Autowired
+    private BookSuggestIndex suggestIndex;
+
+    // Load every active book into the search index once the context is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        long start = System.currentTimeMillis();
+        searchIndex.clear();
+        try (Stream<Book> books = bookRepository.streamByIsActive(true)) {
+            books.forEach(searchIndex::index);
+        }
+        log.info("Search index built with {} books in {} ms",
+                searchIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    // Same load for the suggest index
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSuggestIndex() {
+        long start = System.currentTimeMillis();
+        try (Stream<Book> books = bookRepository.streamByIsActive(true)) {
+            suggestIndex.rebuild(books);
+        }
+        log.info("Suggest index built with {} books in {} ms",
+                suggestIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    // One $facet pass computes every counter; afterwards they are maintained incrementally
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildCatalogStats() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("isActive").is(true)),
+                Aggregation.facet(Aggregation.count().as("count")).as("total")
+                        .and(Aggregation.match(Criteria.where("availableCopies").gt(0)),
+                                Aggregation.count().as("count")).as("available")
+                        .and(Aggregation.match(Criteria.where("availableCopies").is(0)),
+                                Aggregation.count().as("count")).as("outOfStock")
+                        .and(Aggregation.match(Criteria.where("genre").ne(null)),
+                                Aggregation.group("genre").count().as("count")).as("byGenre")
+                        .and(Aggregation.match(Criteria.where("publicationYear").ne(null)),
+                                Aggregation.group("publicationYear").count().as("count")).as("byYear"));
+        Document result = mongoTemplate.aggregate(aggregation, Book.class, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            return;
+        }
+
+        Map<String, Long> byGenre = new HashMap<>();
+        for (Document group : result.getList("byGenre", Document.class)) {
+            byGenre.put(group.getString("_id"), group.get("count", Number.class).longValue());
+        }
+        Map<Integer, Long> byYear = new HashMap<>();
+        for (Document group : result.getList("byYear", Document.class)) {
+            byYear.put(group.get("_id", Number.class).intValue(), group.get("count", Number.class).longValue());
+        }
+        catalogStats.reset(facetCount(result, "total"), facetCount(result, "available"),
+                facetCount(result, "outOfStock"), byGenre, byYear);
+    }
+
+    private static long facetCount(Document result, String facet) {
+        List<Document> counts = result.getList(facet, Document.class);
+        return counts.isEmpty() ? 0 : counts.get(0).get("count", Number.class).longValue();
+    }
+
+    public CatalogStatsSnapshot getCatalogStats() {
+        return catalogStats.snapshot();
+    }
+
     public List<Book> getAllActiveBooks() {
         return bookRepository.findByIsActive(true);
     }
 
-    public Page<Book> getAllActiveBooksPaginated(Pageable pageable) {
-        return bookRepository.findAll(pageable);
+    // Cursor-backed; the caller must close the stream
+    public Stream<Book> streamActiveBooks() {
+        return bookRepository.streamByIsActive(true);
+    }
+
+    /**
+     * Keyset pagination over active books ordered by (sortKey, id). Each page
+     * seeks from the previous page's last key through the matching compound
+     * index, so deep pages cost the same as the first one.
+     */
+    public CursorPage<Book> getActiveBooksPage(String sortKey, String cursor, int size, boolean includeTotal) {
+        if (!PAGE_SORT_KEYS.contains(sortKey)) {
+            throw new RuntimeException("Unsupported sort key: " + sortKey);
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Query query = new Query(Criteria.where("isActive").is(true));
+        if (cursor != null) {
+            BookCursor after = BookCursor.decode(cursor);
+            if (!sortKey.equals(after.getSortKey())) {
+                throw new RuntimeException("Cursor was issued for sort key: " + after.getSortKey());
+            }
+            if ("id".equals(sortKey)) {
+                query.addCriteria(Criteria.where("id").gt(after.getId()));
+            } else {
+                query.addCriteria(new Criteria().orOperator(
+                        Criteria.where(sortKey).gt(after.getValue()),
+                        Criteria.where(sortKey).is(after.getValue()).and("id").gt(after.getId())));
+            }
+        }
+        Sort sort = "id".equals(sortKey) ? Sort.by("id") : Sort.by(sortKey).and(Sort.by("id"));
+        query.with(sort).limit(size + 1);
+
+        List<Book> books = mongoTemplate.find(query, Book.class);
+        String nextCursor = null;
+        if (books.size() > size) {
+            books = books.subList(0, size);
+            Book last = books.get(size - 1);
+            nextCursor = new BookCursor(sortKey, sortValue(last, sortKey), last.getId()).encode();
+        }
+        Long total = includeTotal ? bookRepository.countByIsActive(true) : null;
+        return new CursorPage<>(books, nextCursor, total);
     }
 
+    private static String sortValue(Book book, String sortKey) {
+        switch (sortKey) {
+            case "title":
+                return book.getTitle();
+            case "author":
+                return book.getAuthor();
+            default:
+                return book.getId();
+        }
+    }
+
+    // Read-through: callers get a shared cached instance and must not mutate it.
+    // The load runs inside the cache's per-key lock, so an eviction racing with a
+    // miss waits for it and removes what it cached instead of being overwritten.
     public Book getBookById(String id) {
+        return readThrough(BookCacheConfig.BOOKS_BY_ID, id, () -> loadActiveBook(id));
+    }
+
+    public Book getBookByIsbn(String isbn) {
+        return readThrough(BookCacheConfig.BOOKS_BY_ISBN, isbn, () -> bookRepository.findByIsbnAndIsActive(isbn, true)
+                .orElseThrow(() -> new RuntimeException("Book not found with ISBN: " + isbn)));
+    }
+
+    // Missing books throw from the loader, so they are never cached
+    private Book readThrough(String cacheName, String key, Callable<Book> loader) {
+        try {
+            return cacheManager.getCache(cacheName).get(key, loader);
+        } catch (Cache.ValueRetrievalException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    public boolean isActiveBook(String id) {
+        try {
+            getBookById(id);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // Fresh copy from Mongo for the write paths, which modify the entity before saving
+    private Book loadActiveBook(String id) {
         Optional<Book> book = bookRepository.findById(id);
         if (book.isPresent() && book.get().isActive()) {
             return book.get();
@@ -32,12 +234,11 @@ public class BookService {
         throw new RuntimeException("Book not found with id: " + id);
     }
 
-    public Book getBookByIsbn(String isbn) {
-        Optional<Book> book = bookRepository.findByIsbnAndIsActive(isbn, true);
-        if (book.isPresent()) {
-            return book.get();
+    private void evictFromCache(String id, String isbn) {
+        cacheManager.getCache(BookCacheConfig.BOOKS_BY_ID).evict(id);
+        if (isbn != null) {
+            cacheManager.getCache(BookCacheConfig.BOOKS_BY_ISBN).evict(isbn);
         }
-        throw new RuntimeException("Book not found with ISBN: " + isbn);
     }
 
     public Book createBook(Book book) {
@@ -52,11 +253,42 @@ public class BookService {
             book.setAvailableCopies(book.getTotalCopies());
         }
         
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        searchIndex.index(savedBook);
+        suggestIndex.index(savedBook);
+        catalogStats.add(savedBook);
+        evictFromCache(savedBook.getId(), savedBook.getIsbn());
+        changeLog.record(BookChangeEvent.Type.CREATED, savedBook);
+        return savedBook;
     }
 
+    // Only the edited fields are $set, so borrows and returns racing with the edit keep
+    // their $inc on availableCopies and borrowCount. findAndModify hands back the document
+    // it replaced; applying the same edit to it gives what is now stored.
     public Book updateBook(String id, Book bookDetails) {
-        Book book = getBookById(id);
+        Update update = new Update()
+                .set("title", bookDetails.getTitle())
+                .set("author", bookDetails.getAuthor())
+                .set("isbn", bookDetails.getIsbn())
+                .set("description", bookDetails.getDescription())
+                .set("publicationYear", bookDetails.getPublicationYear())
+                .set("genre", bookDetails.getGenre())
+                .set("publisher", bookDetails.getPublisher())
+                .set("totalCopies", bookDetails.getTotalCopies())
+                .set("coverImageUrl", bookDetails.getCoverImageUrl())
+                .set("tags", bookDetails.getTags())
+                .set("updatedAt", LocalDateTime.now());
+        // An explicit count is an inventory correction and replaces whatever is stored
+        if (bookDetails.getAvailableCopies() != null) {
+            update.set("availableCopies", bookDetails.getAvailableCopies());
+        }
+        Book book = mongoTemplate.findAndModify(activeBookQuery(id), update,
+                FindAndModifyOptions.options().returnNew(false), Book.class);
+        if (book == null) {
+            throw new RuntimeException("Book not found with id: " + id);
+        }
+        String previousIsbn = book.getIsbn();
+        CatalogStats.Entry previous = CatalogStats.Entry.of(book);
         
         book.setTitle(bookDetails.getTitle());
         book.setAuthor(bookDetails.getAuthor());
@@ -68,35 +300,67 @@ public class BookService {
         book.setTotalCopies(bookDetails.getTotalCopies());
         book.setCoverImageUrl(bookDetails.getCoverImageUrl());
         book.setTags(bookDetails.getTags());
-        
-        // Update available copies if total copies changed
         if (bookDetails.getAvailableCopies() != null) {
             book.setAvailableCopies(bookDetails.getAvailableCopies());
         }
         
-        return bookRepository.save(book);
+        searchIndex.index(book);
+        suggestIndex.index(book);
+        catalogStats.replace(previous, CatalogStats.Entry.of(book));
+        evictFromCache(id, previousIsbn);
+        evictFromCache(id, book.getIsbn());
+        changeLog.record(BookChangeEvent.Type.UPDATED, book);
+        return book;
     }
 
     public void deleteBook(String id) {
-        Book book = getBookById(id);
+        Book book = loadActiveBook(id);
         book.setActive(false);
         bookRepository.save(book);
+        searchIndex.remove(id);
+        suggestIndex.remove(id);
+        catalogStats.remove(CatalogStats.Entry.of(book));
+        evictFromCache(id, book.getIsbn());
+        changeLog.record(BookChangeEvent.Type.DELETED, book);
+    }
+
+    public List<Suggestion> getSuggestions(String prefix, int limit) {
+        if (limit < 1 || limit > BookSuggestIndex.MAX_LIMIT) {
+            throw new RuntimeException("Suggestion limit must be between 1 and " + BookSuggestIndex.MAX_LIMIT);
+        }
+        return suggestIndex.suggest(prefix, limit);
     }
 
     public List<Book> searchBooks(String query) {
-        return bookRepository.findByTitleOrAuthorOrGenreOrIsbnContainingIgnoreCase(query);
+        return findIndexedBooks(searchIndex.search(query));
     }
 
     public List<Book> searchBooksByTitle(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title);
+        return findIndexedBooks(searchIndex.search(title, BookSearchIndex.Field.TITLE));
     }
 
     public List<Book> searchBooksByAuthor(String author) {
-        return bookRepository.findByAuthorContainingIgnoreCase(author);
+        return findIndexedBooks(searchIndex.search(author, BookSearchIndex.Field.AUTHOR));
     }
 
     public List<Book> searchBooksByGenre(String genre) {
-        return bookRepository.findByGenreContainingIgnoreCase(genre);
+        return findIndexedBooks(searchIndex.search(genre, BookSearchIndex.Field.GENRE));
+    }
+
+    // Hydrate index hits by primary key instead of scanning the collection
+    private List<Book> findIndexedBooks(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return bookRepository.findByIdInAndIsActive(ids, true);
+    }
+
+    public List<BookSummary> searchBookSummaries(String query, BookSearchIndex.Field... fields) {
+        Set<String> ids = searchIndex.search(query, fields);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return findSummaries(Criteria.where("id").in(ids));
     }
 
     public List<Book> getBooksByGenre(String genre) {
@@ -111,52 +375,109 @@ public class BookService {
         return bookRepository.findOutOfStockBooks();
     }
 
+    public List<BookSummary> getBookSummariesByGenre(String genre) {
+        return findSummaries(Criteria.where("genre").is(genre));
+    }
+
+    public List<BookSummary> getAvailableBookSummaries() {
+        return findSummaries(Criteria.where("availableCopies").gt(0));
+    }
+
+    public List<BookSummary> getOutOfStockBookSummaries() {
+        return findSummaries(Criteria.where("availableCopies").is(0));
+    }
+
+    // Only the summary fields leave Mongo; _id is always returned
+    private List<BookSummary> findSummaries(Criteria criteria) {
+        Query query = new Query(criteria.and("isActive").is(true));
+        query.fields().include(SUMMARY_FIELDS);
+        return mongoTemplate.find(query, BookSummary.class, mongoTemplate.getCollectionName(Book.class));
+    }
+
+    // The total-copies guard is part of the update's filter, so the check and the $set
+    // are one atomic step and nothing else in the document is written back
     public Book updateBookAvailability(String id, Integer availableCopies) {
-        Book book = getBookById(id);
-        
         if (availableCopies < 0) {
             throw new RuntimeException("Available copies cannot be negative");
         }
         
-        if (availableCopies > book.getTotalCopies()) {
+        Query query = activeBookQuery(id).addCriteria(Criteria.where("totalCopies").gte(availableCopies));
+        Update update = new Update()
+                .set("availableCopies", availableCopies)
+                .set("updatedAt", LocalDateTime.now());
+        Book book = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(false), Book.class);
+        if (book == null) {
+            getBookById(id);
             throw new RuntimeException("Available copies cannot exceed total copies");
         }
         
+        CatalogStats.Entry previous = CatalogStats.Entry.of(book);
         book.setAvailableCopies(availableCopies);
-        return bookRepository.save(book);
+        catalogStats.replace(previous, CatalogStats.Entry.of(book));
+        evictFromCache(id, book.getIsbn());
+        changeLog.record(BookChangeEvent.Type.AVAILABILITY, book);
+        return book;
     }
 
+    // Single conditional $inc: the guard and the decrement run atomically in Mongo,
+    // so concurrent borrows can never take the count below zero
     public Book borrowBook(String id) {
-        Book book = getBookById(id);
-        
-        if (book.getAvailableCopies() <= 0) {
+        Query query = activeBookQuery(id).addCriteria(Criteria.where("availableCopies").gt(0));
+        Book book = adjustAvailableCopies(query, -1);
+        if (book == null) {
+            getBookById(id);
             throw new RuntimeException("No copies available for borrowing");
         }
-        
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        return bookRepository.save(book);
+        return book;
     }
 
     public Book returnBook(String id) {
-        Book book = getBookById(id);
-        
-        if (book.getAvailableCopies() >= book.getTotalCopies()) {
+        Query query = activeBookQuery(id).addCriteria(Criteria.where("$expr")
+                .is(new Document("$lt", Arrays.asList("$availableCopies", "$totalCopies"))));
+        Book book = adjustAvailableCopies(query, 1);
+        if (book == null) {
+            getBookById(id);
             throw new RuntimeException("All copies are already returned");
         }
-        
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        return bookRepository.save(book);
+        return book;
+    }
+
+    private Query activeBookQuery(String id) {
+        return new Query(Criteria.where("id").is(id).and("isActive").is(true));
+    }
+
+    // A borrow also bumps the persisted borrowCount, so suggestion ranking survives restarts
+    private Book adjustAvailableCopies(Query query, int delta) {
+        Update update = new Update()
+                .inc("availableCopies", delta)
+                .set("updatedAt", LocalDateTime.now());
+        if (delta < 0) {
+            update.inc("borrowCount", 1);
+        }
+        Book book = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Book.class);
+        if (book != null) {
+            if (delta < 0) {
+                suggestIndex.recordBorrow(book.getId());
+            }
+            CatalogStats.Entry after = CatalogStats.Entry.of(book);
+            catalogStats.replace(after.withAvailableCopies(book.getAvailableCopies() - delta), after);
+            evictFromCache(book.getId(), book.getIsbn());
+            changeLog.record(BookChangeEvent.Type.AVAILABILITY, book);
+        }
+        return book;
     }
 
     public Long getTotalBooksCount() {
-        return bookRepository.countByIsActive(true);
+        return catalogStats.getTotal();
     }
 
     public Long getAvailableBooksCount() {
-        return bookRepository.findAvailableBooks().stream().count();
+        return catalogStats.getAvailable();
     }
 
     public Long getBooksByGenreCount(String genre) {
-        return bookRepository.countByGenreAndIsActive(genre, true);
+        return catalogStats.getGenreCount(genre);
     }
 }
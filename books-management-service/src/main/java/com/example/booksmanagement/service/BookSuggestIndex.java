@@ -0,0 +1,559 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.dto.Suggestion;
+import com.example.booksmanagement.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Type-ahead index over the titles and authors of active books, ranked by
+ * borrow count.
+ *
+ * Every word start of a normalized title or author is a key, so "pot" finds
+ * "Harry Potter and ..." and "tolk" finds "J.R.R. Tolkien". The keys live in
+ * a burst trie: a node keeps its keys in a plain list until it holds more
+ * than {@value #BURST}, then splits into one child per next character and
+ * remembers only the {@value #MAX_LIMIT} most borrowed titles and authors
+ * beneath it. A short prefix is answered from that list; a longer one ends
+ * in a small leaf that is filtered and sorted on the spot.
+ *
+ * Books with the same normalized title are suggested once, as the most
+ * borrowed of them, and an author scores the borrows of all their books.
+ * Removing the last book of a title or author removes its keys; nodes left
+ * empty are pruned and small subtrees fold back into a leaf, so edits and
+ * deletes free what they used.
+ */
+@Component
+public class BookSuggestIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    static final int BURST = 64;
+
+    // Words that only make a useful key at the start of a title
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "and", "at", "by", "for", "in", "of", "on", "or", "the", "to",
+            "de", "des", "du", "et", "la", "le", "les", "un", "une");
+
+    // Most borrowed first; ties in key order so results are stable
+    private static final Comparator<Group> RANKING = Comparator.comparingLong((Group group) -> group.score).reversed()
+            .thenComparing(group -> group.key)
+            .thenComparing(group -> group.type);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IndexedBook> books = new HashMap<>();
+    private final Map<String, Group> titles = new HashMap<>();
+    private final Map<String, Group> authors = new HashMap<>();
+    private Node root = new Node();
+
+    /**
+     * Replaces the whole index with the given books, for the startup load.
+     */
+    public void rebuild(Stream<Book> catalog) {
+        lock.writeLock().lock();
+        try {
+            clearInternal();
+            Iterator<Book> iterator = catalog.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                if (book.getId() != null && book.isActive() && !books.containsKey(book.getId())) {
+                    addBook(book, borrows(book));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a book. Inactive books are removed.
+     */
+    public void index(Book book) {
+        if (book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            IndexedBook existing = books.get(book.getId());
+            if (!book.isActive()) {
+                if (existing != null) {
+                    removeBook(existing);
+                }
+                return;
+            }
+            int borrows = borrows(book);
+            if (existing != null) {
+                if (keyOf(existing.titleGroup).equals(key(book.getTitle()))
+                        && keyOf(existing.authorGroup).equals(key(book.getAuthor()))) {
+                    // Same keys: only the displayed spelling can have changed
+                    existing.title = book.getTitle();
+                    return;
+                }
+                borrows = existing.borrows;
+                removeBook(existing);
+            }
+            addBook(book, borrows);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            IndexedBook book = books.get(id);
+            if (book != null) {
+                removeBook(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts one borrow of the book, so it can climb in the ranking straight
+     * away.
+     */
+    public void recordBorrow(String id) {
+        lock.writeLock().lock();
+        try {
+            IndexedBook book = books.get(id);
+            if (book == null || book.borrows == Integer.MAX_VALUE) {
+                return;
+            }
+            book.borrows++;
+            for (Group group : Arrays.asList(book.titleGroup, book.authorGroup)) {
+                if (group != null) {
+                    long before = group.score;
+                    group.borrowed(book);
+                    rescored(group, before);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearInternal();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return books.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} distinct titles and authors with a word starting
+     * with {@code prefix} (ignoring case and accents), most borrowed first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = key(prefix);
+        if (normalized.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = 0;
+            while (!node.isLeaf() && depth < normalized.length()) {
+                node = node.children.get(normalized.charAt(depth++));
+                if (node == null) {
+                    return List.of();
+                }
+            }
+            List<Group> ranked;
+            if (node.isLeaf()) {
+                Set<Group> matches = new HashSet<>();
+                for (Entry entry : node.entries) {
+                    if (entry.startsWith(normalized)) {
+                        matches.add(entry.group);
+                    }
+                }
+                ranked = best(matches, limit);
+            } else {
+                ranked = node.top;
+            }
+            return ranked.stream().limit(limit).map(Group::toSuggestion).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Nodes in the trie, for tests
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            Deque<Node> pending = new ArrayDeque<>(List.of(root));
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                count++;
+                if (!node.isLeaf()) {
+                    pending.addAll(node.children.values());
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addBook(Book source, int borrows) {
+        IndexedBook book = new IndexedBook(source.getId(), source.getTitle(), borrows);
+        books.put(book.id, book);
+        book.titleGroup = join(titles, Suggestion.Type.TITLE, source.getTitle(), book);
+        book.authorGroup = join(authors, Suggestion.Type.AUTHOR, source.getAuthor(), book);
+    }
+
+    private void removeBook(IndexedBook book) {
+        books.remove(book.id);
+        leave(titles, book.titleGroup, book);
+        leave(authors, book.authorGroup, book);
+    }
+
+    private Group join(Map<String, Group> groups, Suggestion.Type type, String text, IndexedBook book) {
+        String key = key(text);
+        if (key.isEmpty()) {
+            return null;
+        }
+        Group group = groups.get(key);
+        if (group == null) {
+            group = new Group(type, key, text.trim());
+            groups.put(key, group);
+            group.add(book);
+            for (Entry entry : group.entries) {
+                insert(entry);
+            }
+        } else {
+            long before = group.score;
+            group.add(book);
+            rescored(group, before);
+        }
+        return group;
+    }
+
+    private void leave(Map<String, Group> groups, Group group, IndexedBook book) {
+        if (group == null) {
+            return;
+        }
+        long before = group.score;
+        group.remove(book);
+        if (group.size > 0) {
+            rescored(group, before);
+            return;
+        }
+        groups.remove(group.key);
+        for (Entry entry : group.entries) {
+            delete(entry);
+        }
+    }
+
+    private void insert(Entry entry) {
+        Node node = root;
+        int depth = 0;
+        while (!node.isLeaf()) {
+            raise(node, entry.group);
+            if (depth == entry.length()) {
+                node.ends.add(entry);
+                return;
+            }
+            node = node.children.computeIfAbsent(entry.charAt(depth++), c -> new Node());
+        }
+        node.entries.add(entry);
+        if (node.entries.size() > BURST) {
+            split(node, depth);
+        }
+    }
+
+    // Entries whose key ends at this depth stay on the node, so identical keys stop the recursion
+    private void split(Node node, int depth) {
+        List<Entry> entries = node.entries;
+        node.entries = null;
+        node.children = new HashMap<>();
+        node.ends = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.length() == depth) {
+                node.ends.add(entry);
+            } else {
+                node.children.computeIfAbsent(entry.charAt(depth), c -> new Node()).entries.add(entry);
+            }
+        }
+        for (Node child : node.children.values()) {
+            if (child.entries.size() > BURST) {
+                split(child, depth + 1);
+            }
+        }
+        node.top = best(node);
+    }
+
+    private void delete(Entry entry) {
+        List<Node> path = path(entry);
+        Node last = path.get(path.size() - 1);
+        (last.isLeaf() ? last.entries : last.ends).remove(entry);
+        // Bottom up, so each node recomputes from children that are already right
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            if (i > 0 && node.isEmpty()) {
+                path.get(i - 1).children.remove(entry.charAt(i - 1));
+            } else if (!node.isLeaf() && fitsInLeaf(node)) {
+                collapse(node);
+            } else if (!node.isLeaf() && node.top.contains(entry.group)) {
+                node.top = best(node);
+            }
+        }
+    }
+
+    // Half a burst, so a node at the limit does not split and collapse on alternate writes
+    private static boolean fitsInLeaf(Node node) {
+        int size = node.ends.size();
+        for (Node child : node.children.values()) {
+            if (!child.isLeaf()) {
+                return false;
+            }
+            size += child.entries.size();
+        }
+        return size <= BURST / 2;
+    }
+
+    private static void collapse(Node node) {
+        List<Entry> entries = new ArrayList<>(node.ends);
+        for (Node child : node.children.values()) {
+            entries.addAll(child.entries);
+        }
+        node.entries = entries;
+        node.children = null;
+        node.ends = null;
+        node.top = null;
+    }
+
+    private void rescored(Group group, long before) {
+        if (group.score == before) {
+            return;
+        }
+        for (Entry entry : group.entries) {
+            List<Node> path = path(entry);
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                if (node.isLeaf()) {
+                    continue;
+                }
+                if (group.score > before) {
+                    raise(node, group);
+                } else if (node.top.contains(group)) {
+                    node.top = best(node);
+                }
+            }
+        }
+    }
+
+    // Nodes from the root down to the one holding the entry
+    private List<Node> path(Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        for (int depth = 0; !node.isLeaf() && depth < entry.length(); depth++) {
+            node = node.children.get(entry.charAt(depth));
+            path.add(node);
+        }
+        return path;
+    }
+
+    // Only the group's score went up, so the rest of the list is still in order
+    private static void raise(Node node, Group group) {
+        List<Group> top = node.top;
+        if (!top.remove(group) && top.size() == MAX_LIMIT && RANKING.compare(group, top.get(MAX_LIMIT - 1)) > 0) {
+            return;
+        }
+        int position = Collections.binarySearch(top, group, RANKING);
+        top.add(position < 0 ? -position - 1 : position, group);
+        if (top.size() > MAX_LIMIT) {
+            top.remove(MAX_LIMIT);
+        }
+    }
+
+    // The best of a node's own keys and its children's best, which covers everything beneath it
+    private static List<Group> best(Node node) {
+        Set<Group> candidates = new HashSet<>();
+        for (Entry entry : node.ends) {
+            candidates.add(entry.group);
+        }
+        for (Node child : node.children.values()) {
+            if (child.isLeaf()) {
+                for (Entry entry : child.entries) {
+                    candidates.add(entry.group);
+                }
+            } else {
+                candidates.addAll(child.top);
+            }
+        }
+        return best(candidates, MAX_LIMIT);
+    }
+
+    private static List<Group> best(Collection<Group> groups, int limit) {
+        List<Group> ranked = new ArrayList<>(groups);
+        ranked.sort(RANKING);
+        return new ArrayList<>(ranked.subList(0, Math.min(limit, ranked.size())));
+    }
+
+    private void clearInternal() {
+        books.clear();
+        titles.clear();
+        authors.clear();
+        root = new Node();
+    }
+
+    // One key per word start, skipping stopwords after the first word
+    private static Entry[] entries(Group group) {
+        List<Entry> entries = new ArrayList<>();
+        String key = group.key;
+        for (int start = 0; start < key.length(); start++) {
+            if (start > 0 && key.charAt(start - 1) != ' ') {
+                continue;
+            }
+            int end = key.indexOf(' ', start);
+            String word = key.substring(start, end < 0 ? key.length() : end);
+            if (start == 0 || !STOPWORDS.contains(word)) {
+                entries.add(new Entry(group, start));
+            }
+        }
+        return entries.toArray(new Entry[0]);
+    }
+
+    private static String keyOf(Group group) {
+        return group == null ? "" : group.key;
+    }
+
+    private static int borrows(Book book) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, book.getBorrowCount()));
+    }
+
+    static String key(String text) {
+        return BookSearchIndex.normalize(text);
+    }
+
+    private static final class IndexedBook {
+        final String id;
+        String title;
+        int borrows;
+        Group titleGroup;
+        Group authorGroup;
+
+        IndexedBook(String id, String title, int borrows) {
+            this.id = id;
+            this.title = title;
+            this.borrows = borrows;
+        }
+    }
+
+    // A title (the books sharing its normalized text) or an author (all their books)
+    private static final class Group {
+        final Suggestion.Type type;
+        final String key;
+        final String name;
+        final Entry[] entries;
+        // Titles keep their books to show the most borrowed; authors only count and sum theirs
+        final List<IndexedBook> books;
+        int size;
+        long score;
+
+        Group(Suggestion.Type type, String key, String name) {
+            this.type = type;
+            this.key = key;
+            this.name = name;
+            this.books = type == Suggestion.Type.TITLE ? new ArrayList<>(1) : null;
+            this.entries = BookSuggestIndex.entries(this);
+        }
+
+        void add(IndexedBook book) {
+            size++;
+            if (books != null) {
+                books.add(book);
+                score = Math.max(score, book.borrows);
+            } else {
+                score += book.borrows;
+            }
+        }
+
+        void remove(IndexedBook book) {
+            size--;
+            if (books != null) {
+                books.remove(book);
+                score = books.stream().mapToLong(b -> b.borrows).max().orElse(0);
+            } else {
+                score -= book.borrows;
+            }
+        }
+
+        // Called after the book's count went up by one
+        void borrowed(IndexedBook book) {
+            score = books != null ? Math.max(score, book.borrows) : score + 1;
+        }
+
+        Suggestion toSuggestion() {
+            if (books == null) {
+                return new Suggestion(name, type, null, score);
+            }
+            IndexedBook best = books.get(0);
+            for (IndexedBook book : books) {
+                if (book.borrows > best.borrows) {
+                    best = book;
+                }
+            }
+            return new Suggestion(best.title, type, best.id, best.borrows);
+        }
+    }
+
+    // The key of a group from one of its word starts
+    private static final class Entry {
+        final Group group;
+        final int start;
+
+        Entry(Group group, int start) {
+            this.group = group;
+            this.start = start;
+        }
+
+        int length() {
+            return group.key.length() - start;
+        }
+
+        char charAt(int depth) {
+            return group.key.charAt(start + depth);
+        }
+
+        boolean startsWith(String prefix) {
+            return group.key.startsWith(prefix, start);
+        }
+    }
+
+    private static final class Node {
+        // A leaf holds every entry beneath it; null once the node has split
+        List<Entry> entries = new ArrayList<>();
+        // After a split: children by next character, entries whose key ends here, the best groups beneath
+        Map<Character, Node> children;
+        List<Entry> ends;
+        List<Group> top;
+
+        boolean isLeaf() {
+            return entries != null;
+        }
+
+        boolean isEmpty() {
+            return isLeaf() ? entries.isEmpty() : children.isEmpty() && ends.isEmpty();
+        }
+    }
+}
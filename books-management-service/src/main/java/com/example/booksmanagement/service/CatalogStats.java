@@ -0,0 +1,124 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.dto.CatalogStatsSnapshot;
+import com.example.booksmanagement.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory catalog counters for active books: total, available
+ * (availableCopies > 0), out of stock (availableCopies == 0), per genre and
+ * per publication year. Loaded once from an aggregation by
+ * {@link BookService#rebuildCatalogStats()} and then adjusted by every
+ * BookService mutation, so reads never touch Mongo.
+ *
+ * The counters are per instance: writes that bypass this service are only
+ * picked up by the next rebuild.
+ */
+@Component
+public class CatalogStats {
+
+    private long total;
+    private long available;
+    private long outOfStock;
+    private final Map<String, Long> byGenre = new TreeMap<>();
+    private final Map<Integer, Long> byYear = new TreeMap<>();
+    private LocalDateTime rebuiltAt;
+
+    /**
+     * The part of a book the counters depend on, captured before a mutation
+     * so its old contribution can be subtracted afterwards.
+     */
+    public static final class Entry {
+        private final String genre;
+        private final Integer publicationYear;
+        private final Integer availableCopies;
+
+        Entry(String genre, Integer publicationYear, Integer availableCopies) {
+            this.genre = genre;
+            this.publicationYear = publicationYear;
+            this.availableCopies = availableCopies;
+        }
+
+        public static Entry of(Book book) {
+            return new Entry(book.getGenre(), book.getPublicationYear(), book.getAvailableCopies());
+        }
+
+        Entry withAvailableCopies(Integer copies) {
+            return new Entry(genre, publicationYear, copies);
+        }
+    }
+
+    public synchronized void reset(long total, long available, long outOfStock,
+                                   Map<String, Long> byGenre, Map<Integer, Long> byYear) {
+        this.total = total;
+        this.available = available;
+        this.outOfStock = outOfStock;
+        this.byGenre.clear();
+        this.byGenre.putAll(byGenre);
+        this.byYear.clear();
+        this.byYear.putAll(byYear);
+        this.rebuiltAt = LocalDateTime.now();
+    }
+
+    public void add(Book book) {
+        add(Entry.of(book));
+    }
+
+    public synchronized void add(Entry entry) {
+        apply(entry, 1);
+    }
+
+    public synchronized void remove(Entry entry) {
+        apply(entry, -1);
+    }
+
+    public synchronized void replace(Entry before, Entry after) {
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    private void apply(Entry entry, int sign) {
+        total += sign;
+        if (entry.availableCopies != null && entry.availableCopies > 0) {
+            available += sign;
+        } else if (entry.availableCopies != null && entry.availableCopies == 0) {
+            outOfStock += sign;
+        }
+        if (entry.genre != null) {
+            byGenre.merge(entry.genre, (long) sign, CatalogStats::sumOrDrop);
+        }
+        if (entry.publicationYear != null) {
+            byYear.merge(entry.publicationYear, (long) sign, CatalogStats::sumOrDrop);
+        }
+    }
+
+    // Returning null removes the key, so emptied genres and years disappear from the snapshot
+    private static Long sumOrDrop(Long current, Long delta) {
+        long sum = current + delta;
+        return sum == 0 ? null : sum;
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public synchronized long getAvailable() {
+        return available;
+    }
+
+    public synchronized long getGenreCount(String genre) {
+        return byGenre.getOrDefault(genre, 0L);
+    }
+
+    public synchronized CatalogStatsSnapshot snapshot() {
+        return new CatalogStatsSnapshot(total, available, outOfStock,
+                Collections.unmodifiableMap(new TreeMap<>(byGenre)),
+                Collections.unmodifiableMap(new TreeMap<>(byYear)),
+                rebuiltAt);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.entity.BookChangeEvent;
+import com.example.dataset.SyntheticCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Parallel seeding of the synthetic catalog against a real Mongo. Needs
+ * Docker and is skipped when it is missing.
+ */
+@DataMongoTest(properties = "books.seed.batch-size=300")
+@Import({CatalogSeeder.class, BookChangeLog.class})
+@Testcontainers(disabledWithoutDocker = true)
+class CatalogSeederTest {
+
+    private static final int BOOKS = 2_000;
+    private static final long LOANS = 20_000;
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private CatalogSeeder catalogSeeder;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void cleanUp() {
+        mongoTemplate.dropCollection(Book.class);
+        mongoTemplate.dropCollection(BookChangeEvent.class);
+        mongoTemplate.dropCollection(BookChangeLog.COUNTERS);
+    }
+
+    @Test
+    void seedsEveryOrdinalOnceAndPublishesIt() throws Exception {
+        assertThat(catalogSeeder.seed(BOOKS, 42L, 0.8, LOANS, 4)).isEqualTo(BOOKS);
+
+        Set<String> ids = mongoTemplate.findAll(Book.class).stream().map(Book::getId).collect(Collectors.toSet());
+        assertThat(ids).isEqualTo(LongStream.rangeClosed(1, BOOKS)
+                .mapToObj(SyntheticCatalog::bookId).collect(Collectors.toSet()));
+        assertThat(mongoTemplate.count(new Query(), BookChangeEvent.class)).isEqualTo(BOOKS);
+    }
+
+    @Test
+    void seededBooksMatchTheGeneratorWhateverTheThreadCount() throws Exception {
+        catalogSeeder.seed(BOOKS, 42L, 0.8, LOANS, 8);
+
+        Book stored = mongoTemplate.findById(SyntheticCatalog.bookId(1234), Book.class);
+        SyntheticCatalog.Book expected = SyntheticCatalog.book(42L, 1234);
+        assertThat(stored.getTitle()).isEqualTo(expected.title());
+        assertThat(stored.getAuthor()).isEqualTo(expected.author());
+        assertThat(stored.getGenre()).isEqualTo(expected.category());
+        assertThat(stored.getIsbn()).isEqualTo(expected.isbn());
+        long borrows = mongoTemplate.findAll(Book.class).stream().mapToLong(Book::getBorrowCount).sum();
+        assertThat((double) borrows).isCloseTo(LOANS, within(LOANS * 0.01));
+    }
+
+    @Test
+    void reseedingSkipsBooksAlreadyPresent() throws Exception {
+        catalogSeeder.seed(BOOKS / 2, 42L, 0.8, LOANS, 2);
+
+        assertThat(catalogSeeder.seed(BOOKS, 42L, 0.8, LOANS, 2)).isEqualTo(BOOKS / 2);
+        assertThat(mongoTemplate.count(new Query(), Book.class)).isEqualTo(BOOKS);
+    }
+}
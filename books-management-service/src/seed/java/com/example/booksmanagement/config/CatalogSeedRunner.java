@@ -0,0 +1,47 @@
+package com.example.booksmanagement.config;
+
+import com.example.booksmanagement.service.CatalogSeeder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command-line seeding of a synthetic catalog: start the service with
+ * --seed-books=1000000, optionally with --seed (RNG seed, default 42),
+ * --seed-skew (popularity skew, default 0.8), --seed-loans (loans the
+ * borrow counts are scaled to, default 10 per book) and --seed-threads.
+ * Use the same --seed, --seed-skew and counts for loan-service and
+ * user-service. The application exits once the catalog is written.
+ */
+@Component
+public class CatalogSeedRunner implements ApplicationRunner {
+
+    @Autowired
+    private CatalogSeeder catalogSeeder;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("seed-books")) {
+            return;
+        }
+        int books = Integer.parseInt(option(args, "seed-books", null));
+        long seed = Long.parseLong(option(args, "seed", "42"));
+        double skew = Double.parseDouble(option(args, "seed-skew", "0.8"));
+        long loans = Long.parseLong(option(args, "seed-loans", String.valueOf(10L * books)));
+        int threads = Integer.parseInt(option(args, "seed-threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        catalogSeeder.seed(books, seed, skew, loans, threads);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    private static String option(ApplicationArguments args, String name, String defaultValue) {
+        return args.containsOption(name) ? args.getOptionValues(name).get(0) : defaultValue;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.entity.BookChangeEvent;
+import com.example.dataset.SyntheticCatalog;
+import com.example.dataset.Zipf;
+import com.mongodb.bulk.BulkWriteError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Seeds a synthetic catalog of book ordinals 1..n for load tests. Parallel
+ * producers each generate one batch of popularity ranks and insert it with
+ * an unordered bulk write; since every book is a pure function of the seed
+ * and its ordinal, the catalog is the same whatever the thread count.
+ * Seeded books are published to the change feed like an import. The search
+ * and suggest indexes and the catalog counters are rebuilt at the next start.
+ */
+@Service
+public class CatalogSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSeeder.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private BookChangeLog changeLog;
+
+    @Value("${books.seed.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Inserts {@code books} books whose borrowCount is their expected share
+     * of {@code loans} under the given popularity skew, which is what
+     * loan-service seeds with the same arguments. Books already present
+     * (same id) are skipped, so an interrupted seed can be re-run.
+     *
+     * @return the number of books inserted
+     */
+    public long seed(int books, long seed, double skew, long loans, int threads) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Zipf popularity = new Zipf(books, skew);
+        ExecutorService producers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> batches = new ArrayList<>();
+            for (int from = 0; from < books; from += batchSize) {
+                int fromRank = from;
+                int toRank = Math.min(books, from + batchSize);
+                batches.add(producers.submit(() -> insertBatch(popularity, seed, loans, fromRank, toRank)));
+            }
+            long inserted = 0;
+            for (Future<Integer> batch : batches) {
+                inserted += batch.get();
+            }
+            log.info("Seeded {} of {} books in {} ms", inserted, books, System.currentTimeMillis() - start);
+            return inserted;
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Catalog seeding failed", e.getCause());
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    private int insertBatch(Zipf popularity, long seed, long loans, int fromRank, int toRank) {
+        List<Book> batch = new ArrayList<>(toRank - fromRank);
+        for (int rank = fromRank; rank < toRank; rank++) {
+            long ordinal = popularity.ordinal(rank);
+            Book book = toBook(ordinal, SyntheticCatalog.book(seed, ordinal));
+            book.setBorrowCount(Math.round(loans * popularity.probability(rank)));
+            batch.add(book);
+        }
+
+        Set<Integer> failedIndexes = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class).insert(batch).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failedIndexes.add(error.getIndex());
+            }
+        }
+        List<Book> inserted = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (!failedIndexes.contains(i)) {
+                inserted.add(batch.get(i));
+            }
+        }
+        changeLog.recordAll(BookChangeEvent.Type.CREATED, inserted);
+        return inserted.size();
+    }
+
+    private static Book toBook(long ordinal, SyntheticCatalog.Book synthetic) {
+        Book book = new Book(synthetic.title(), synthetic.author(), synthetic.isbn(), synthetic.description(),
+                synthetic.publicationYear(), synthetic.category(), synthetic.publisher(), synthetic.copies());
+        book.setId(SyntheticCatalog.bookId(ordinal));
+        return book;
+    }
+}
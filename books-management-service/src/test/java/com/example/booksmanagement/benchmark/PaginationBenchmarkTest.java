@@ -0,0 +1,104 @@
+package com.example.booksmanagement.benchmark;
+
+import com.example.booksmanagement.config.MongoIndexConfig;
+import com.example.booksmanagement.dto.CursorPage;
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.repository.BookRepository;
+import com.example.booksmanagement.service.BookChangeLog;
+import com.example.booksmanagement.service.BookSearchIndex;
+import com.example.booksmanagement.service.BookSuggestIndex;
+import com.example.booksmanagement.service.BookService;
+import com.example.booksmanagement.service.CatalogStats;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+/**
+ * Compares offset paging (skip + limit) with keyset paging on a seeded
+ * catalog. Opt-in with -Dbenchmark=true; needs Docker.
+ */
+@DataMongoTest
+@Import({BookService.class, BookSearchIndex.class, BookSuggestIndex.class, CatalogStats.class, BookChangeLog.class, MongoIndexConfig.class})
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaginationBenchmarkTest {
+
+    private static final int BOOKS = 200_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int[] PAGES = {1, 100, 1_000, 9_999};
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+
+    @BeforeAll
+    void seed() {
+        bookRepository.deleteAll();
+        List<Book> books = SyntheticBooks.generate(BOOKS, 42L);
+        for (int i = 0; i < books.size(); i += 10_000) {
+            mongoTemplate.insert(books.subList(i, Math.min(i + 10_000, books.size())), Book.class);
+        }
+        mongoIndexConfig.ensureBookIndexes();
+    }
+
+    @Test
+    void deepPagesCostTheSameWithCursors() {
+        for (int page : PAGES) {
+            Query offset = new Query(Criteria.where("isActive").is(true))
+                    .with(PageRequest.of(page, PAGE_SIZE, Sort.by("title", "id")));
+            long start = System.nanoTime();
+            mongoTemplate.find(offset, Book.class);
+            long offsetMicros = (System.nanoTime() - start) / 1_000;
+
+            String cursor = cursorBefore(page);
+            start = System.nanoTime();
+            bookService.getActiveBooksPage("title", cursor, PAGE_SIZE, false);
+            long keysetMicros = (System.nanoTime() - start) / 1_000;
+
+            System.out.printf("page %5d: offset %8d us, keyset %6d us%n", page, offsetMicros, keysetMicros);
+        }
+    }
+
+    // Walks to the requested page once so that only the last hop is timed
+    private String cursorBefore(int page) {
+        String cursor = null;
+        for (int i = 0; i < page; i++) {
+            CursorPage<Book> result = bookService.getActiveBooksPage("title", cursor, PAGE_SIZE, false);
+            cursor = result.getNextCursor();
+        }
+        return cursor;
+    }
+}
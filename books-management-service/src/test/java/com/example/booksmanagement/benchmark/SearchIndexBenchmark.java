@@ -0,0 +1,72 @@
+package com.example.booksmanagement.benchmark;
+
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.service.BookSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the inverted index with the unanchored, case-insensitive regex
+ * scan that Mongo performs for BookRepository's "$or of $regex" query.
+ * The regex side runs in memory, so it is a lower bound for the real
+ * collection scan (no network, no BSON decoding).
+ *
+ * Run {@link #main} on the test classpath, or org.openjdk.jmh.Main with
+ * "SearchIndexBenchmark" to pass JMH options.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class SearchIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int books;
+
+    @Param({"orwell", "kingdom", "ar"})
+    private String query;
+
+    private List<Book> catalog;
+    private BookSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = SyntheticBooks.generate(books, 42L);
+        index = new BookSearchIndex();
+        catalog.forEach(index::index);
+    }
+
+    @Benchmark
+    public Set<String> invertedIndex() {
+        return index.search(query);
+    }
+
+    @Benchmark
+    public void regexScan(Blackhole blackhole) {
+        Pattern pattern = Pattern.compile(query, Pattern.CASE_INSENSITIVE);
+        for (Book book : catalog) {
+            if (pattern.matcher(book.getTitle()).find()
+                    || pattern.matcher(book.getAuthor()).find()
+                    || pattern.matcher(book.getGenre()).find()
+                    || pattern.matcher(book.getIsbn()).find()) {
+                blackhole.consume(book.getId());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
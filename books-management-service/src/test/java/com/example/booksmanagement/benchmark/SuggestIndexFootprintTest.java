@@ -0,0 +1,75 @@
+package com.example.booksmanagement.benchmark;
+
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.service.BookSuggestIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Memory footprint and latency report for the suggest index over a 1M-title
+ * catalog with skewed borrow counts. The catalog is streamed into the index,
+ * so the retained heap is the index alone (titles and ids included).
+ * Opt-in with -Dbenchmark=true; run with -Xmx2g or more.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SuggestIndexFootprintTest {
+
+    private static final int BOOKS = 1_000_000;
+    private static final int ROUNDS = 5_000;
+    private static final String[] PREFIXES = {"s", "sh", "shadow", "shadow of the g", "kingdom of", "geo", "1", "zz"};
+
+    @Test
+    void reportsFootprintAndLatency() throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = retainedHeap(memory);
+        Random random = new Random(42L);
+        BookSuggestIndex index = new BookSuggestIndex();
+
+        long start = System.nanoTime();
+        index.rebuild(IntStream.range(0, BOOKS).mapToObj(i -> {
+            Book book = SyntheticBooks.generate(i, random);
+            // Roughly log-uniform between 1 and 1000 borrows
+            book.setBorrowCount((long) Math.pow(1000, random.nextDouble()));
+            return book;
+        }));
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long retained = retainedHeap(memory) - before;
+        System.out.printf("%d titles: built in %d ms, %.1f MB retained (%d bytes/title)%n",
+                index.size(), buildMillis, retained / 1e6, retained / BOOKS);
+
+        for (String prefix : PREFIXES) {
+            for (int i = 0; i < ROUNDS; i++) {
+                index.suggest(prefix, 10);
+            }
+        }
+        for (String prefix : PREFIXES) {
+            long[] nanos = new long[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                long t = System.nanoTime();
+                index.suggest(prefix, 10);
+                nanos[i] = System.nanoTime() - t;
+            }
+            Arrays.sort(nanos);
+            long p99 = nanos[ROUNDS * 99 / 100];
+            System.out.printf("%-17s p50 %6.1f us, p99 %6.1f us%n",
+                    "\"" + prefix + "\"", nanos[ROUNDS / 2] / 1e3, p99 / 1e3);
+            assertThat(p99).isLessThan(1_000_000L);
+        }
+    }
+
+    private static long retainedHeap(MemoryMXBean memory) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.booksmanagement.benchmark;
+
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.repository.BookRepository;
+import com.example.booksmanagement.service.BookChangeLog;
+import com.example.booksmanagement.service.BookSearchIndex;
+import com.example.booksmanagement.service.BookSuggestIndex;
+import com.example.booksmanagement.service.BookService;
+import com.example.booksmanagement.service.CatalogStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the full and ?view=summary variants of the /available listing:
+ * query latency, JSON payload size and heap allocated per request.
+ * Opt-in with -Dbenchmark=true; needs Docker.
+ */
+@DataMongoTest
+@Import({BookService.class, BookSearchIndex.class, BookSuggestIndex.class, CatalogStats.class, BookChangeLog.class})
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SummaryViewBenchmarkTest {
+
+    private static final int BOOKS = 20_000;
+    private static final int ROUNDS = 20;
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @BeforeAll
+    void seed() {
+        bookRepository.deleteAll();
+        List<Book> books = SyntheticBooks.generate(BOOKS, 42L);
+        for (Book book : books) {
+            // List views never show these, but they dominate the document size
+            book.setDescription(book.getDescription() + " " + "Lorem ipsum dolor sit amet. ".repeat(20));
+            book.setTags(Arrays.asList("classic", "bestseller", "award-winning", "translated"));
+            book.setCoverImageUrl("https://covers.example.com/" + book.getIsbn() + "-large.jpg");
+        }
+        mongoTemplate.insert(books, Book.class);
+    }
+
+    @Test
+    void summaryViewShrinksPayloadAndLatency() throws Exception {
+        measure("full", bookService::getAvailableBooks);
+        measure("summary", bookService::getAvailableBookSummaries);
+    }
+
+    private void measure(String view, Supplier<List<?>> listing) throws Exception {
+        listing.get();
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        byte[] payload = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            payload = objectMapper.writeValueAsBytes(listing.get());
+        }
+        long micros = (System.nanoTime() - start) / 1_000 / ROUNDS;
+        long allocatedPerRequest = (threads.getCurrentThreadAllocatedBytes() - allocated) / ROUNDS;
+        System.out.printf("%-7s: %7d us/request, %9d payload bytes, %10d bytes allocated/request%n",
+                view, micros, payload.length, allocatedPerRequest);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.booksmanagement.benchmark;
+
+import com.example.booksmanagement.entity.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic catalog generator shared by tests and benchmarks.
+ */
+public final class SyntheticBooks {
+
+    private static final String[] WORDS = {
+            "shadow", "river", "garden", "winter", "empire", "silent", "golden", "night",
+            "ocean", "memory", "forest", "letters", "storm", "kingdom", "glass", "city",
+            "secret", "journey", "fire", "stone", "mirror", "summer", "island", "crown"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Jane", "George", "Harper", "Paulo", "Agatha", "Victor", "Toni", "Gabriel", "Virginia", "Haruki"
+    };
+    private static final String[] LAST_NAMES = {
+            "Austen", "Orwell", "Lee", "Coelho", "Christie", "Hugo", "Morrison", "Marquez", "Woolf", "Murakami"
+    };
+    private static final String[] GENRES = {
+            "Fiction", "Fantasy", "Mystery", "Romance", "Science Fiction", "History", "Philosophy", "Poetry"
+    };
+
+    private SyntheticBooks() {
+    }
+
+    public static List<Book> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(generate(i, random));
+        }
+        return books;
+    }
+
+    public static Book generate(int index, Random random) {
+        String title = capitalize(word(random)) + " of the " + capitalize(word(random)) + " " + index;
+        String author = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        int copies = 1 + random.nextInt(5);
+        Book book = new Book(title, author, String.format("978-%010d", index),
+                "Synthetic description for " + title, 1900 + random.nextInt(125),
+                GENRES[random.nextInt(GENRES.length)], "Synthetic Press", copies);
+        book.setId(String.format("%024x", index));
+        return book;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
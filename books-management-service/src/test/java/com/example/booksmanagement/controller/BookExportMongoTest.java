@@ -0,0 +1,94 @@
+package com.example.booksmanagement.controller;
+
+import com.example.booksmanagement.benchmark.SyntheticBooks;
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.repository.BookRepository;
+import com.example.booksmanagement.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.bson.Document;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports books stored in a real Mongo through the NDJSON endpoint, read from
+ * BookRepository's cursor rather than a mocked stream. Runs in the low-memory
+ * surefire execution (-Xmx64m) with more books than that heap holds as a List.
+ * Needs Docker and is skipped when it is missing.
+ */
+@Tag("low-memory")
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+class BookExportMongoTest {
+
+    private static final int BOOKS = 200_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void exportsActiveBooksFromTheCursorWithConstantMemory() throws Exception {
+        mongoTemplate.dropCollection(Book.class);
+        Random random = new Random(7L);
+        for (int from = 0; from < BOOKS; from += BATCH_SIZE) {
+            List<Book> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < from + BATCH_SIZE; i++) {
+                Book book = SyntheticBooks.generate(i, random);
+                // Every tenth book is inactive and left out of the export
+                book.setActive(i % 10 != 0);
+                batch.add(book);
+            }
+            mongoTemplate.insert(batch, Book.class);
+        }
+        BookController bookController = controllerOverTheRealRepository();
+
+        BookExportTest.LineCountingOutputStream out = new BookExportTest.LineCountingOutputStream();
+        bookController.exportBooks().getBody().writeTo(out);
+
+        assertThat(out.lines).isEqualTo(BOOKS - BOOKS / 10);
+        // Closing the stream closed the server-side cursor
+        Document serverStatus = mongoTemplate.executeCommand(new Document("serverStatus", 1));
+        assertThat(serverStatus.getEmbedded(List.of("metrics", "cursor", "open", "total"), Number.class).longValue())
+                .isZero();
+        System.out.printf("Exported %d books (%d MB) from Mongo with max heap %d MB%n",
+                out.lines, out.bytes >> 20, Runtime.getRuntime().maxMemory() >> 20);
+    }
+
+    private BookController controllerOverTheRealRepository() {
+        BookService bookService = new BookService();
+        ReflectionTestUtils.setField(bookService, "bookRepository", bookRepository);
+        BookController bookController = new BookController();
+        ReflectionTestUtils.setField(bookController, "bookService", bookService);
+        ReflectionTestUtils.setField(bookController, "objectMapper", new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        return bookController;
+    }
+}
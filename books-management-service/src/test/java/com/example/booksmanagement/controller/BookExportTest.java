@@ -0,0 +1,87 @@
+package com.example.booksmanagement.controller;
+
+import com.example.booksmanagement.benchmark.SyntheticBooks;
+import com.example.booksmanagement.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exports a million generated books through the NDJSON endpoint. Runs in the
+ * low-memory surefire execution (-Xmx64m), where holding the catalog as a
+ * List would fail with an OutOfMemoryError.
+ */
+@Tag("low-memory")
+@ExtendWith(MockitoExtension.class)
+class BookExportTest {
+
+    private static final int BOOKS = 1_000_000;
+
+    @Mock
+    private BookService bookService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private BookController bookController;
+
+    @Test
+    void exportsMillionBooksWithConstantMemory() throws Exception {
+        Random random = new Random(7L);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(bookService.streamActiveBooks()).thenReturn(IntStream.range(0, BOOKS)
+                .mapToObj(i -> SyntheticBooks.generate(i, random))
+                .onClose(() -> closed.set(true)));
+
+        ResponseEntity<StreamingResponseBody> response = bookController.exportBooks();
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(out.lines).isEqualTo(BOOKS);
+        assertThat(closed).isTrue();
+        System.out.printf("Exported %d books (%d MB) with max heap %d MB%n",
+                out.lines, out.bytes >> 20, Runtime.getRuntime().maxMemory() >> 20);
+    }
+
+    static class LineCountingOutputStream extends OutputStream {
+        long lines;
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.dto.BookChangeBatch;
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.entity.BookChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sequencing, paging and trimming of the book change feed against a real
+ * Mongo. Needs Docker and is skipped when it is missing.
+ */
+@DataMongoTest(properties = "books.changes.retention-hours=1")
+@Import(BookChangeLog.class)
+@Testcontainers(disabledWithoutDocker = true)
+class BookChangeLogTest {
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private BookChangeLog changeLog;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void cleanUp() {
+        mongoTemplate.dropCollection(BookChangeEvent.class);
+        mongoTemplate.dropCollection(BookChangeLog.COUNTERS);
+    }
+
+    @Test
+    void concurrentWritersGetDistinctContiguousSequences() throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = IntStream.range(0, 200)
+                    .mapToObj(i -> writers.submit(() -> changeLog.record(BookChangeEvent.Type.CREATED, book(i))))
+                    .collect(Collectors.toList());
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            writers.shutdown();
+        }
+
+        BookChangeBatch batch = changeLog.read(0, 1000);
+        assertThat(batch.getHead()).isEqualTo(200);
+        assertThat(batch.getChanges()).extracting(BookChangeEvent::getSequence)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 200).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void readsResumeAfterThePosition() {
+        changeLog.recordAll(BookChangeEvent.Type.CREATED, List.of(book(1), book(2), book(3)));
+        changeLog.record(BookChangeEvent.Type.DELETED, book(2));
+
+        BookChangeBatch batch = changeLog.read(2, 10);
+
+        assertThat(batch.getChanges()).extracting(BookChangeEvent::getSequence).containsExactly(3L, 4L);
+        assertThat(batch.getChanges().get(1).getType()).isEqualTo(BookChangeEvent.Type.DELETED);
+        assertThat(batch.getChanges().get(1).getBookId()).isEqualTo("b2");
+        assertThat(changeLog.read(4, 10).getChanges()).isEmpty();
+    }
+
+    @Test
+    void trimPublishesTheTrimPointAndKeepsRecentEvents() {
+        changeLog.recordAll(BookChangeEvent.Type.CREATED, List.of(book(1), book(2), book(3)));
+        mongoTemplate.updateMulti(new Query(Criteria.where("sequence").lte(2)),
+                new Update().set("createdAt", LocalDateTime.now().minusHours(2)), BookChangeEvent.class);
+
+        assertThat(changeLog.trim()).isEqualTo(2);
+
+        BookChangeBatch batch = changeLog.read(0, 10);
+        assertThat(batch.getTrimmedThrough()).isEqualTo(2);
+        assertThat(batch.getChanges()).extracting(BookChangeEvent::getSequence).containsExactly(3L);
+    }
+
+    private static Book book(int index) {
+        Book book = new Book("Title " + index, "Author " + index, "isbn-" + index, null, 2000, "Fiction", null, 2);
+        book.setId("b" + index);
+        return book;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.dto.ImportReport;
+import com.example.booksmanagement.entity.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Spy
+    private BookSearchIndex searchIndex = new BookSearchIndex();
+
+    @Spy
+    private BookSuggestIndex suggestIndex = new BookSuggestIndex();
+
+    @Spy
+    private CatalogStats catalogStats = new CatalogStats();
+
+    @Mock
+    private BookChangeLog changeLog;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private BookImportService importService;
+
+    private final List<Book> inserted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class)).thenReturn(bulkOperations);
+        lenient().when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            inserted.addAll(invocation.getArgument(0));
+            return bulkOperations;
+        });
+    }
+
+    @Test
+    void importsSampleCatalogInBatches() throws IOException {
+        try (InputStream input = Files.newInputStream(Paths.get("../sample_books.json"))) {
+            ImportReport report = importService.importBooks(input, BookImportService.Format.JSON);
+
+            assertThat(report.getFailed()).isZero();
+            assertThat(report.getInserted()).isEqualTo(report.getReceived()).isEqualTo(inserted.size());
+        }
+        // The sample file names the genre "category" and has no copy counts
+        assertThat(inserted.get(0).getGenre()).isEqualTo("Programming");
+        assertThat(inserted.get(0).getAvailableCopies()).isEqualTo(1);
+        assertThat(inserted).allSatisfy(book -> assertThat(book.getId()).isNotNull());
+        assertThat(searchIndex.search("clean code")).containsExactly(inserted.get(0).getId());
+        assertThat(catalogStats.getTotal()).isEqualTo(inserted.size());
+        verify(bulkOperations, times((inserted.size() + 1) / 2)).execute();
+    }
+
+    @Test
+    void skipsDuplicatesWithinFileAndAlreadyStored() throws IOException {
+        Book stored = new Book("Dune", "Frank Herbert", "111", null, 1965, null, null, 1);
+        when(mongoTemplate.find(any(Query.class), eq(Book.class)))
+                .thenReturn(Collections.singletonList(stored), Collections.emptyList());
+
+        ImportReport report = importService.importBooks(json(
+                "[" + book("Dune", "111") + "," + book("Emma", "222") + ","
+                        + book("Emma again", "222") + "," + book("Walden", "333") + "]"),
+                BookImportService.Format.JSON);
+
+        assertThat(report.getReceived()).isEqualTo(4);
+        assertThat(report.getDuplicates()).isEqualTo(2);
+        assertThat(report.getInserted()).isEqualTo(2);
+        assertThat(inserted).extracting(Book::getIsbn).containsExactly("222", "333");
+        assertThat(report.getErrors()).extracting(ImportReport.RecordError::getRecord).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void invalidRecordsAreReportedWithoutAbortingTheImport() throws IOException {
+        ImportReport report = importService.importBooks(json(
+                "[{\"title\": \"No author\", \"isbn\": \"444\", \"publicationYear\": 2001},"
+                        + "{\"title\": \"Bad year\", \"author\": \"A\", \"isbn\": \"555\", \"publicationYear\": \"soon\"},"
+                        + book("Valid", "666") + "]"),
+                BookImportService.Format.JSON);
+
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getInserted()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Author is required");
+        assertThat(report.getErrors().get(1).getIsbn()).isEqualTo("555");
+    }
+
+    @Test
+    void parsesQuotedCsvFieldsAndTags() throws IOException {
+        String csv = "title,author,isbn,publicationYear,genre,totalCopies,tags\n"
+                + "\"War and Peace, Vol. 1\",Leo Tolstoy,777,1869,Fiction,4,classic;russian\n"
+                + "\n"
+                + "\"The \"\"Quoted\"\" Book\",Someone,888,2020,,,\n";
+
+        ImportReport report = importService.importBooks(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportService.Format.CSV);
+
+        assertThat(report.getInserted()).isEqualTo(2);
+        assertThat(inserted.get(0).getTitle()).isEqualTo("War and Peace, Vol. 1");
+        assertThat(inserted.get(0).getTotalCopies()).isEqualTo(4);
+        assertThat(inserted.get(0).getTags()).containsExactly("classic", "russian");
+        assertThat(inserted.get(1).getTitle()).isEqualTo("The \"Quoted\" Book");
+        assertThat(inserted.get(1).getTotalCopies()).isEqualTo(1);
+    }
+
+    private static String book(String title, String isbn) {
+        return "{\"title\": \"" + title + "\", \"author\": \"Author\", \"isbn\": \"" + isbn
+                + "\", \"publicationYear\": 2000}";
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
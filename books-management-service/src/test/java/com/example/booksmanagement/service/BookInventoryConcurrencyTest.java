@@ -0,0 +1,165 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrency and throughput checks for the conditional $inc inventory path.
+ * Needs Docker for the Mongo container and is skipped when it is missing.
+ */
+@DataMongoTest
+@Import({BookService.class, BookSearchIndex.class, BookSuggestIndex.class, CatalogStats.class, BookChangeLog.class})
+@Testcontainers(disabledWithoutDocker = true)
+class BookInventoryConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int COPIES = 10;
+    private static final int OPERATIONS = 4000;
+
+    @Container
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongo::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentBorrowsNeverOversell() throws Exception {
+        Book book = bookService.createBook(new Book("Dune", "Frank Herbert", "978-0-441-17271-9",
+                null, 1965, "Science Fiction", null, COPIES));
+
+        int successes = race(THREADS * 4, () -> bookService.borrowBook(book.getId()));
+
+        assertThat(successes).isEqualTo(COPIES);
+        Book stored = bookRepository.findById(book.getId()).orElseThrow();
+        assertThat(stored.getAvailableCopies()).isZero();
+        assertThat(stored.getBorrowCount()).isEqualTo(COPIES);
+    }
+
+    @Test
+    void concurrentReturnsNeverExceedTotalCopies() throws Exception {
+        Book book = new Book("Emma", "Jane Austen", "978-0-14-143958-7", null, 1815, "Romance", null, COPIES);
+        book.setAvailableCopies(0);
+        Book saved = bookService.createBook(book);
+
+        int successes = race(THREADS * 4, () -> bookService.returnBook(saved.getId()));
+
+        assertThat(successes).isEqualTo(COPIES);
+        assertThat(bookRepository.findById(saved.getId()).orElseThrow().getAvailableCopies()).isEqualTo(COPIES);
+    }
+
+    @Test
+    void editsRacingWithBorrowsKeepEveryBorrow() throws Exception {
+        Book book = bookService.createBook(new Book("Dune", "Frank Herbert", "978-0-441-17271-9",
+                null, 1965, "Science Fiction", null, OPERATIONS));
+        Book details = new Book("Dune", "Frank Herbert", "978-0-441-17271-9",
+                "Revised edition", 1965, "Science Fiction", null, OPERATIONS);
+        details.setAvailableCopies(null);
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger borrows = new AtomicInteger();
+
+        race(OPERATIONS, () -> {
+            if (attempts.getAndIncrement() % 4 == 0) {
+                bookService.updateBook(book.getId(), details);
+            } else {
+                bookService.borrowBook(book.getId());
+                borrows.incrementAndGet();
+            }
+        });
+
+        Book stored = bookRepository.findById(book.getId()).orElseThrow();
+        assertThat(stored.getDescription()).isEqualTo("Revised edition");
+        assertThat(stored.getAvailableCopies()).isEqualTo(OPERATIONS - borrows.get());
+        assertThat(stored.getBorrowCount()).isEqualTo(borrows.get());
+    }
+
+    @Test
+    void reportsThroughputAgainstReadModifyWrite() throws Exception {
+        Book atomic = bookService.createBook(new Book("Ulysses", "James Joyce", "978-0-679-72276-3",
+                null, 1922, "Fiction", null, OPERATIONS));
+        Book legacy = bookService.createBook(new Book("Walden", "Henry David Thoreau", "978-0-691-09612-3",
+                null, 1854, "Philosophy", null, OPERATIONS));
+
+        long start = System.nanoTime();
+        int atomicBorrows = race(OPERATIONS, () -> bookService.borrowBook(atomic.getId()));
+        double atomicOps = OPERATIONS / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        int legacyBorrows = race(OPERATIONS, () -> readModifyWriteBorrow(legacy.getId()));
+        double legacyOps = OPERATIONS / ((System.nanoTime() - start) / 1e9);
+        int legacyRemaining = bookRepository.findById(legacy.getId()).orElseThrow().getAvailableCopies();
+
+        System.out.printf("findAndModify: %.0f ops/sec, read-modify-write: %.0f ops/sec (%d lost updates)%n",
+                atomicOps, legacyOps, legacyBorrows - (OPERATIONS - legacyRemaining));
+
+        assertThat(atomicBorrows).isEqualTo(OPERATIONS);
+        assertThat(bookRepository.findById(atomic.getId()).orElseThrow().getAvailableCopies()).isZero();
+    }
+
+    // The implementation borrowBook used before the conditional update
+    private void readModifyWriteBorrow(String id) {
+        Book book = bookService.getBookById(id);
+        if (book.getAvailableCopies() <= 0) {
+            throw new RuntimeException("No copies available for borrowing");
+        }
+        book.setAvailableCopies(book.getAvailableCopies() - 1);
+        bookRepository.save(book);
+    }
+
+    private static int race(int attempts, Runnable operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        operation.run();
+                        successes.incrementAndGet();
+                    } catch (RuntimeException ignored) {
+                        // Expected once the guard rejects the update
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return successes.get();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.index(book("1", "The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "978-0-7432-7356-5"));
+        index.index(book("2", "Les Misérables", "Victor Hugo", "Historical Fiction", "978-0-451-41943-9"));
+        index.index(book("3", "The Hobbit", "J.R.R. Tolkien", "Fantasy", "978-0-547-92822-7"));
+    }
+
+    @Test
+    void substringMatchIgnoresCaseAndAccents() {
+        assertThat(index.search("MISERABLE")).containsExactly("2");
+        assertThat(index.search("atsb")).containsExactly("1");
+    }
+
+    @Test
+    void searchesAcrossAllFields() {
+        assertThat(index.search("fiction")).containsExactlyInAnyOrder("1", "2");
+        assertThat(index.search("tolkien")).containsExactly("3");
+    }
+
+    @Test
+    void shortQueriesMatchTokenPrefixes() {
+        assertThat(index.search("ho", BookSearchIndex.Field.TITLE)).containsExactly("3");
+        assertThat(index.search("vi", BookSearchIndex.Field.AUTHOR)).containsExactly("2");
+    }
+
+    @Test
+    void isbnMatchesWithOrWithoutSeparators() {
+        assertThat(index.search("9780547")).containsExactly("3");
+        assertThat(index.search("0-547-92")).containsExactly("3");
+    }
+
+    @Test
+    void fieldRestrictedSearch() {
+        assertThat(index.search("fiction", BookSearchIndex.Field.TITLE)).isEmpty();
+        assertThat(index.search("fiction", BookSearchIndex.Field.GENRE)).containsExactlyInAnyOrder("1", "2");
+    }
+
+    @Test
+    void updateReplacesOldTerms() {
+        index.index(book("3", "The Silmarillion", "J.R.R. Tolkien", "Fantasy", "978-0-547-92822-7"));
+
+        assertThat(index.search("hobbit")).isEmpty();
+        assertThat(index.search("silmaril")).containsExactly("3");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void inactiveAndRemovedBooksAreNotReturned() {
+        Book gatsby = book("1", "The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "978-0-7432-7356-5");
+        gatsby.setActive(false);
+        index.index(gatsby);
+        index.remove("2");
+
+        assertThat(index.search("fiction")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static Book book(String id, String title, String author, String genre, String isbn) {
+        Book book = new Book(title, author, isbn, null, 1950, genre, null, 1);
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.config.BookCacheConfig;
+import com.example.booksmanagement.dto.BookCursor;
+import com.example.booksmanagement.dto.BookSummary;
+import com.example.booksmanagement.dto.CatalogStatsSnapshot;
+import com.example.booksmanagement.dto.CursorPage;
+import com.example.booksmanagement.dto.Suggestion;
+import com.example.booksmanagement.entity.Book;
+import com.example.booksmanagement.entity.BookChangeEvent;
+import com.example.booksmanagement.repository.BookRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private BookSearchIndex searchIndex = new BookSearchIndex();
+
+    @Spy
+    private BookSuggestIndex suggestIndex = new BookSuggestIndex();
+
+    @Spy
+    private CaffeineCacheManager cacheManager =
+            new CaffeineCacheManager(BookCacheConfig.BOOKS_BY_ID, BookCacheConfig.BOOKS_BY_ISBN);
+
+    @Spy
+    private CatalogStats catalogStats = new CatalogStats();
+
+    @Mock
+    private BookChangeLog changeLog;
+
+    @InjectMocks
+    private BookService bookService;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        book = new Book("Dune", "Frank Herbert", "978-0-441-17271-9", null, 1965, "Science Fiction", null, 3);
+        book.setId("b1");
+    }
+
+    @Test
+    void getBookByIdIsReadThrough() {
+        when(bookRepository.findById("b1")).thenReturn(Optional.of(book));
+
+        assertThat(bookService.getBookById("b1")).isSameAs(book);
+        assertThat(bookService.getBookById("b1")).isSameAs(book);
+
+        verify(bookRepository, times(1)).findById("b1");
+    }
+
+    @Test
+    void missingBooksAreNotCached() {
+        when(bookRepository.findById("b2")).thenReturn(Optional.empty());
+
+        assertThat(bookService.isActiveBook("b2")).isFalse();
+        assertThat(bookService.isActiveBook("b2")).isFalse();
+
+        verify(bookRepository, times(2)).findById("b2");
+    }
+
+    @Test
+    void updateEvictsIdAndBothIsbns() {
+        when(bookRepository.findById("b1")).thenReturn(Optional.of(book));
+        when(bookRepository.findByIsbnAndIsActive("978-0-441-17271-9", true)).thenReturn(Optional.of(book));
+        when(mongoTemplate.findAndModify(any(), any(), any(), eq(Book.class))).thenReturn(storedDune());
+        bookService.getBookById("b1");
+        bookService.getBookByIsbn("978-0-441-17271-9");
+
+        Book details = new Book("Dune Messiah", "Frank Herbert", "978-0-593-09823-5", null, 1969,
+                "Science Fiction", null, 3);
+        bookService.updateBook("b1", details);
+
+        assertThat(cacheManager.getCache(BookCacheConfig.BOOKS_BY_ID).get("b1")).isNull();
+        assertThat(cacheManager.getCache(BookCacheConfig.BOOKS_BY_ISBN).get("978-0-441-17271-9")).isNull();
+    }
+
+    @Test
+    void updateDuringAMissDoesNotLeaveTheOldCopyCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> storedTitle = new AtomicReference<>("Dune");
+        AtomicInteger reads = new AtomicInteger();
+        when(bookRepository.findById("b1")).thenAnswer(invocation -> {
+            Book stored = new Book(storedTitle.get(), "Frank Herbert", "978-0-441-17271-9", null, 1965,
+                    "Science Fiction", null, 3);
+            stored.setId("b1");
+            if (reads.getAndIncrement() == 0) {
+                // The miss has read the old version and is slow to hand it to the cache
+                loading.countDown();
+                release.await();
+            }
+            return Optional.of(stored);
+        });
+        when(mongoTemplate.findAndModify(any(), any(), any(), eq(Book.class))).thenAnswer(invocation -> {
+            Update update = invocation.getArgument(1);
+            Book replaced = storedDune();
+            replaced.setTitle(storedTitle.getAndSet(update.getUpdateObject().get("$set", Document.class)
+                    .getString("title")));
+            return replaced;
+        });
+        Book details = new Book("Dune Messiah", "Frank Herbert", "978-0-441-17271-9", null, 1969,
+                "Science Fiction", null, 3);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Book> miss = executor.submit(() -> bookService.getBookById("b1"));
+            loading.await();
+            Thread update = new Thread(() -> bookService.updateBook("b1", details));
+            update.start();
+            // The update's eviction waits on the in-flight load instead of running before its put
+            while (update.isAlive() && update.getState() != Thread.State.BLOCKED) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            update.join();
+
+            assertThat(miss.get().getTitle()).isEqualTo("Dune");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(bookService.getBookById("b1").getTitle()).isEqualTo("Dune Messiah");
+    }
+
+    @Test
+    void updateOnlySetsTheEditedFields() {
+        Book stored = storedDune();
+        stored.setAvailableCopies(1);
+        stored.setBorrowCount(40);
+        when(mongoTemplate.findAndModify(any(), any(), any(), eq(Book.class))).thenReturn(stored);
+        Book details = new Book("Dune Messiah", "Frank Herbert", "978-0-593-09823-5", null, 1969,
+                "Science Fiction", null, 3);
+        details.setAvailableCopies(null);
+
+        Book updated = bookService.updateBook("b1", details);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(any(), update.capture(), options.capture(), eq(Book.class));
+        Document changes = update.getValue().getUpdateObject();
+        assertThat(changes.keySet()).containsExactly("$set");
+        assertThat(changes.get("$set", Document.class))
+                .containsEntry("title", "Dune Messiah")
+                .doesNotContainKeys("availableCopies", "borrowCount", "isActive", "createdAt");
+        assertThat(options.getValue().isReturnNew()).isFalse();
+        verify(bookRepository, never()).save(any(Book.class));
+        assertThat(updated.getTitle()).isEqualTo("Dune Messiah");
+        assertThat(updated.getAvailableCopies()).isEqualTo(1);
+        assertThat(updated.getBorrowCount()).isEqualTo(40);
+    }
+
+    @Test
+    void availabilityIsGuardedAndSetInOneUpdate() {
+        Book stored = storedDune();
+        stored.setBorrowCount(40);
+        when(mongoTemplate.findAndModify(any(), any(), any(), eq(Book.class))).thenReturn(stored);
+
+        Book updated = bookService.updateBookAvailability("b1", 2);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(), eq(Book.class));
+        assertThat(query.getValue().getQueryObject().get("totalCopies", Document.class)).containsEntry("$gte", 2);
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class).keySet())
+                .containsExactlyInAnyOrder("availableCopies", "updatedAt");
+        assertThat(updated.getAvailableCopies()).isEqualTo(2);
+        assertThat(updated.getBorrowCount()).isEqualTo(40);
+        verify(changeLog).record(BookChangeEvent.Type.AVAILABILITY, updated);
+    }
+
+    @Test
+    void availabilityAboveTotalCopiesIsRejected() {
+        when(mongoTemplate.findAndModify(any(), any(), any(), eq(Book.class))).thenReturn(null);
+        when(bookRepository.findById("b1")).thenReturn(Optional.of(book));
+
+        assertThatThrownBy(() -> bookService.updateBookAvailability("b1", 4))
+                .hasMessage("Available copies cannot exceed total copies");
+        verify(changeLog, never()).record(any(), any());
+    }
+
+    @Test
+    void borrowEvictsCachedCopy() {
+        when(bookRepository.findById("b1")).thenReturn(Optional.of(book));
+        bookService.getBookById("b1");
+        when(mongoTemplate.findAndModify(any(), any(), any(), eq(Book.class))).thenReturn(book);
+
+        bookService.borrowBook("b1");
+
+        assertThat(cacheManager.getCache(BookCacheConfig.BOOKS_BY_ID).get("b1")).isNull();
+    }
+
+    @Test
+    void pageSeeksPastCursorAndIssuesNextCursor() {
+        Book second = new Book("Emma", "Jane Austen", "978-0-14-143958-7", null, 1815, "Romance", null, 1);
+        second.setId("b2");
+        Book third = new Book("Ulysses", "James Joyce", "978-0-679-72276-3", null, 1922, "Fiction", null, 1);
+        third.setId("b3");
+        when(mongoTemplate.find(any(Query.class), eq(Book.class)))
+                .thenReturn(new ArrayList<>(List.of(book, second, third)));
+
+        String cursor = new BookCursor("title", "Carrie", "b0").encode();
+        CursorPage<Book> page = bookService.getActiveBooksPage("title", cursor, 2, false);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Book.class));
+        assertThat(query.getValue().getQueryObject().toJson()).contains("$or", "Carrie", "b0");
+        assertThat(query.getValue().getLimit()).isEqualTo(3);
+        assertThat(page.getContent()).containsExactly(book, second);
+        assertThat(page.getTotalElements()).isNull();
+        BookCursor next = BookCursor.decode(page.getNextCursor());
+        assertThat(next.getValue()).isEqualTo("Emma");
+        assertThat(next.getId()).isEqualTo("b2");
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(Book.class))).thenReturn(new ArrayList<>(List.of(book)));
+        when(bookRepository.countByIsActive(true)).thenReturn(1L);
+
+        CursorPage<Book> page = bookService.getActiveBooksPage("id", null, 2, true);
+
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getTotalElements()).isEqualTo(1L);
+    }
+
+    @Test
+    void cursorMustMatchSortKey() {
+        String cursor = new BookCursor("author", "Austen", "b2").encode();
+
+        assertThatThrownBy(() -> bookService.getActiveBooksPage("title", cursor, 2, false))
+                .hasMessage("Cursor was issued for sort key: author");
+    }
+
+    @Test
+    void borrowReportsNoCopiesWhenGuardRejects() {
+        when(bookRepository.findById("b1")).thenReturn(Optional.of(book));
+        when(mongoTemplate.findAndModify(any(), any(), any(), eq(Book.class))).thenReturn(null);
+
+        assertThatThrownBy(() -> bookService.borrowBook("b1"))
+                .hasMessage("No copies available for borrowing");
+        verifyNoInteractions(changeLog);
+    }
+
+    @Test
+    void statsFollowCreateBorrowAndDelete() {
+        Book lastCopy = new Book("Dune", "Frank Herbert", "978-0-441-17271-9", null, 1965, "Science Fiction", null, 1);
+        when(bookRepository.findByIsbnAndIsActive(lastCopy.getIsbn(), true)).thenReturn(Optional.empty());
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> {
+            Book saved = invocation.getArgument(0);
+            saved.setId("b1");
+            return saved;
+        });
+        bookService.createBook(lastCopy);
+
+        Book borrowed = new Book("Dune", "Frank Herbert", "978-0-441-17271-9", null, 1965, "Science Fiction", null, 1);
+        borrowed.setId("b1");
+        borrowed.setAvailableCopies(0);
+        when(mongoTemplate.findAndModify(any(), any(), any(), eq(Book.class))).thenReturn(borrowed);
+        bookService.borrowBook("b1");
+
+        CatalogStatsSnapshot stats = bookService.getCatalogStats();
+        assertThat(stats.getTotalBooks()).isEqualTo(1);
+        assertThat(stats.getAvailableBooks()).isZero();
+        assertThat(stats.getOutOfStockBooks()).isEqualTo(1);
+        assertThat(stats.getBooksByGenre()).containsEntry("Science Fiction", 1L);
+        assertThat(stats.getBooksByPublicationYear()).containsEntry(1965, 1L);
+
+        when(bookRepository.findById("b1")).thenReturn(Optional.of(borrowed));
+        bookService.deleteBook("b1");
+
+        stats = bookService.getCatalogStats();
+        assertThat(stats.getTotalBooks()).isZero();
+        assertThat(stats.getOutOfStockBooks()).isZero();
+        assertThat(stats.getBooksByGenre()).isEmpty();
+        assertThat(bookService.getBooksByGenreCount("Science Fiction")).isZero();
+    }
+
+    @Test
+    void everyMutationIsPublishedToTheChangeFeed() {
+        when(bookRepository.findByIsbnAndIsActive(book.getIsbn(), true)).thenReturn(Optional.empty());
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        bookService.createBook(book);
+        verify(changeLog).record(BookChangeEvent.Type.CREATED, book);
+
+        when(mongoTemplate.findAndModify(any(), any(), any(), eq(Book.class))).thenReturn(book);
+        bookService.borrowBook("b1");
+        verify(changeLog).record(BookChangeEvent.Type.AVAILABILITY, book);
+
+        when(bookRepository.findById("b1")).thenReturn(Optional.of(book));
+        bookService.deleteBook("b1");
+        verify(changeLog).record(BookChangeEvent.Type.DELETED, book);
+    }
+
+    @Test
+    void borrowsRaiseTheBookInSuggestions() {
+        Book other = new Book("Dubliners", "James Joyce", "978-0-14-018647-8", null, 1914, "Fiction", null, 3);
+        other.setId("b2");
+        other.setBorrowCount(1);
+        suggestIndex.rebuild(Stream.of(book, other));
+        assertThat(bookService.getSuggestions("du", 2)).extracting(Suggestion::getText)
+                .containsExactly("Dubliners", "Dune");
+
+        when(mongoTemplate.findAndModify(any(), any(), any(), eq(Book.class))).thenReturn(book);
+        bookService.borrowBook("b1");
+        bookService.borrowBook("b1");
+
+        assertThat(bookService.getSuggestions("du", 2)).extracting(Suggestion::getText)
+                .containsExactly("Dune", "Dubliners");
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).findAndModify(any(), update.capture(), any(), eq(Book.class));
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class))
+                .containsEntry("borrowCount", 1);
+    }
+
+    @Test
+    void suggestionLimitIsBounded() {
+        assertThatThrownBy(() -> bookService.getSuggestions("du", BookSuggestIndex.MAX_LIMIT + 1))
+                .hasMessage("Suggestion limit must be between 1 and " + BookSuggestIndex.MAX_LIMIT);
+    }
+
+    @Test
+    void rebuildLoadsCountersFromFacets() {
+        Document facets = new Document("total", List.of(new Document("count", 5)))
+                .append("available", List.of(new Document("count", 4)))
+                .append("outOfStock", List.of())
+                .append("byGenre", List.of(new Document("_id", "Fiction").append("count", 5)))
+                .append("byYear", List.of(new Document("_id", 1999).append("count", 5)));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Book.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(facets), new Document()));
+
+        bookService.rebuildCatalogStats();
+
+        assertThat(bookService.getTotalBooksCount()).isEqualTo(5);
+        assertThat(bookService.getAvailableBooksCount()).isEqualTo(4);
+        assertThat(bookService.getBooksByGenreCount("Fiction")).isEqualTo(5);
+        assertThat(bookService.getCatalogStats().getOutOfStockBooks()).isZero();
+        assertThat(bookService.getCatalogStats().getRebuiltAt()).isNotNull();
+    }
+
+    @Test
+    void summaryListingsProjectOnlySummaryFields() {
+        BookSummary summary = new BookSummary("b1", "Dune", "Frank Herbert", "978-0-441-17271-9",
+                "Science Fiction", 1965, 3, 3);
+        when(mongoTemplate.getCollectionName(Book.class)).thenReturn("books");
+        when(mongoTemplate.find(any(Query.class), eq(BookSummary.class), eq("books"))).thenReturn(List.of(summary));
+
+        assertThat(bookService.getAvailableBookSummaries()).containsExactly(summary);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(BookSummary.class), eq("books"));
+        assertThat(query.getValue().getFieldsObject().keySet()).containsExactlyInAnyOrder(
+                "title", "author", "isbn", "genre", "publicationYear", "availableCopies", "totalCopies");
+        assertThat(query.getValue().getQueryObject().toJson()).contains("availableCopies", "isActive");
+    }
+
+    // A separate instance, like each document Mongo hands back
+    private static Book storedDune() {
+        Book stored = new Book("Dune", "Frank Herbert", "978-0-441-17271-9", null, 1965, "Science Fiction", null, 3);
+        stored.setId("b1");
+        return stored;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.booksmanagement.service;
+
+import com.example.booksmanagement.dto.Suggestion;
+import com.example.booksmanagement.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class BookSuggestIndexTest {
+
+    private BookSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSuggestIndex();
+        index.rebuild(Stream.of(
+                book("1", "The Hobbit", "J.R.R. Tolkien", 40),
+                book("2", "The Silmarillion", "J.R.R. Tolkien", 5),
+                book("3", "Harry Potter and the Philosopher's Stone", "J.K. Rowling", 90),
+                book("4", "Les Misérables", "Victor Hugo", 12),
+                book("5", "The Hound of the Baskervilles", "Arthur Conan Doyle", 20)));
+    }
+
+    @Test
+    void matchesWordStartsIgnoringCaseAndAccents() {
+        assertThat(texts("POT")).containsExactly("Harry Potter and the Philosopher's Stone");
+        assertThat(texts("miser")).containsExactly("Les Misérables");
+        assertThat(texts("tolk")).containsExactly("J.R.R. Tolkien");
+        assertThat(texts("otter")).isEmpty();
+    }
+
+    @Test
+    void stopwordsOnlyMatchAtTheStart() {
+        assertThat(texts("the")).containsExactly("The Hobbit", "The Hound of the Baskervilles", "The Silmarillion");
+        assertThat(texts("and")).isEmpty();
+    }
+
+    @Test
+    void mostBorrowedComeFirstAndAuthorsSumTheirBooks() {
+        List<Suggestion> suggestions = index.suggest("h", 10);
+
+        assertThat(suggestions).extracting(Suggestion::getText).containsExactly(
+                "Harry Potter and the Philosopher's Stone", "The Hobbit", "The Hound of the Baskervilles",
+                "Victor Hugo");
+        assertThat(index.suggest("j", 10)).extracting(Suggestion::getText, Suggestion::getBorrowCount)
+                .containsExactly(tuple("J.K. Rowling", 90L),
+                        tuple("J.R.R. Tolkien", 45L));
+    }
+
+    @Test
+    void limitCutsTheRanking() {
+        assertThat(texts("the", 2)).containsExactly("The Hobbit", "The Hound of the Baskervilles");
+    }
+
+    @Test
+    void identicalTitlesAreSuggestedOnce() {
+        index.index(book("6", "The Hobbit", "J.R.R. Tolkien", 3));
+
+        List<Suggestion> suggestions = index.suggest("hobbit", 10);
+
+        assertThat(suggestions).hasSize(1);
+        assertThat(suggestions.get(0).getBookId()).isEqualTo("1");
+    }
+
+    @Test
+    void borrowsReorderSuggestions() {
+        for (int i = 0; i < 50; i++) {
+            index.recordBorrow("2");
+        }
+
+        assertThat(texts("the", 1)).containsExactly("The Silmarillion");
+        assertThat(index.suggest("tolk", 1).get(0).getBorrowCount()).isEqualTo(95L);
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceOldKeys() {
+        index.index(book("1", "The Fellowship of the Ring", "J.R.R. Tolkien", 0));
+        index.remove("3");
+
+        assertThat(texts("hobbit")).isEmpty();
+        assertThat(texts("fellow")).containsExactly("The Fellowship of the Ring");
+        assertThat(index.suggest("fellow", 1).get(0).getBorrowCount()).isEqualTo(40L);
+        assertThat(texts("rowling")).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void inactiveBooksAreRemoved() {
+        Book hobbit = book("1", "The Hobbit", "J.R.R. Tolkien", 40);
+        hobbit.setActive(false);
+        index.index(hobbit);
+
+        assertThat(texts("hobbit")).isEmpty();
+        assertThat(index.suggest("tolk", 1).get(0).getBorrowCount()).isEqualTo(5L);
+    }
+
+    @Test
+    void leavesSplitWithoutChangingTheRanking() {
+        int books = BookSuggestIndex.BURST * 50;
+        IntStream.range(0, books).forEach(i -> index.index(book("n" + i, "Novel " + i, "Author " + (i % 7), i)));
+        IntStream.range(0, books / 2).forEach(i -> index.remove("n" + (i * 2)));
+
+        assertThat(texts("novel", 3)).containsExactly(
+                "Novel " + (books - 1), "Novel " + (books - 3), "Novel " + (books - 5));
+        assertThat(texts("novel 1023")).containsExactly("Novel 1023");
+        assertThat(texts("novel 1024")).isEmpty();
+        assertThat(index.suggest("author 1", 1).get(0).getBorrowCount()).isEqualTo(
+                IntStream.range(0, books).filter(i -> i % 2 == 1 && i % 7 == 1).asLongStream().sum());
+        assertThat(index.size()).isEqualTo(5 + books / 2);
+    }
+
+    @Test
+    void editsAndRemovalsFreeWhatTheyUsed() {
+        int baseline = index.nodeCount();
+        for (int round = 0; round < 3; round++) {
+            int r = round;
+            IntStream.range(0, 1_000).forEach(i -> index.index(book("e" + i, "Edition " + r + "-" + i, "Editor " + r, i)));
+            IntStream.range(0, 1_000).forEach(i -> index.index(book("e" + i, "Revised " + r + "-" + i, "Reviser " + r, i)));
+            IntStream.range(0, 1_000).forEach(i -> index.remove("e" + i));
+
+            assertThat(texts("edition")).isEmpty();
+            assertThat(texts("revis")).isEmpty();
+            assertThat(index.size()).isEqualTo(5);
+        }
+
+        assertThat(index.nodeCount()).isEqualTo(baseline);
+        assertThat(texts("h")).containsExactly(
+                "Harry Potter and the Philosopher's Stone", "The Hobbit", "The Hound of the Baskervilles",
+                "Victor Hugo");
+    }
+
+    @Test
+    void blankPrefixesSuggestNothing() {
+        assertThat(index.suggest("  ", 10)).isEmpty();
+        assertThat(index.suggest("!?", 10)).isEmpty();
+    }
+
+    private List<String> texts(String prefix) {
+        return texts(prefix, 10);
+    }
+
+    private List<String> texts(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream().map(Suggestion::getText).toList();
+    }
+
+    private static Book book(String id, String title, String author, long borrows) {
+        Book book = new Book(title, author, "isbn-" + id, null, 1950, "Fiction", null, 1);
+        book.setId(id);
+        book.setBorrowCount(borrows);
+        return book;
+    }
+}
@@ -5,7 +5,9 @@ import './LoanManagement.css';
 
 export default function LoanManagement() {
   const [loans, setLoans] = useState([]);
+  const [loansCursor, setLoansCursor] = useState(null);
   const [activeLoans, setActiveLoans] = useState([]);
+  const [activeCursor, setActiveCursor] = useState(null);
   const [overdueLoans, setOverdueLoans] = useState([]);
   const [userStats, setUserStats] = useState({});
   const [loading, setLoading] = useState(true);
@@ -25,16 +27,18 @@ export default function LoanManagement() {
       }
 
       // Load user's loans and statistics
-      const [loansResponse, activeResponse, overdueResponse, statsResponse] = await Promise.all([
+      const [loansResponse, activeResponse, overdue, statsResponse] = await Promise.all([
         loanService.getUserLoans(userId),
         loanService.getActiveLoans(),
-        loanService.getOverdueLoans(),
+        loanService.getAllOverdueLoans(),
         loanService.getUserStats(userId)
       ]);
 
-      setLoans(loansResponse.data);
-      setActiveLoans(activeResponse.data);
-      setOverdueLoans(overdueResponse.data);
+      setLoans(loansResponse.data.content);
+      setLoansCursor(loansResponse.data.nextCursor);
+      setActiveLoans(activeResponse.data.content);
+      setActiveCursor(activeResponse.data.nextCursor);
+      setOverdueLoans(overdue);
       setUserStats(statsResponse.data);
     } catch (error) {
       console.error('Error loading loan data:', error);
@@ -43,6 +47,27 @@ export default function LoanManagement() {
     }
   };
 
+  const loadMoreLoans = async () => {
+    try {
+      const userId = localStorage.getItem('userId');
+      const response = await loanService.getUserLoans(userId, loansCursor);
+      setLoans((previous) => [...previous, ...response.data.content]);
+      setLoansCursor(response.data.nextCursor);
+    } catch (error) {
+      console.error('Error loading more loans:', error);
+    }
+  };
+
+  const loadMoreActiveLoans = async () => {
+    try {
+      const response = await loanService.getActiveLoans(activeCursor);
+      setActiveLoans((previous) => [...previous, ...response.data.content]);
+      setActiveCursor(response.data.nextCursor);
+    } catch (error) {
+      console.error('Error loading more active loans:', error);
+    }
+  };
+
   const handleBorrowBook = async (bookId) => {
     try {
       // Check if user is authenticated
@@ -84,7 +109,12 @@ export default function LoanManagement() {
       alert('Book returned successfully!');
     } catch (error) {
       console.error('Error returning book:', error);
-      alert('Failed to return book. Please try again.');
+      if (error.response?.status === 409) {
+        loadUserData();
+        alert('This book has already been returned.');
+      } else {
+        alert('Failed to return book. Please try again.');
+      }
     }
   };
 
@@ -231,6 +261,11 @@ export default function LoanManagement() {
                 ))}
               </div>
             )}
+            {activeCursor && (
+              <button className="btn btn-load-more" onClick={loadMoreActiveLoans}>
+                Load more
+              </button>
+            )}
           </div>
         )}
 
@@ -280,6 +315,11 @@ export default function LoanManagement() {
                 </table>
               </div>
             )}
+            {loansCursor && (
+              <button className="btn btn-load-more" onClick={loadMoreLoans}>
+                Load more
+              </button>
+            )}
           </div>
         )}
 
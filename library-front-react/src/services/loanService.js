@@ -43,14 +43,28 @@ export const borrowBook = (borrowData) =>
 export const returnBook = (loanId) => 
   api.put(`/api/loans/return/${loanId}`);
 
-export const getUserLoans = (userId, page = 0, size = 10) => 
-  api.get(`/api/loans/user/${userId}?page=${page}&size=${size}`);
-
-export const getActiveLoans = (page = 0, size = 10) => 
-  api.get(`/api/loans/active?page=${page}&size=${size}`);
-
-export const getOverdueLoans = () => 
-  api.get('/api/loans/overdue');
+// Keyset-paginated listings: the response is { content, nextCursor, hasNext };
+// pass nextCursor back as cursor for the following page (omit it for the first)
+export const getUserLoans = (userId, cursor, size = 10) => 
+  api.get(`/api/loans/user/${userId}`, { params: { cursor, size } });
+
+export const getActiveLoans = (cursor, size = 10) => 
+  api.get('/api/loans/active', { params: { cursor, size } });
+
+export const getOverdueLoans = (cursor, size = 100) => 
+  api.get('/api/loans/overdue', { params: { cursor, size } });
+
+// Follows nextCursor to the last page and returns every overdue loan
+export const getAllOverdueLoans = async () => {
+  const overdueLoans = [];
+  let cursor;
+  do {
+    const response = await getOverdueLoans(cursor);
+    overdueLoans.push(...response.data.content);
+    cursor = response.data.nextCursor;
+  } while (cursor);
+  return overdueLoans;
+};
 
 export const getUserStats = (userId) => 
   api.get(`/api/loans/stats/${userId}`);
@@ -81,6 +95,7 @@ export default {
   getUserLoans,
   getActiveLoans,
   getOverdueLoans,
+  getAllOverdueLoans,
   getUserStats,
   getBookHistory,
   renewLoan,
@@ -1,8 +1,13 @@
 package com.esprit.ms.loanservice.controller;
 
+import com.esprit.ms.loanservice.dto.CursorPage;
+import com.esprit.ms.loanservice.dto.PopularBooks;
 import com.esprit.ms.loanservice.model.Borrowing;
 import com.esprit.ms.loanservice.repository.BorrowingRepository;
 import com.esprit.ms.loanservice.service.BorrowingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,15 +16,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/loans")
@@ -35,6 +38,9 @@ public class BorrowingController {
     @Autowired
     private BorrowingService borrowingService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @PostMapping("/borrow")
     @Operation(summary = "Borrow a book", description = "Create a new book borrowing record")
     @ApiResponses(value = {
@@ -45,19 +51,25 @@ public class BorrowingController {
     })
     public ResponseEntity<Borrowing> borrowBook(@RequestBody Borrowing borrowing) {
         log.info("Processing borrow request for user {} and book {}", borrowing.getUserId(), borrowing.getBookId());
-        
-        // Validate user exists
-        if (!borrowingService.validateUser(borrowing.getUserId())) {
-            return ResponseEntity.badRequest().build();
-        }
-        
-        // Validate book exists
-        if (!borrowingService.validateBook(borrowing.getBookId())) {
+        Timer.Sample total = Timer.start(meterRegistry);
+        
+        // Validate user and book concurrently; the duplicate check runs meanwhile on this thread
+        Timer.Sample step = Timer.start(meterRegistry);
+        CompletableFuture<Boolean> userValid = borrowingService.validateUserAsync(borrowing.getUserId());
+        CompletableFuture<Boolean> bookValid = borrowingService.validateBookAsync(borrowing.getBookId());
+        boolean alreadyBorrowed = borrowingService.isBookAlreadyBorrowed(borrowing.getUserId(), borrowing.getBookId());
+        step.stop(borrowStepTimer("duplicate-check"));
+        boolean valid = userValid.join() && bookValid.join();
+        step.stop(borrowStepTimer("validation"));
+        
+        if (!valid) {
+            total.stop(borrowTimer("rejected"));
             return ResponseEntity.badRequest().build();
         }
         
         // Check if user already has this book borrowed
-        if (borrowingService.isBookAlreadyBorrowed(borrowing.getUserId(), borrowing.getBookId())) {
+        if (alreadyBorrowed) {
+            total.stop(borrowTimer("conflict"));
             return ResponseEntity.status(409).build();
         }
         
@@ -65,10 +77,11 @@ public class BorrowingController {
         borrowing.setStatus("BORROWED");
         borrowing.setDueDate(LocalDate.now().plusDays(14)); // 2 weeks loan period
         
-        Borrowing savedBorrowing = repository.save(borrowing);
-        
-        // Notify gamification service
-        borrowingService.notifyGamificationService(borrowing.getUserId(), "BOOK_BORROWED");
+        // Saved together with its gamification event, which is sent asynchronously
+        step = Timer.start(meterRegistry);
+        Borrowing savedBorrowing = borrowingService.recordBorrowing(borrowing);
+        step.stop(borrowStepTimer("save"));
+        total.stop(borrowTimer("borrowed"));
         
         return ResponseEntity.ok(savedBorrowing);
     }
@@ -77,37 +90,38 @@ public class BorrowingController {
     @Operation(summary = "Return a book", description = "Mark a borrowed book as returned")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Book returned successfully"),
-        @ApiResponse(responseCode = "404", description = "Borrowing record not found")
+        @ApiResponse(responseCode = "404", description = "Borrowing record not found"),
+        @ApiResponse(responseCode = "409", description = "Book already returned")
     })
     public ResponseEntity<Borrowing> returnBook(@PathVariable Long id) {
         log.info("Processing return request for borrowing {}", id);
         
-        Borrowing borrowing = repository.findById(id).orElse(null);
-        if (borrowing == null) {
+        if (!repository.existsById(id)) {
+            countReturn("not-found");
             return ResponseEntity.notFound().build();
         }
         
-        borrowing.setReturnDate(LocalDate.now());
-        borrowing.setStatus("RETURNED");
-        
-        Borrowing updatedBorrowing = repository.save(borrowing);
-        
-        // Notify gamification service
-        borrowingService.notifyGamificationService(borrowing.getUserId(), "BOOK_RETURNED");
+        // Saved together with its gamification event, which is sent asynchronously
+        Borrowing updatedBorrowing = borrowingService.recordReturn(id).orElse(null);
+        if (updatedBorrowing == null) {
+            countReturn("already-returned");
+            return ResponseEntity.status(409).build();
+        }
+        countReturn("returned");
         
         return ResponseEntity.ok(updatedBorrowing);
     }
 
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get user borrowings", description = "Retrieve all borrowing records for a specific user")
-    public ResponseEntity<Page<Borrowing>> getUserBorrowings(
+    @Operation(summary = "Get user borrowings", description = "Retrieve borrowing records for a specific user, newest first, using cursor pagination")
+    public ResponseEntity<CursorPage<Borrowing>> getUserBorrowings(
             @Parameter(description = "User ID") @PathVariable Long userId,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         log.info("Fetching borrowings for user {}", userId);
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Borrowing> borrowings = repository.findByUserIdOrderByBorrowDateDesc(userId, pageable);
+        CursorPage<Borrowing> borrowings = borrowingService.getUserBorrowingsPage(userId, cursor, size, includeTotal);
         
         return ResponseEntity.ok(borrowings);
     }
@@ -122,27 +136,42 @@ public class BorrowingController {
     }
 
     @GetMapping("/active")
-    @Operation(summary = "Get active loans", description = "Retrieve all currently active borrowing records")
-    public ResponseEntity<Page<Borrowing>> getActiveLoans(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+    @Operation(summary = "Get active loans", description = "Retrieve loans still out (BORROWED or OVERDUE), newest first, using cursor pagination")
+    public ResponseEntity<CursorPage<Borrowing>> getActiveLoans(
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         log.info("Fetching active loans");
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Borrowing> activeLoans = repository.findByStatusOrderByBorrowDateDesc("BORROWED", pageable);
+        CursorPage<Borrowing> activeLoans = borrowingService.getActiveBorrowingsPage(cursor, size, includeTotal);
         
         return ResponseEntity.ok(activeLoans);
     }
 
     @GetMapping("/overdue")
-    @Operation(summary = "Get overdue loans", description = "Retrieve all overdue borrowing records")
-    public ResponseEntity<List<Borrowing>> getOverdueLoans() {
+    @Operation(summary = "Get overdue loans", description = "Retrieve loans marked OVERDUE by the background scanner, newest first, using cursor pagination")
+    public ResponseEntity<CursorPage<Borrowing>> getOverdueLoans(
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         log.info("Fetching overdue loans");
         
-        List<Borrowing> overdueLoans = repository.findOverdueLoans(LocalDate.now());
+        CursorPage<Borrowing> overdueLoans = borrowingService.getBorrowingsByStatusPage("OVERDUE", cursor, size, includeTotal);
+        
         return ResponseEntity.ok(overdueLoans);
     }
 
+    @GetMapping("/stats/popular")
+    @Operation(summary = "Get popular books", description = "Most borrowed books over the last 1, 7 or 30 days, from rolling in-memory counts")
+    public ResponseEntity<PopularBooks> getPopularBooks(
+            @Parameter(description = "Window length in days: 1, 7 or 30") @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Fetching popular books over {} days", days);
+        
+        PopularBooks popularBooks = borrowingService.getPopularBooks(days, limit);
+        return ResponseEntity.ok(popularBooks);
+    }
+
     @GetMapping("/stats/{userId}")
     @Operation(summary = "Get user borrowing statistics", description = "Retrieve borrowing statistics for a specific user")
     public ResponseEntity<Map<String, Object>> getUserBorrowingStats(@PathVariable Long userId) {
@@ -151,4 +180,34 @@ public class BorrowingController {
         Map<String, Object> stats = borrowingService.getUserBorrowingStats(userId);
         return ResponseEntity.ok(stats);
     }
+
+    // Both step timers start when the validations are sent, so "validation" is the wall time until both answered
+    private Timer borrowStepTimer(String step) {
+        return Timer.builder("loan.borrow.step")
+                .description("Time spent in each stage of a borrow request")
+                .tag("step", step)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private Timer borrowTimer(String outcome) {
+        return Timer.builder("loan.borrow")
+                .description("End-to-end borrow request time")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private void countReturn(String outcome) {
+        Counter.builder("loan.returns")
+                .description("Return requests by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
 }
@@ -0,0 +1,22 @@
+package com.esprit.ms.loanservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as
+ * the {@code cursor} parameter to fetch the following page.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private Long totalElements; // only computed when requested
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
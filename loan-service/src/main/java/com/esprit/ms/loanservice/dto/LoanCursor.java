@@ -0,0 +1,41 @@
+package com.esprit.ms.loanservice.dto;
+
+import com.esprit.ms.loanservice.model.Borrowing;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for loan listings ordered by
+ * (borrowDate DESC, id DESC): the key of the last row already returned.
+ */
+@Data
+@AllArgsConstructor
+public class LoanCursor {
+    private LocalDate borrowDate;
+    private Long id;
+
+    public static LoanCursor after(Borrowing borrowing) {
+        return new LoanCursor(borrowing.getBorrowDate(), borrowing.getId());
+    }
+
+    public String encode() {
+        String raw = borrowDate + "/" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static LoanCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('/');
+            return new LoanCursor(LocalDate.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
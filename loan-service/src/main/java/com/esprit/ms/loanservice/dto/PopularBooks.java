@@ -0,0 +1,30 @@
+package com.esprit.ms.loanservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Most borrowed books over the last {@code days} days, from {@code from} to
+ * {@code to} inclusive. Per-book counts are sketch estimates: they may
+ * overcount slightly but never undercount. The totals are exact.
+ */
+@Data
+@AllArgsConstructor
+public class PopularBooks {
+    private int days;
+    private LocalDate from;
+    private LocalDate to;
+    private long totalBorrowings;
+    private long totalReturns;
+    private List<Entry> books;
+
+    @Data
+    @AllArgsConstructor
+    public static class Entry {
+        private Long bookId;
+        private long borrowings;
+    }
+}
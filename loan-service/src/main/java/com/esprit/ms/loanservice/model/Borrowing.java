@@ -8,7 +8,16 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "borrowings")
+// Created by the Flyway migrations in db/migration; keep both in sync
+@Table(name = "borrowings", indexes = {
+        @Index(name = "idx_borrowings_user_borrow_date", columnList = "user_id, borrow_date, id"),
+        @Index(name = "idx_borrowings_status_borrow_date", columnList = "status, borrow_date, id"),
+        @Index(name = "idx_borrowings_status_due_date", columnList = "status, due_date, id"),
+        @Index(name = "idx_borrowings_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_borrowings_user_book_status", columnList = "user_id, book_id, status"),
+        @Index(name = "idx_borrowings_book_borrow_date", columnList = "book_id, borrow_date"),
+        @Index(name = "idx_borrowings_user_return_date", columnList = "user_id, return_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,7 +42,7 @@ public class Borrowing {
     private LocalDate returnDate;
     
     @Column(name = "status", nullable = false)
-    private String status; // BORROWED, RETURNED, OVERDUE
+    private String status; // BORROWED, RETURNED, OVERDUE (set by OverdueLoanScanner)
     
     @Column(name = "notes")
     private String notes;
@@ -45,12 +54,13 @@ public class Borrowing {
     private Double fineAmount = 0.0;
 
     // Helper methods
+    // Also true for loans that fell due since the last scan
     public boolean isOverdue() {
-        return "BORROWED".equals(status) && LocalDate.now().isAfter(dueDate);
+        return "OVERDUE".equals(status) || ("BORROWED".equals(status) && LocalDate.now().isAfter(dueDate));
     }
     
     public boolean isActive() {
-        return "BORROWED".equals(status);
+        return "BORROWED".equals(status) || "OVERDUE".equals(status);
     }
     
     public long getDaysOverdue() {
@@ -0,0 +1,52 @@
+package com.esprit.ms.loanservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending gamification notification, written in the same transaction as the
+ * borrowing change it describes and deleted once delivered. Events that can
+ * never be delivered are kept as FAILED.
+ */
+@Entity
+@Table(name = "gamification_outbox", indexes = {
+        @Index(name = "idx_gamification_outbox_status_next_attempt", columnList = "status, next_attempt_at, id")
+})
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "action", nullable = false)
+    private String action; // BOOK_BORROWED, BOOK_RETURNED, BOOK_OVERDUE
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status = "PENDING"; // PENDING, FAILED
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public OutboxEvent(Long userId, String action, LocalDateTime occurredAt) {
+        this.userId = userId;
+        this.action = action;
+        this.occurredAt = occurredAt;
+        this.nextAttemptAt = occurredAt;
+    }
+}
@@ -4,6 +4,7 @@ import com.esprit.ms.loanservice.model.Borrowing;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,12 +23,56 @@ public interface BorrowingRepository extends JpaRepository<Borrowing, Long> {
     List<Borrowing> findByBookIdOrderByBorrowDateDesc(Long bookId);
     
     Page<Borrowing> findByStatusOrderByBorrowDateDesc(String status, Pageable pageable);
+
+    // Keyset pages ordered by (borrowDate DESC, id DESC); pass PageRequest.of(0, limit) as the limit.
+    // The redundant borrowDate <= bound lets the planner range-scan the (.., borrow_date, id) index.
+    @Query("SELECT b FROM Borrowing b WHERE b.userId = :userId ORDER BY b.borrowDate DESC, b.id DESC")
+    List<Borrowing> findFirstPageByUserId(@Param("userId") Long userId, Pageable limit);
+
+    @Query("SELECT b FROM Borrowing b WHERE b.userId = :userId " +
+           "AND b.borrowDate <= :borrowDate AND (b.borrowDate < :borrowDate OR b.id < :id) " +
+           "ORDER BY b.borrowDate DESC, b.id DESC")
+    List<Borrowing> findPageByUserIdAfter(@Param("userId") Long userId,
+                                          @Param("borrowDate") LocalDate borrowDate,
+                                          @Param("id") Long id,
+                                          Pageable limit);
+
+    @Query("SELECT b FROM Borrowing b WHERE b.status = :status ORDER BY b.borrowDate DESC, b.id DESC")
+    List<Borrowing> findFirstPageByStatus(@Param("status") String status, Pageable limit);
+
+    @Query("SELECT b FROM Borrowing b WHERE b.status = :status " +
+           "AND b.borrowDate <= :borrowDate AND (b.borrowDate < :borrowDate OR b.id < :id) " +
+           "ORDER BY b.borrowDate DESC, b.id DESC")
+    List<Borrowing> findPageByStatusAfter(@Param("status") String status,
+                                          @Param("borrowDate") LocalDate borrowDate,
+                                          @Param("id") Long id,
+                                          Pageable limit);
+
+    Long countByStatus(String status);
+
+    // Active means still out, so OVERDUE loans page together with BORROWED ones
+    @Query("SELECT b FROM Borrowing b WHERE b.status IN ('BORROWED', 'OVERDUE') ORDER BY b.borrowDate DESC, b.id DESC")
+    List<Borrowing> findFirstPageActive(Pageable limit);
+
+    @Query("SELECT b FROM Borrowing b WHERE b.status IN ('BORROWED', 'OVERDUE') " +
+           "AND b.borrowDate <= :borrowDate AND (b.borrowDate < :borrowDate OR b.id < :id) " +
+           "ORDER BY b.borrowDate DESC, b.id DESC")
+    List<Borrowing> findPageActiveAfter(@Param("borrowDate") LocalDate borrowDate,
+                                        @Param("id") Long id,
+                                        Pageable limit);
+
+    @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.status IN ('BORROWED', 'OVERDUE')")
+    Long countActive();
     
-    @Query("SELECT b FROM Borrowing b WHERE b.userId = :userId AND b.bookId = :bookId AND b.status = 'BORROWED'")
+    // Overdue loans are still out, so they count as active
+    @Query("SELECT b FROM Borrowing b WHERE b.userId = :userId AND b.bookId = :bookId AND b.status IN ('BORROWED', 'OVERDUE')")
     Optional<Borrowing> findActiveBorrowingByUserAndBook(@Param("userId") Long userId, @Param("bookId") Long bookId);
     
-    @Query("SELECT b FROM Borrowing b WHERE b.status = 'BORROWED' AND b.dueDate < :currentDate")
-    List<Borrowing> findOverdueLoans(@Param("currentDate") LocalDate currentDate);
+    // Conditional, so only the first of repeated or concurrent returns changes the row (returns 1, then 0)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Borrowing b SET b.status = 'RETURNED', b.returnDate = :returnDate " +
+           "WHERE b.id = :id AND b.status <> 'RETURNED'")
+    int markReturned(@Param("id") Long id, @Param("returnDate") LocalDate returnDate);
     
     @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.userId = :userId")
     Long countByUserId(@Param("userId") Long userId);
@@ -35,7 +80,7 @@ public interface BorrowingRepository extends JpaRepository<Borrowing, Long> {
     @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.userId = :userId AND b.status = 'RETURNED'")
     Long countReturnedBooksByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.userId = :userId AND b.status = 'BORROWED'")
+    @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.userId = :userId AND b.status IN ('BORROWED', 'OVERDUE')")
     Long countActiveBorrowingsByUserId(@Param("userId") Long userId);
     
     @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.bookId = :bookId")
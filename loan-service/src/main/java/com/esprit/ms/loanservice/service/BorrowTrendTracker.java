@@ -0,0 +1,148 @@
+package com.esprit.ms.loanservice.service;
+
+import com.esprit.ms.loanservice.dto.PopularBooks;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Keeps the rolling borrow trends behind /api/loans/stats/popular.
+ * <p>
+ * Every borrow and return bumps one row per book and day in
+ * book_daily_activity, in the caller's transaction, and the in-memory
+ * {@link BorrowTrends} once that transaction commits. At startup the trends
+ * are rebuilt from the last 30 days of rows, so the cost depends on recent
+ * activity, not on the size of borrowings; older rows are trimmed hourly.
+ * Each instance only sees the borrows it records after it started, so with
+ * several instances the counts catch up on restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BorrowTrendTracker {
+
+    private static final String COUNT_BORROW = "INSERT INTO book_daily_activity " +
+            "(book_id, activity_date, borrow_count, return_count) VALUES (?, ?, 1, 0) " +
+            "ON DUPLICATE KEY UPDATE borrow_count = borrow_count + 1";
+    private static final String COUNT_RETURN = "INSERT INTO book_daily_activity " +
+            "(book_id, activity_date, borrow_count, return_count) VALUES (?, ?, 0, 1) " +
+            "ON DUPLICATE KEY UPDATE return_count = return_count + 1";
+    private static final String LOAD = "SELECT book_id, activity_date, borrow_count, return_count " +
+            "FROM book_daily_activity WHERE activity_date > ?";
+    private static final String TRIM = "DELETE FROM book_daily_activity WHERE activity_date <= ?";
+    private static final String CLEAR_RECENT = "DELETE FROM book_daily_activity WHERE activity_date > ?";
+    private static final String RECOUNT_RECENT = "INSERT INTO book_daily_activity " +
+            "(book_id, activity_date, borrow_count, return_count) " +
+            "SELECT book_id, activity_date, SUM(borrowed), SUM(returned) FROM (" +
+            "SELECT book_id, borrow_date AS activity_date, 1 AS borrowed, 0 AS returned " +
+            "FROM borrowings WHERE borrow_date > ? " +
+            "UNION ALL SELECT book_id, return_date, 0, 1 FROM borrowings WHERE return_date > ?" +
+            ") recent GROUP BY book_id, activity_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${loan.trends.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${loan.trends.sketch-width:8192}")
+    private int sketchWidth;
+
+    @Value("${loan.trends.max-limit:100}")
+    private int maxLimit;
+
+    private volatile BorrowTrends trends;
+
+    @PostConstruct
+    public void load() {
+        load(LocalDate.now());
+    }
+
+    /**
+     * Rebuilds the in-memory trends from the persisted daily counts, as of
+     * {@code today}.
+     */
+    public void load(LocalDate today) {
+        long start = System.nanoTime();
+        BorrowTrends loaded = new BorrowTrends(sketchDepth, sketchWidth, maxLimit, today);
+        jdbcTemplate.query(LOAD, row -> {
+            long bookId = row.getLong("book_id");
+            LocalDate day = row.getDate("activity_date").toLocalDate();
+            int borrows = row.getInt("borrow_count");
+            if (borrows > 0) {
+                loaded.recordBorrows(bookId, day, borrows);
+            }
+            loaded.recordReturns(day, row.getInt("return_count"));
+        }, Date.valueOf(today.minusDays(BorrowTrends.HISTORY_DAYS)));
+        trends = loaded;
+        log.info("Loaded borrow trends in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Counts a borrow of {@code bookId} on {@code day}; call inside the
+     * transaction that saves the loan.
+     */
+    public void recordBorrow(Long bookId, LocalDate day) {
+        jdbcTemplate.update(COUNT_BORROW, bookId, Date.valueOf(day));
+        afterCommit(() -> trends.recordBorrows(bookId, day, 1));
+    }
+
+    /**
+     * Counts a return of {@code bookId} on {@code day}; call inside the
+     * transaction that saves the return.
+     */
+    public void recordReturn(Long bookId, LocalDate day) {
+        jdbcTemplate.update(COUNT_RETURN, bookId, Date.valueOf(day));
+        afterCommit(() -> trends.recordReturns(day, 1));
+    }
+
+    public PopularBooks getPopularBooks(int days, int limit) {
+        return trends.popular(days, limit, LocalDate.now());
+    }
+
+    public long getBorrowings(Long bookId, int days) {
+        return trends.borrowings(bookId, days, LocalDate.now());
+    }
+
+    @Scheduled(fixedDelayString = "${loan.trends.trim-interval-ms:3600000}",
+            initialDelayString = "${loan.trends.trim-interval-ms:3600000}")
+    public void trimExpiredDays() {
+        int trimmed = jdbcTemplate.update(TRIM, Date.valueOf(LocalDate.now().minusDays(BorrowTrends.HISTORY_DAYS)));
+        if (trimmed > 0) {
+            log.info("Trimmed {} expired daily borrow counts", trimmed);
+        }
+    }
+
+    /**
+     * Recomputes the last 30 days of daily counts from borrowings, for loans
+     * written without going through BorrowingService (LoanSeeder), then
+     * reloads the trends. Scans borrowings, so keep it to offline use.
+     */
+    public void recountRecentDays(LocalDate today) {
+        Date since = Date.valueOf(today.minusDays(BorrowTrends.HISTORY_DAYS));
+        jdbcTemplate.update(CLEAR_RECENT, since);
+        jdbcTemplate.update(RECOUNT_RECENT, since, since);
+        load(today);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,209 @@
+package com.esprit.ms.loanservice.service;
+
+import com.esprit.ms.loanservice.dto.PopularBooks;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Rolling borrow counts per book over the last 1, 7 and 30 days, in memory
+ * and independent of the history size.
+ * <p>
+ * Each of the last 30 days has its own count-min sketch, and each window a
+ * sketch holding the sum of its days; when the date moves on, the days
+ * leaving a window are subtracted from it. Every window also keeps its
+ * heaviest books in a min-heap, re-scored on each borrow and each new day.
+ * Books that fall out of a heap come back on their next borrow, so the top
+ * list is approximate for books right at its edge; the heap holds twice as
+ * many books as can be requested to keep that edge away from the answer.
+ * <p>
+ * Days older than the history are ignored. Thread-safe.
+ */
+class BorrowTrends {
+
+    static final int HISTORY_DAYS = 30;
+    static final int[] WINDOWS = {1, 7, 30};
+
+    private final int maxLimit;
+    private final CountMinSketch[] daily = new CountMinSketch[HISTORY_DAYS];
+    private final long[] borrowsPerDay = new long[HISTORY_DAYS];
+    private final long[] returnsPerDay = new long[HISTORY_DAYS];
+    private final CountMinSketch[] windows = new CountMinSketch[WINDOWS.length];
+    private final HeavyHitters[] heavyHitters = new HeavyHitters[WINDOWS.length];
+    private LocalDate today;
+
+    BorrowTrends(int depth, int width, int maxLimit, LocalDate today) {
+        this.maxLimit = maxLimit;
+        this.today = today;
+        for (int day = 0; day < HISTORY_DAYS; day++) {
+            daily[day] = new CountMinSketch(depth, width);
+        }
+        for (int w = 0; w < WINDOWS.length; w++) {
+            windows[w] = new CountMinSketch(depth, width);
+            heavyHitters[w] = new HeavyHitters(2 * maxLimit);
+        }
+    }
+
+    synchronized void recordBorrows(long bookId, LocalDate day, int count) {
+        advanceTo(day);
+        long age = age(day);
+        if (age >= HISTORY_DAYS) {
+            return;
+        }
+        daily[slot(day)].add(bookId, count);
+        borrowsPerDay[slot(day)] += count;
+        for (int w = 0; w < WINDOWS.length; w++) {
+            if (age < WINDOWS[w]) {
+                windows[w].add(bookId, count);
+                heavyHitters[w].offer(bookId, windows[w].estimate(bookId));
+            }
+        }
+    }
+
+    synchronized void recordReturns(LocalDate day, int count) {
+        advanceTo(day);
+        if (age(day) < HISTORY_DAYS) {
+            returnsPerDay[slot(day)] += count;
+        }
+    }
+
+    synchronized long borrowings(long bookId, int days, LocalDate asOf) {
+        advanceTo(asOf);
+        return windows[window(days)].estimate(bookId);
+    }
+
+    synchronized PopularBooks popular(int days, int limit, LocalDate asOf) {
+        int w = window(days);
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        advanceTo(asOf);
+        long borrows = 0;
+        long returns = 0;
+        for (int age = 0; age < days; age++) {
+            borrows += borrowsPerDay[slot(today.minusDays(age))];
+            returns += returnsPerDay[slot(today.minusDays(age))];
+        }
+        return new PopularBooks(days, today.minusDays(days - 1), today, borrows, returns,
+                heavyHitters[w].top(limit));
+    }
+
+    static int window(int days) {
+        for (int w = 0; w < WINDOWS.length; w++) {
+            if (WINDOWS[w] == days) {
+                return w;
+            }
+        }
+        throw new IllegalArgumentException("Window must be 1, 7 or 30 days");
+    }
+
+    // Moves the windows forward to day; earlier days leave them unchanged
+    private void advanceTo(LocalDate day) {
+        if (!day.isAfter(today)) {
+            return;
+        }
+        if (age(day) <= -HISTORY_DAYS) {
+            // Nothing recorded is recent enough to stay
+            for (int slot = 0; slot < HISTORY_DAYS; slot++) {
+                daily[slot].clear();
+            }
+            for (CountMinSketch window : windows) {
+                window.clear();
+            }
+            Arrays.fill(borrowsPerDay, 0);
+            Arrays.fill(returnsPerDay, 0);
+        } else {
+            for (LocalDate next = today.plusDays(1); !next.isAfter(day); next = next.plusDays(1)) {
+                for (int w = 0; w < WINDOWS.length; w++) {
+                    // The day leaving window w; for the 30-day window it is the slot the new day reuses
+                    windows[w].addAll(daily[slot(next.minusDays(WINDOWS[w]))], -1);
+                }
+                daily[slot(next)].clear();
+                borrowsPerDay[slot(next)] = 0;
+                returnsPerDay[slot(next)] = 0;
+            }
+        }
+        today = day;
+        for (int w = 0; w < WINDOWS.length; w++) {
+            heavyHitters[w].rescore(windows[w]);
+        }
+    }
+
+    private long age(LocalDate day) {
+        return ChronoUnit.DAYS.between(day, today);
+    }
+
+    private static int slot(LocalDate day) {
+        return Math.floorMod(day.toEpochDay(), HISTORY_DAYS);
+    }
+
+    /**
+     * The books with the highest estimates seen so far, in a min-heap so the
+     * weakest one is evicted when a heavier book comes in.
+     */
+    private static final class HeavyHitters {
+
+        private static final Comparator<Candidate> LIGHTEST_FIRST =
+                Comparator.comparingInt(Candidate::estimate).thenComparing(Candidate::bookId, Comparator.reverseOrder());
+
+        private final int capacity;
+        private final Map<Long, Candidate> members = new HashMap<>();
+        private final PriorityQueue<Candidate> heap = new PriorityQueue<>(LIGHTEST_FIRST);
+
+        HeavyHitters(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(long bookId, int estimate) {
+            Candidate current = members.get(bookId);
+            if (current != null) {
+                heap.remove(current);
+            } else if (members.size() >= capacity) {
+                if (LIGHTEST_FIRST.compare(new Candidate(bookId, estimate), heap.peek()) <= 0) {
+                    return;
+                }
+                members.remove(heap.poll().bookId());
+            }
+            Candidate candidate = new Candidate(bookId, estimate);
+            members.put(bookId, candidate);
+            heap.add(candidate);
+        }
+
+        // Books whose borrows all left the window are dropped
+        void rescore(CountMinSketch window) {
+            List<Candidate> rescored = new ArrayList<>(members.size());
+            for (Candidate candidate : members.values()) {
+                int estimate = window.estimate(candidate.bookId());
+                if (estimate > 0) {
+                    rescored.add(new Candidate(candidate.bookId(), estimate));
+                }
+            }
+            members.clear();
+            heap.clear();
+            for (Candidate candidate : rescored) {
+                members.put(candidate.bookId(), candidate);
+                heap.add(candidate);
+            }
+        }
+
+        List<PopularBooks.Entry> top(int limit) {
+            List<Candidate> sorted = new ArrayList<>(members.values());
+            sorted.sort(LIGHTEST_FIRST.reversed());
+            List<PopularBooks.Entry> top = new ArrayList<>(Math.min(limit, sorted.size()));
+            for (Candidate candidate : sorted.subList(0, Math.min(limit, sorted.size()))) {
+                top.add(new PopularBooks.Entry(candidate.bookId(), candidate.estimate()));
+            }
+            return top;
+        }
+    }
+
+    private record Candidate(long bookId, int estimate) {
+    }
+}
@@ -1,24 +1,47 @@
 package com.esprit.ms.loanservice.service;
 
+import com.esprit.ms.loanservice.dto.CursorPage;
+import com.esprit.ms.loanservice.dto.LoanCursor;
+import com.esprit.ms.loanservice.dto.PopularBooks;
+import com.esprit.ms.loanservice.model.Borrowing;
+import com.esprit.ms.loanservice.model.OutboxEvent;
 import com.esprit.ms.loanservice.repository.BorrowingRepository;
+import com.esprit.ms.loanservice.repository.OutboxEventRepository;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BorrowingService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final BorrowingRepository borrowingRepository;
+    private final OutboxEventRepository outboxEventRepository;
     private final RestTemplate restTemplate;
+    private final InterServiceCalls interServiceCalls;
+    private final ValidationResultCache validationCache;
+    private final ExecutorService validationExecutor;
+    private final BorrowTrendTracker borrowTrendTracker;
 
     @Value("${USER_SERVICE_URL:http://localhost:8081}")
     private String userServiceUrl;
@@ -26,20 +49,24 @@ public class BorrowingService {
     @Value("${BOOKS_SERVICE_URL:http://localhost:8085}")
     private String booksServiceUrl;
 
-    @Value("${GAMIFICATION_SERVICE_URL:http://localhost:3000}")
-    private String gamificationServiceUrl;
-
     /**
      * Validate if user exists by calling user-service
      */
     public boolean validateUser(Long userId) {
+        Boolean cached = validationCache.getUser(userId);
+        if (cached != null) {
+            return cached;
+        }
         try {
             String url = userServiceUrl + "/api/user/validate/" + userId;
-            Boolean result = restTemplate.getForObject(url, Boolean.class);
-            return result != null && result;
-        } catch (RestClientException e) {
+            Boolean result = interServiceCalls.call(InterServiceCalls.USER_SERVICE,
+                    () -> restTemplate.getForObject(url, Boolean.class));
+            boolean valid = result != null && result;
+            validationCache.putUser(userId, valid);
+            return valid;
+        } catch (RestClientException | CallNotPermittedException | BulkheadFullException e) {
             log.warn("Failed to validate user {}: {}", userId, e.getMessage());
-            // In case of service unavailability, allow the operation (fail-open)
+            // In case of service unavailability (or an open breaker), allow the operation (fail-open)
             return true;
         }
     }
@@ -48,17 +75,38 @@ public class BorrowingService {
      * Validate if book exists by calling books-management-service
      */
     public boolean validateBook(Long bookId) {
+        Boolean cached = validationCache.getBook(bookId);
+        if (cached != null) {
+            return cached;
+        }
         try {
             String url = booksServiceUrl + "/api/books/validate/" + bookId;
-            Boolean result = restTemplate.getForObject(url, Boolean.class);
-            return result != null && result;
-        } catch (RestClientException e) {
+            Boolean result = interServiceCalls.call(InterServiceCalls.BOOKS_SERVICE,
+                    () -> restTemplate.getForObject(url, Boolean.class));
+            boolean valid = result != null && result;
+            validationCache.putBook(bookId, valid);
+            return valid;
+        } catch (RestClientException | CallNotPermittedException | BulkheadFullException e) {
             log.warn("Failed to validate book {}: {}", bookId, e.getMessage());
-            // In case of service unavailability, allow the operation (fail-open)
+            // In case of service unavailability (or an open breaker), allow the operation (fail-open)
             return true;
         }
     }
 
+    /**
+     * Run validateUser on the validation pool so it overlaps with other checks
+     */
+    public CompletableFuture<Boolean> validateUserAsync(Long userId) {
+        return CompletableFuture.supplyAsync(() -> validateUser(userId), validationExecutor);
+    }
+
+    /**
+     * Run validateBook on the validation pool so it overlaps with other checks
+     */
+    public CompletableFuture<Boolean> validateBookAsync(Long bookId) {
+        return CompletableFuture.supplyAsync(() -> validateBook(bookId), validationExecutor);
+    }
+
     /**
      * Check if the book is already borrowed by the user
      */
@@ -67,23 +115,35 @@ public class BorrowingService {
     }
 
     /**
-     * Notify gamification service about user actions
+     * Save a new loan, count it in the borrow trends and queue its gamification event in one transaction
      */
-    public void notifyGamificationService(Long userId, String action) {
-        try {
-            String url = gamificationServiceUrl + "/api/achievements/user-action";
-            
-            Map<String, Object> actionData = new HashMap<>();
-            actionData.put("userId", userId);
-            actionData.put("action", action);
-            actionData.put("timestamp", LocalDate.now());
-            
-            restTemplate.postForObject(url, actionData, Object.class);
-            log.info("Notified gamification service about action {} for user {}", action, userId);
-        } catch (RestClientException e) {
-            log.warn("Failed to notify gamification service: {}", e.getMessage());
-            // Non-critical failure, continue operation
+    @Transactional
+    public Borrowing recordBorrowing(Borrowing borrowing) {
+        Borrowing savedBorrowing = borrowingRepository.save(borrowing);
+        borrowTrendTracker.recordBorrow(savedBorrowing.getBookId(), savedBorrowing.getBorrowDate());
+        enqueueGamificationEvent(savedBorrowing.getUserId(), "BOOK_BORROWED");
+        return savedBorrowing;
+    }
+
+    /**
+     * Mark a loan as returned, count it in the borrow trends and queue its gamification event in one transaction.
+     * Empty when the loan does not exist or was already returned; nothing is recorded again in that case.
+     */
+    @Transactional
+    public Optional<Borrowing> recordReturn(Long borrowingId) {
+        LocalDate today = LocalDate.now();
+        if (borrowingRepository.markReturned(borrowingId, today) == 0) {
+            return Optional.empty();
         }
+        Borrowing returnedBorrowing = borrowingRepository.findById(borrowingId).orElseThrow();
+        borrowTrendTracker.recordReturn(returnedBorrowing.getBookId(), today);
+        enqueueGamificationEvent(returnedBorrowing.getUserId(), "BOOK_RETURNED");
+        return Optional.of(returnedBorrowing);
+    }
+
+    // Delivered later by GamificationOutboxDispatcher, outside the request path
+    private void enqueueGamificationEvent(Long userId, String action) {
+        outboxEventRepository.save(new OutboxEvent(userId, action, LocalDateTime.now()));
     }
 
     /**
@@ -106,6 +166,67 @@ public class BorrowingService {
         return stats;
     }
 
+    /**
+     * Keyset page of a user's borrowings, newest first
+     */
+    public CursorPage<Borrowing> getUserBorrowingsPage(Long userId, String cursor, int size, boolean includeTotal) {
+        Pageable limit = pageLimit(size);
+        List<Borrowing> rows;
+        if (cursor == null) {
+            rows = borrowingRepository.findFirstPageByUserId(userId, limit);
+        } else {
+            LoanCursor after = LoanCursor.decode(cursor);
+            rows = borrowingRepository.findPageByUserIdAfter(userId, after.getBorrowDate(), after.getId(), limit);
+        }
+        return toPage(rows, size, includeTotal ? borrowingRepository.countByUserId(userId) : null);
+    }
+
+    /**
+     * Keyset page of borrowings in the given status, newest first
+     */
+    public CursorPage<Borrowing> getBorrowingsByStatusPage(String status, String cursor, int size, boolean includeTotal) {
+        Pageable limit = pageLimit(size);
+        List<Borrowing> rows;
+        if (cursor == null) {
+            rows = borrowingRepository.findFirstPageByStatus(status, limit);
+        } else {
+            LoanCursor after = LoanCursor.decode(cursor);
+            rows = borrowingRepository.findPageByStatusAfter(status, after.getBorrowDate(), after.getId(), limit);
+        }
+        return toPage(rows, size, includeTotal ? borrowingRepository.countByStatus(status) : null);
+    }
+
+    /**
+     * Keyset page of loans still out (BORROWED or OVERDUE), newest first
+     */
+    public CursorPage<Borrowing> getActiveBorrowingsPage(String cursor, int size, boolean includeTotal) {
+        Pageable limit = pageLimit(size);
+        List<Borrowing> rows;
+        if (cursor == null) {
+            rows = borrowingRepository.findFirstPageActive(limit);
+        } else {
+            LoanCursor after = LoanCursor.decode(cursor);
+            rows = borrowingRepository.findPageActiveAfter(after.getBorrowDate(), after.getId(), limit);
+        }
+        return toPage(rows, size, includeTotal ? borrowingRepository.countActive() : null);
+    }
+
+    // One extra row tells us whether another page exists without a count query
+    private Pageable pageLimit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    private CursorPage<Borrowing> toPage(List<Borrowing> rows, int size, Long total) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, total);
+        }
+        List<Borrowing> content = rows.subList(0, size);
+        return new CursorPage<>(content, LoanCursor.after(content.get(size - 1)).encode(), total);
+    }
+
     /**
      * Get book popularity statistics
      */
@@ -113,7 +234,17 @@ public class BorrowingService {
         Map<String, Object> stats = new HashMap<>();
         
         stats.put("totalBorrowings", borrowingRepository.countByBookId(bookId));
+        stats.put("borrowingsLastDay", borrowTrendTracker.getBorrowings(bookId, 1));
+        stats.put("borrowingsLast7Days", borrowTrendTracker.getBorrowings(bookId, 7));
+        stats.put("borrowingsLast30Days", borrowTrendTracker.getBorrowings(bookId, 30));
         
         return stats;
     }
+
+    /**
+     * Most borrowed books over the last 1, 7 or 30 days, without touching borrowings
+     */
+    public PopularBooks getPopularBooks(int days, int limit) {
+        return borrowTrendTracker.getPopularBooks(days, limit);
+    }
 }
@@ -0,0 +1,61 @@
+package com.esprit.ms.loanservice.service;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch of per-book counts: {@code depth} rows of {@code width}
+ * counters, each row hashed independently. An estimate never undercounts,
+ * and overcounts by at most e / width of the total with probability
+ * 1 - e^-depth. Sketches of the same shape add and subtract counter by
+ * counter, which is what lets BorrowTrends slide its windows by whole days.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final int[] counters;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Sketch width must be a power of two and depth at least 1, got "
+                    + depth + " x " + width);
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new int[depth * width];
+    }
+
+    void add(long key, int count) {
+        for (int row = 0; row < depth; row++) {
+            counters[index(row, key)] += count;
+        }
+    }
+
+    int estimate(long key) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[index(row, key)]);
+        }
+        return min;
+    }
+
+    // sign = 1 merges other into this sketch, sign = -1 takes it back out
+    void addAll(CountMinSketch other, int sign) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += sign * other.counters[i];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    private int index(int row, long key) {
+        // SplitMix64 finalizer over the key salted per row
+        long h = key + (row + 1) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return row * (mask + 1) + ((int) h & mask);
+    }
+}
@@ -0,0 +1,157 @@
+package com.esprit.ms.loanservice.service;
+
+import com.esprit.ms.loanservice.model.OutboxEvent;
+import com.esprit.ms.loanservice.repository.OutboxEventRepository;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the gamification outbox in the background. Delivery is
+ * at-least-once: an event is deleted only after the gamification service
+ * accepted it, so a crash between the two resends it (with the same eventId).
+ * Failed events are retried with exponential backoff. An event the service
+ * rejects with a 4xx (other than 408 and 429), or still undelivered after
+ * max-attempts, is marked FAILED and no longer polled; it is never deleted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GamificationOutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RestTemplate restTemplate;
+    private final InterServiceCalls interServiceCalls;
+
+    @Value("${GAMIFICATION_SERVICE_URL:http://localhost:3000}")
+    private String gamificationServiceUrl;
+
+    @Value("${gamification.outbox.events-path:/events}")
+    private String eventsPath;
+
+    @Value("${gamification.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${gamification.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${gamification.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${gamification.outbox.max-attempts:20}")
+    private int maxAttempts;
+
+    /**
+     * Sends due events until the outbox is empty or a delivery fails;
+     * returns the number delivered.
+     */
+    @Scheduled(fixedDelayString = "${gamification.outbox.poll-interval-ms:1000}",
+            initialDelayString = "${gamification.outbox.poll-interval-ms:1000}")
+    public int dispatchDueEvents() {
+        int delivered = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findDueEvents(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            for (OutboxEvent event : batch) {
+                Delivery delivery = deliver(event);
+                if (delivery == Delivery.RETRY) {
+                    // The service is most likely down; leave the rest for the next poll
+                    return delivered;
+                }
+                if (delivery == Delivery.DELIVERED) {
+                    delivered++;
+                }
+            }
+        } while (batch.size() == batchSize);
+        return delivered;
+    }
+
+    private Delivery deliver(OutboxEvent event) {
+        try {
+            // CreateEventDto of the gamification service's POST /events
+            Map<String, Object> eventData = new HashMap<>();
+            eventData.put("eventId", event.getId());
+            eventData.put("action", event.getAction());
+            eventData.put("occurredAt", event.getOccurredAt().toString());
+            Map<String, Object> body = new HashMap<>();
+            body.put("userId", String.valueOf(event.getUserId()));
+            body.put("eventType", "progress_increment");
+            body.put("description", "Loan action " + event.getAction());
+            body.put("eventData", eventData);
+
+            interServiceCalls.call(InterServiceCalls.GAMIFICATION_SERVICE, () -> restTemplate.postForObject(
+                    gamificationServiceUrl + eventsPath, body, Object.class));
+            outboxEventRepository.delete(event);
+            log.info("Notified gamification service about action {} for user {}", event.getAction(), event.getUserId());
+            return Delivery.DELIVERED;
+        } catch (HttpClientErrorException e) {
+            if (isRetryable(e)) {
+                return retryLater(event, e);
+            }
+            // Sending the same request again would get the same answer
+            event.setAttempts(event.getAttempts() + 1);
+            fail(event, e);
+            return Delivery.FAILED;
+        } catch (RestClientException | CallNotPermittedException | BulkheadFullException e) {
+            return retryLater(event, e);
+        }
+    }
+
+    private Delivery retryLater(OutboxEvent event, RuntimeException e) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            fail(event, e);
+            return Delivery.RETRY;
+        }
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        event.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs * 1_000_000));
+        event.setLastError(abbreviate(e.getMessage()));
+        outboxEventRepository.save(event);
+        log.warn("Failed to notify gamification service (event {}, attempt {}), retrying in {} ms: {}",
+                event.getId(), attempts, backoffMs, e.getMessage());
+        return Delivery.RETRY;
+    }
+
+    private void fail(OutboxEvent event, RuntimeException e) {
+        event.setStatus("FAILED");
+        event.setLastError(abbreviate(e.getMessage()));
+        outboxEventRepository.save(event);
+        log.error("Giving up on gamification event {} ({} for user {}) after {} attempts: {}",
+                event.getId(), event.getAction(), event.getUserId(), event.getAttempts(), e.getMessage());
+    }
+
+    private static boolean isRetryable(HttpClientErrorException e) {
+        return e.getStatusCode().isSameCodeAs(HttpStatus.REQUEST_TIMEOUT)
+                || e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null || message.length() <= 500) {
+            return message;
+        }
+        return message.substring(0, 500);
+    }
+
+    private enum Delivery {
+        DELIVERED,
+        // Rejected for good or out of attempts; marked FAILED
+        FAILED,
+        // Not delivered this time; stop polling until the next run
+        RETRY
+    }
+}
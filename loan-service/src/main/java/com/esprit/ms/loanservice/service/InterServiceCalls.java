@@ -0,0 +1,54 @@
+package com.esprit.ms.loanservice.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Guards every call to another service with a bulkhead and a circuit
+ * breaker named after that service. Both are configured under
+ * resilience4j.bulkhead / resilience4j.circuitbreaker and exported as
+ * resilience4j.* metrics.
+ * <p>
+ * Rejected calls fail fast: CallNotPermittedException while the breaker is
+ * open, BulkheadFullException when the service already has its maximum of
+ * calls in flight. The bulkhead wraps the breaker, so its rejections do not
+ * count as failures of the service.
+ */
+@Component
+public class InterServiceCalls {
+
+    public static final String USER_SERVICE = "user-service";
+    public static final String BOOKS_SERVICE = "books-management-service";
+    public static final String GAMIFICATION_SERVICE = "gamification-service";
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+
+    @Autowired
+    public InterServiceCalls(ObjectProvider<CircuitBreakerRegistry> circuitBreakers,
+                             ObjectProvider<BulkheadRegistry> bulkheads) {
+        this(circuitBreakers.getIfAvailable(CircuitBreakerRegistry::ofDefaults),
+                bulkheads.getIfAvailable(BulkheadRegistry::ofDefaults));
+    }
+
+    public InterServiceCalls(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+    }
+
+    public <T> T call(String service, Supplier<T> request) {
+        Supplier<T> guarded = CircuitBreaker.decorateSupplier(circuitBreakers.circuitBreaker(service), request);
+        return Bulkhead.decorateSupplier(bulkheads.bulkhead(service), guarded).get();
+    }
+
+    public CircuitBreaker.State state(String service) {
+        return circuitBreakers.circuitBreaker(service).getState();
+    }
+}
@@ -0,0 +1,114 @@
+package com.esprit.ms.loanservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves BORROWED loans past their due date to OVERDUE in the background, so
+ * that /api/loans/overdue is a plain indexed lookup on status.
+ * <p>
+ * Candidates are read in chunks, keyset-paged on (due_date, id) over the
+ * (status, due_date, id) index. Each chunk is updated with one JDBC batch and
+ * queues one BOOK_OVERDUE outbox event per loan in the same transaction; the
+ * events are then delivered by GamificationOutboxDispatcher. A loan returned
+ * while the scan runs is left alone, since the update only matches BORROWED rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OverdueLoanScanner {
+
+    private static final String FIRST_CHUNK = "SELECT id, user_id, due_date FROM borrowings " +
+            "WHERE status = 'BORROWED' AND due_date < ? ORDER BY due_date, id LIMIT ?";
+    private static final String NEXT_CHUNK = "SELECT id, user_id, due_date FROM borrowings " +
+            "WHERE status = 'BORROWED' AND due_date < ? AND due_date >= ? AND (due_date > ? OR id > ?) " +
+            "ORDER BY due_date, id LIMIT ?";
+    private static final String MARK_OVERDUE =
+            "UPDATE borrowings SET status = 'OVERDUE' WHERE id = ? AND status = 'BORROWED'";
+    private static final String QUEUE_EVENT = "INSERT INTO gamification_outbox " +
+            "(user_id, action, occurred_at, status, attempts, next_attempt_at) VALUES (?, 'BOOK_OVERDUE', ?, 'PENDING', 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${loan.overdue.chunk-size:500}")
+    private int chunkSize;
+
+    @Scheduled(fixedDelayString = "${loan.overdue.scan-interval-ms:300000}",
+            initialDelayString = "${loan.overdue.initial-delay-ms:10000}")
+    public void scheduledScan() {
+        long start = System.nanoTime();
+        int marked = markOverdueLoans(LocalDate.now());
+        meterRegistry.counter("loan.overdue.marked").increment(marked);
+        if (marked > 0) {
+            log.info("Marked {} loans as overdue in {} ms", marked, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Marks every BORROWED loan due before {@code today} as OVERDUE;
+     * returns the number of loans that changed status.
+     */
+    public int markOverdueLoans(LocalDate today) {
+        int marked = 0;
+        List<OverdueLoan> chunk = jdbcTemplate.query(FIRST_CHUNK, OverdueLoanScanner::toLoan,
+                Date.valueOf(today), chunkSize);
+        while (!chunk.isEmpty()) {
+            List<OverdueLoan> candidates = chunk;
+            marked += transactionTemplate.execute(status -> markChunk(candidates));
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            OverdueLoan last = chunk.get(chunk.size() - 1);
+            chunk = jdbcTemplate.query(NEXT_CHUNK, OverdueLoanScanner::toLoan, Date.valueOf(today),
+                    Date.valueOf(last.dueDate()), Date.valueOf(last.dueDate()), last.id(), chunkSize);
+        }
+        return marked;
+    }
+
+    private int markChunk(List<OverdueLoan> candidates) {
+        int[] updated = jdbcTemplate.batchUpdate(MARK_OVERDUE, candidates, candidates.size(),
+                (statement, loan) -> statement.setLong(1, loan.id()))[0];
+        List<OverdueLoan> marked = new ArrayList<>(candidates.size());
+        for (int i = 0; i < updated.length; i++) {
+            // Drivers that rewrite batches report SUCCESS_NO_INFO instead of a row count
+            if (updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO) {
+                marked.add(candidates.get(i));
+            }
+        }
+        if (marked.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(QUEUE_EVENT, marked, marked.size(), (statement, loan) -> {
+            statement.setLong(1, loan.userId());
+            statement.setTimestamp(2, now);
+            statement.setTimestamp(3, now);
+        });
+        return marked.size();
+    }
+
+    private static OverdueLoan toLoan(ResultSet row, int rowNum) throws SQLException {
+        return new OverdueLoan(row.getLong("id"), row.getLong("user_id"), row.getDate("due_date").toLocalDate());
+    }
+
+    private record OverdueLoan(long id, long userId, LocalDate dueDate) {
+    }
+}
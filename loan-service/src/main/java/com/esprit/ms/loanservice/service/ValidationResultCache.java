@@ -0,0 +1,70 @@
+package com.esprit.ms.loanservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived memo of user/book existence checks. Hits are kept longer than
+ * misses so a newly created user or book becomes borrowable quickly.
+ * Fail-open answers (remote service unreachable) must not be stored here.
+ * Hits and misses are published as the "validationResults" cache metrics.
+ */
+@Component
+public class ValidationResultCache implements MeterBinder {
+
+    private final Cache<String, Boolean> cache;
+
+    public ValidationResultCache(@Value("${loan.validation.cache.positive-ttl:60s}") Duration positiveTtl,
+                                 @Value("${loan.validation.cache.negative-ttl:10s}") Duration negativeTtl,
+                                 @Value("${loan.validation.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(String key, Boolean valid, long currentTime) {
+                        return (valid ? positiveTtl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Boolean valid, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, valid, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Boolean valid, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "validationResults");
+    }
+
+    public Boolean getUser(Long userId) {
+        return cache.getIfPresent("user:" + userId);
+    }
+
+    public void putUser(Long userId, boolean valid) {
+        cache.put("user:" + userId, valid);
+    }
+
+    public Boolean getBook(Long bookId) {
+        return cache.getIfPresent("book:" + bookId);
+    }
+
+    public void putBook(Long bookId, boolean valid) {
+        cache.put("book:" + bookId, valid);
+    }
+}
@@ -0,0 +1,28 @@
+-- Schema as previously created by ddl-auto=update. IF NOT EXISTS keeps this
+-- a no-op on databases that already have the tables, so indexes go in the
+-- later migrations, which run everywhere.
+
+CREATE TABLE IF NOT EXISTS borrowings (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id       BIGINT       NOT NULL,
+    book_id       BIGINT       NOT NULL,
+    borrow_date   DATE         NOT NULL,
+    due_date      DATE         NOT NULL,
+    return_date   DATE,
+    status        VARCHAR(255) NOT NULL,
+    notes         VARCHAR(255),
+    renewal_count INT          NOT NULL,
+    fine_amount   DOUBLE,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS gamification_outbox (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id         BIGINT       NOT NULL,
+    action          VARCHAR(255) NOT NULL,
+    occurred_at     DATETIME(6)  NOT NULL,
+    attempts        INT          NOT NULL,
+    next_attempt_at DATETIME(6)  NOT NULL,
+    last_error      VARCHAR(500),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,13 @@
+-- Composite indexes for the BorrowingRepository lookups that had none
+
+-- countActiveBorrowingsByUserId, countReturnedBooksByUserId
+CREATE INDEX idx_borrowings_user_status ON borrowings (user_id, status);
+
+-- findActiveBorrowingByUserAndBook (duplicate-borrow check)
+CREATE INDEX idx_borrowings_user_book_status ON borrowings (user_id, book_id, status);
+
+-- findByBookIdOrderByBorrowDateDesc, countByBookId
+CREATE INDEX idx_borrowings_book_borrow_date ON borrowings (book_id, borrow_date);
+
+-- findUserBorrowingsBetweenDates
+CREATE INDEX idx_borrowings_user_return_date ON borrowings (user_id, return_date);
@@ -0,0 +1,21 @@
+-- Borrows and returns per book and day, trimmed to the last 30 days by
+-- BorrowTrendTracker, which rebuilds its rolling windows from it at startup
+
+CREATE TABLE book_daily_activity (
+    book_id       BIGINT NOT NULL,
+    activity_date DATE   NOT NULL,
+    borrow_count  INT    NOT NULL,
+    return_count  INT    NOT NULL,
+    PRIMARY KEY (book_id, activity_date),
+    INDEX idx_book_daily_activity_date (activity_date)
+) ENGINE = InnoDB;
+
+-- Existing loans of the last 30 days
+INSERT INTO book_daily_activity (book_id, activity_date, borrow_count, return_count)
+SELECT book_id, activity_date, SUM(borrowed), SUM(returned) FROM (
+    SELECT book_id, borrow_date AS activity_date, 1 AS borrowed, 0 AS returned
+    FROM borrowings WHERE borrow_date > CURRENT_DATE - INTERVAL '30' DAY
+    UNION ALL
+    SELECT book_id, return_date, 0, 1
+    FROM borrowings WHERE return_date > CURRENT_DATE - INTERVAL '30' DAY
+) recent GROUP BY book_id, activity_date;
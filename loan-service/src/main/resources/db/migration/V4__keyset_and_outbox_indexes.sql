@@ -0,0 +1,14 @@
+-- Indexes that V1 used to declare inline, where databases baselined from
+-- ddl-auto=update never got them
+
+-- findFirstPageByUserId, findPageByUserIdAfter
+CREATE INDEX idx_borrowings_user_borrow_date ON borrowings (user_id, borrow_date, id);
+
+-- findFirstPageByStatus, findPageByStatusAfter
+CREATE INDEX idx_borrowings_status_borrow_date ON borrowings (status, borrow_date, id);
+
+-- OverdueLoanScanner chunks
+CREATE INDEX idx_borrowings_status_due_date ON borrowings (status, due_date, id);
+
+-- OutboxEventRepository.findDueEvents
+CREATE INDEX idx_gamification_outbox_next_attempt ON gamification_outbox (next_attempt_at, id);
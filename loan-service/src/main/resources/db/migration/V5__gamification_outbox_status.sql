@@ -0,0 +1,9 @@
+-- Events the dispatcher gave up on (rejected by the gamification service, or
+-- out of attempts) stay as FAILED for inspection and are no longer polled
+
+ALTER TABLE gamification_outbox ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+
+DROP INDEX idx_gamification_outbox_next_attempt ON gamification_outbox;
+
+-- OutboxEventRepository.findDueEvents
+CREATE INDEX idx_gamification_outbox_status_next_attempt ON gamification_outbox (status, next_attempt_at, id);
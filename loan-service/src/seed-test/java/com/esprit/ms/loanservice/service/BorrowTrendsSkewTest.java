@@ -0,0 +1,63 @@
+package com.esprit.ms.loanservice.service;
+
+import com.esprit.ms.loanservice.dto.PopularBooks;
+import com.example.dataset.Zipf;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BorrowTrendsTest on a Zipf-skewed stream; runs with -Pseed, which provides the generator
+class BorrowTrendsSkewTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 1);
+
+    private final BorrowTrends trends = new BorrowTrends(4, 8192, 100, TODAY);
+
+    @Test
+    void topBooksMatchExactCountsOnASkewedStream() {
+        Zipf popularity = new Zipf(100_000, 1.0);
+        SplittableRandom random = new SplittableRandom(42);
+        Map<Long, Long> lastWeek = new HashMap<>();
+        long returns = 0;
+        for (int i = 0; i < 200_000; i++) {
+            long bookId = popularity.sample(random);
+            LocalDate day = TODAY.minusDays(random.nextInt(BorrowTrends.HISTORY_DAYS));
+            trends.recordBorrows(bookId, day, 1);
+            if (day.isAfter(TODAY.minusDays(7))) {
+                lastWeek.merge(bookId, 1L, Long::sum);
+            }
+            if (random.nextInt(2) == 0) {
+                trends.recordReturns(day, 1);
+                returns++;
+            }
+        }
+
+        PopularBooks popular = trends.popular(7, 10, TODAY);
+
+        List<Map.Entry<Long, Long>> exact = new ArrayList<>(lastWeek.entrySet());
+        exact.sort(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()));
+        long weekTotal = lastWeek.values().stream().mapToLong(Long::longValue).sum();
+        // Estimates are never under, and over by at most e / width of the window total (with high probability)
+        long maxError = (long) (Math.E / 8192 * weekTotal);
+        assertThat(popular.getBooks()).hasSize(10);
+        assertThat(popular.getBooks().subList(0, 8)).extracting(PopularBooks.Entry::getBookId)
+                .containsExactlyElementsOf(exact.subList(0, 8).stream().map(Map.Entry::getKey).toList());
+        for (PopularBooks.Entry entry : popular.getBooks()) {
+            long borrowings = lastWeek.get(entry.getBookId());
+            assertThat(entry.getBorrowings()).isBetween(borrowings, borrowings + maxError);
+            // Books near the cut may swap places, but only within the error
+            assertThat(borrowings).isGreaterThanOrEqualTo(exact.get(9).getValue() - maxError);
+        }
+        assertThat(popular.getTotalBorrowings()).isEqualTo(weekTotal);
+        assertThat(trends.popular(30, 10, TODAY).getTotalBorrowings()).isEqualTo(200_000);
+        assertThat(trends.popular(30, 10, TODAY).getTotalReturns()).isEqualTo(returns);
+    }
+}
@@ -0,0 +1,94 @@
+package com.esprit.ms.loanservice.service;
+
+import com.example.dataset.Zipf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// The producers commit on their own connections, so the test runs outside a transaction and cleans up
+@DataJpaTest(properties = "loan.seed.batch-size=700")
+@Import({LoanSeeder.class, BorrowTrendTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoanSeederTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 1);
+    private static final LoanSeeder.Spec SPEC = new LoanSeeder.Spec(5_000, 100, 1_000, 42L, 0.8, TODAY, 365);
+
+    @Autowired
+    private LoanSeeder loanSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM borrowings");
+        jdbcTemplate.update("DELETE FROM book_daily_activity");
+    }
+
+    @Test
+    void seedsLoansWithConsistentDatesAndStatuses() throws Exception {
+        assertThat(loanSeeder.seed(SPEC, 4)).isEqualTo(5_000);
+
+        assertThat(count("user_id NOT BETWEEN 1 AND 100 OR book_id NOT BETWEEN 1 AND 1000")).isZero();
+        assertThat(count("borrow_date > ? OR borrow_date <= ?", TODAY, TODAY.minusDays(365))).isZero();
+        assertThat(count("due_date <> DATEADD('DAY', " + LoanSeeder.LOAN_DAYS + ", borrow_date)")).isZero();
+        assertThat(count("status = 'RETURNED' AND (return_date IS NULL OR return_date > ? OR return_date <= borrow_date)",
+                TODAY)).isZero();
+        assertThat(count("status <> 'RETURNED' AND return_date IS NOT NULL")).isZero();
+        assertThat(count("status = 'BORROWED' AND due_date < ?", TODAY)).isZero();
+        assertThat(count("status = 'OVERDUE' AND due_date >= ?", TODAY)).isZero();
+        // Roughly one lost loan in 50, plus the last four weeks still out
+        assertThat(count("status <> 'RETURNED'")).isBetween(50L, 500L);
+        // The daily counts behind the borrow trends are recomputed for the last 30 days
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(borrow_count) FROM book_daily_activity", Long.class))
+                .isEqualTo(count("borrow_date > ?", TODAY.minusDays(30)));
+    }
+
+    @Test
+    void sameSeedGivesTheSameLoansWhateverTheThreadCount() throws Exception {
+        loanSeeder.seed(SPEC, 1);
+        List<Map<String, Object>> sequential = snapshot();
+        cleanUp();
+
+        loanSeeder.seed(SPEC, 8);
+
+        assertThat(snapshot()).isEqualTo(sequential);
+    }
+
+    @Test
+    void popularBooksGetTheirZipfShare() throws Exception {
+        loanSeeder.seed(SPEC, 4);
+
+        Zipf popularity = new Zipf(SPEC.books(), SPEC.skew());
+        long topBook = count("book_id = ?", popularity.ordinal(0));
+        assertThat((double) topBook).isCloseTo(SPEC.loans() * popularity.probability(0),
+                within(SPEC.loans() * popularity.probability(0) * 0.25));
+    }
+
+    private long count(String condition, Object... args) {
+        Object[] bindings = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            bindings[i] = args[i] instanceof LocalDate date ? Date.valueOf(date) : args[i];
+        }
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM borrowings WHERE " + condition, Long.class, bindings);
+    }
+
+    private List<Map<String, Object>> snapshot() {
+        return jdbcTemplate.queryForList("SELECT user_id, book_id, borrow_date, return_date, status FROM borrowings " +
+                "ORDER BY user_id, book_id, borrow_date, return_date, status");
+    }
+}
@@ -0,0 +1,53 @@
+package com.esprit.ms.loanservice.config;
+
+import com.esprit.ms.loanservice.service.LoanSeeder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Command-line seeding of synthetic loans: start the service with
+ * --seed-loans=10000000, optionally with --seed-books (default loans / 10),
+ * --seed-users (default loans / 100), --seed (RNG seed, default 42),
+ * --seed-skew (popularity skew, default 0.8), --seed-days (history length,
+ * default 730), --seed-date (the "today" of the data, default the current
+ * date) and --seed-threads. Pass the same values as to books-management-service
+ * and user-service. The application exits once the loans are written.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanSeedRunner implements ApplicationRunner {
+
+    private final LoanSeeder loanSeeder;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("seed-loans")) {
+            return;
+        }
+        long loans = Long.parseLong(option(args, "seed-loans", null));
+        LoanSeeder.Spec spec = new LoanSeeder.Spec(
+                loans,
+                Integer.parseInt(option(args, "seed-users", String.valueOf(Math.max(1, loans / 100)))),
+                Integer.parseInt(option(args, "seed-books", String.valueOf(Math.max(1, loans / 10)))),
+                Long.parseLong(option(args, "seed", "42")),
+                Double.parseDouble(option(args, "seed-skew", "0.8")),
+                LocalDate.parse(option(args, "seed-date", LocalDate.now().toString())),
+                Integer.parseInt(option(args, "seed-days", "730")));
+        int threads = Integer.parseInt(option(args, "seed-threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        loanSeeder.seed(spec, threads);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    private static String option(ApplicationArguments args, String name, String defaultValue) {
+        return args.containsOption(name) ? args.getOptionValues(name).get(0) : defaultValue;
+    }
+}
@@ -0,0 +1,112 @@
+package com.esprit.ms.loanservice.service;
+
+import com.example.dataset.Zipf;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Seeds synthetic loans for load tests. Parallel producers each generate one
+ * chunk and insert it with a JDBC batch in its own transaction; a chunk only
+ * depends on the seed and its position, so the table is the same whatever
+ * the thread count.
+ * <p>
+ * Books and users are drawn from the same Zipf popularity as
+ * books-management-service's CatalogSeeder, so with the same seed, skew and
+ * counts the seeded borrow counts match. User ids 1..users are the ones
+ * user-service seeds. Most loans come back after 1 to 28 days; recent ones
+ * are still BORROWED or OVERDUE, and one in 50 never comes back.
+ * <p>
+ * On MySQL, add rewriteBatchedStatements=true to the JDBC URL, otherwise
+ * every row of a batch is still sent as its own INSERT.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoanSeeder {
+
+    static final int LOAN_DAYS = 14;
+
+    private static final String INSERT = "INSERT INTO borrowings " +
+            "(user_id, book_id, borrow_date, due_date, return_date, status, renewal_count, fine_amount) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BorrowTrendTracker borrowTrendTracker;
+
+    @Value("${loan.seed.batch-size:10000}")
+    private int batchSize;
+
+    /**
+     * What to seed: {@code loans} loans by {@code users} users over
+     * {@code books} books, borrowed in the {@code days} days before
+     * {@code today}.
+     */
+    public record Spec(long loans, int users, int books, long seed, double skew, LocalDate today, int days) {
+    }
+
+    public long seed(Spec spec, int threads) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Zipf bookPopularity = new Zipf(spec.books(), spec.skew());
+        Zipf userActivity = new Zipf(spec.users(), spec.skew());
+        ExecutorService producers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (long from = 0, chunk = 0; from < spec.loans(); from += batchSize, chunk++) {
+                int size = (int) Math.min(batchSize, spec.loans() - from);
+                SplittableRandom random = new SplittableRandom(spec.seed() ^ ((chunk + 1) * 0x9E3779B97F4A7C15L));
+                chunks.add(producers.submit(() -> insertChunk(spec, bookPopularity, userActivity, random, size)));
+            }
+            long inserted = 0;
+            for (Future<Integer> chunk : chunks) {
+                inserted += chunk.get();
+            }
+            // The rows bypassed BorrowingService, so the daily counts behind the trends are recomputed
+            borrowTrendTracker.recountRecentDays(spec.today());
+            log.info("Seeded {} loans in {} ms", inserted, System.currentTimeMillis() - start);
+            return inserted;
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Loan seeding failed", e.getCause());
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    private int insertChunk(Spec spec, Zipf bookPopularity, Zipf userActivity, SplittableRandom random, int size) {
+        List<Object[]> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long userId = userActivity.sample(random);
+            long bookId = bookPopularity.sample(random);
+            LocalDate borrowDate = spec.today().minusDays(random.nextInt(spec.days()));
+            LocalDate dueDate = borrowDate.plusDays(LOAN_DAYS);
+            boolean lost = random.nextInt(50) == 0;
+            LocalDate returnDate = borrowDate.plusDays(1 + random.nextInt(28));
+
+            String status;
+            if (!lost && !returnDate.isAfter(spec.today())) {
+                status = "RETURNED";
+            } else {
+                returnDate = null;
+                status = spec.today().isAfter(dueDate) ? "OVERDUE" : "BORROWED";
+            }
+            rows.add(new Object[]{userId, bookId, Date.valueOf(borrowDate), Date.valueOf(dueDate),
+                    returnDate == null ? null : Date.valueOf(returnDate), status});
+        }
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(INSERT, rows));
+        return size;
+    }
+}
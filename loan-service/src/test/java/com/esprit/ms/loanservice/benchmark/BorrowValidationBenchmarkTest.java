@@ -0,0 +1,85 @@
+package com.esprit.ms.loanservice.benchmark;
+
+import com.esprit.ms.loanservice.config.ValidationConfig;
+import com.esprit.ms.loanservice.repository.BorrowingRepository;
+import com.esprit.ms.loanservice.repository.OutboxEventRepository;
+import com.esprit.ms.loanservice.service.BorrowTrendTracker;
+import com.esprit.ms.loanservice.service.BorrowingService;
+import com.esprit.ms.loanservice.service.InterServiceCalls;
+import com.esprit.ms.loanservice.service.ValidationResultCache;
+import com.esprit.ms.loanservice.support.StubValidationServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Validation phase of a borrow against stubbed user/book services with a
+ * fixed per-call latency: the former sequential calls, the concurrent
+ * calls without cache, and the concurrent calls with the validation cache
+ * on a realistic working set. Opt-in with -Dbenchmark=true.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BorrowValidationBenchmarkTest {
+
+    private static final int BORROWS = 500;
+    private static final long LATENCY_MS = 10;
+
+    @Test
+    void compareValidationStrategies() throws Exception {
+        try (StubValidationServer stub = new StubValidationServer()) {
+            stub.latencyMs = LATENCY_MS;
+            ExecutorService executor = new ValidationConfig().validationExecutor(16);
+            try {
+                BorrowingService uncached = service(stub, executor, Duration.ZERO);
+                report("sequential", run(uncached, false));
+                report("parallel", run(uncached, true));
+                report("parallel+cache", run(service(stub, executor, Duration.ofMinutes(1)), true));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static long[] run(BorrowingService service, boolean parallel) {
+        Random random = new Random(42);
+        long[] micros = new long[BORROWS];
+        for (int i = 0; i < BORROWS; i++) {
+            long userId = random.nextInt(50);
+            long bookId = random.nextInt(200);
+            long start = System.nanoTime();
+            if (parallel) {
+                service.validateUserAsync(userId).thenCombine(service.validateBookAsync(bookId), Boolean::logicalAnd).join();
+            } else {
+                boolean valid = service.validateUser(userId) && service.validateBook(bookId);
+            }
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        return micros;
+    }
+
+    private static void report(String label, long[] micros) {
+        Arrays.sort(micros);
+        System.out.printf("%-15s p50 %6d us, p99 %6d us%n",
+                label, micros[micros.length / 2], micros[(int) (micros.length * 0.99)]);
+    }
+
+    private static BorrowingService service(StubValidationServer stub, ExecutorService executor, Duration ttl) {
+        BorrowingService service = new BorrowingService(mock(BorrowingRepository.class),
+                mock(OutboxEventRepository.class), new RestTemplate(),
+                new InterServiceCalls(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults()),
+                new ValidationResultCache(ttl, ttl, 10_000), executor, mock(BorrowTrendTracker.class));
+        ReflectionTestUtils.setField(service, "userServiceUrl", stub.url());
+        ReflectionTestUtils.setField(service, "booksServiceUrl", stub.url());
+        return service;
+    }
+}
@@ -0,0 +1,81 @@
+package com.esprit.ms.loanservice.benchmark;
+
+import com.esprit.ms.loanservice.repository.BorrowingRepository;
+import com.esprit.ms.loanservice.support.BorrowingQueries;
+import com.esprit.ms.loanservice.support.BorrowingQueries.HotQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of every hot borrowings query on a large seeded table (10M rows
+ * unless -Dbenchmark.rows says otherwise), after checking its plan.
+ * Opt-in with -Dbenchmark=true. The table lives in an H2 file under target/
+ * and is only reseeded when its row count differs, so repeated runs are quick.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:file:./target/benchmark/borrowings;MODE=MySQL",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.esprit.ms.loanservice.support.SqlCapture"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BorrowingQueryLatencyBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000_000);
+    private static final int WARMUP = 100;
+    private static final int RUNS = 1_000;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void hotQueriesStayIndexedAtScale() {
+        long existing = borrowingRepository.count();
+        if (existing != ROWS) {
+            long begin = System.nanoTime();
+            jdbcTemplate.execute("TRUNCATE TABLE borrowings");
+            BorrowingQueries.seed(jdbcTemplate, ROWS);
+            System.out.printf("seeded %d rows in %d s%n", ROWS, (System.nanoTime() - begin) / 1_000_000_000);
+        }
+        int keys = Math.min(BorrowingQueries.users(ROWS), BorrowingQueries.books(ROWS));
+        Random random = new Random(42);
+
+        for (HotQuery query : BorrowingQueries.hotQueries()) {
+            String plan = BorrowingQueries.explain(jdbcTemplate, borrowingRepository, query, 7L);
+            assertThat(BorrowingQueries.usesIndex(plan, query.index()))
+                    .as("%s should use %s, plan was:%n%s", query.name(), query.index(), plan)
+                    .isTrue();
+
+            for (int i = 0; i < WARMUP; i++) {
+                query.call().accept(borrowingRepository, (long) random.nextInt(keys));
+            }
+            long[] micros = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long key = random.nextInt(keys);
+                long begin = System.nanoTime();
+                query.call().accept(borrowingRepository, key);
+                micros[i] = (System.nanoTime() - begin) / 1_000;
+            }
+            report(query.name(), micros);
+        }
+    }
+
+    private static void report(String label, long[] micros) {
+        Arrays.sort(micros);
+        System.out.printf("%-35s p50 %6d us, p99 %6d us%n",
+                label, micros[micros.length / 2], micros[(int) (micros.length * 0.99)]);
+    }
+}
@@ -0,0 +1,103 @@
+package com.esprit.ms.loanservice.benchmark;
+
+import com.esprit.ms.loanservice.config.RestConfig;
+import com.esprit.ms.loanservice.config.ValidationConfig;
+import com.esprit.ms.loanservice.dto.LoanCursor;
+import com.esprit.ms.loanservice.model.Borrowing;
+import com.esprit.ms.loanservice.repository.BorrowingRepository;
+import com.esprit.ms.loanservice.service.BorrowTrendTracker;
+import com.esprit.ms.loanservice.service.BorrowingService;
+import com.esprit.ms.loanservice.service.InterServiceCalls;
+import com.esprit.ms.loanservice.service.ValidationResultCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Offset vs keyset paging over the active-loans listing on a seeded table.
+ * Opt-in with -Dbenchmark=true.
+ */
+@DataJpaTest
+@Import({BorrowingService.class, ValidationResultCache.class, RestConfig.class, InterServiceCalls.class, ValidationConfig.class,
+        BorrowTrendTracker.class})
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoanPaginationBenchmarkTest {
+
+    private static final int ROWS = 200_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int[] PAGES = {1, 100, 1_000, 9_999};
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        LocalDate start = LocalDate.now().minusYears(3);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO borrowings (user_id, book_id, borrow_date, due_date, status, renewal_count, fine_amount) " +
+                "VALUES (?, ?, ?, ?, 'BORROWED', 0, 0)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        LocalDate borrowDate = start.plusDays(i % 1_000);
+                        ps.setLong(1, i % 5_000);
+                        ps.setLong(2, i % 20_000);
+                        ps.setDate(3, Date.valueOf(borrowDate));
+                        ps.setDate(4, Date.valueOf(borrowDate.plusDays(14)));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ROWS;
+                    }
+                });
+    }
+
+    @Test
+    void deepPagesCostTheSameWithCursors() {
+        // Warm up both paths before timing
+        for (int i = 0; i < 50; i++) {
+            borrowingRepository.findByStatusOrderByBorrowDateDesc("BORROWED", PageRequest.of(i, PAGE_SIZE));
+            borrowingService.getBorrowingsByStatusPage("BORROWED", cursorBefore(i + 1), PAGE_SIZE, false);
+        }
+        for (int page : PAGES) {
+            long begin = System.nanoTime();
+            borrowingRepository.findByStatusOrderByBorrowDateDesc("BORROWED", PageRequest.of(page, PAGE_SIZE));
+            long offsetMicros = (System.nanoTime() - begin) / 1_000;
+
+            String cursor = cursorBefore(page);
+            begin = System.nanoTime();
+            borrowingService.getBorrowingsByStatusPage("BORROWED", cursor, PAGE_SIZE, false);
+            long keysetMicros = (System.nanoTime() - begin) / 1_000;
+
+            System.out.printf("page %5d: offset+count %8d us, keyset %6d us%n", page, offsetMicros, keysetMicros);
+        }
+    }
+
+    // Untimed: the key of the last row on the previous page, as a client would hold it
+    private String cursorBefore(int page) {
+        Borrowing last = borrowingRepository
+                .findByStatusOrderByBorrowDateDesc("BORROWED", PageRequest.of(page * PAGE_SIZE - 1, 1))
+                .getContent().get(0);
+        return LoanCursor.after(last).encode();
+    }
+}
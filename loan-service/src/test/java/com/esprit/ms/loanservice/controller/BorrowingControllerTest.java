@@ -0,0 +1,91 @@
+package com.esprit.ms.loanservice.controller;
+
+import com.esprit.ms.loanservice.config.RestConfig;
+import com.esprit.ms.loanservice.config.ValidationConfig;
+import com.esprit.ms.loanservice.model.Borrowing;
+import com.esprit.ms.loanservice.repository.BorrowingRepository;
+import com.esprit.ms.loanservice.service.BorrowTrendTracker;
+import com.esprit.ms.loanservice.service.BorrowingService;
+import com.esprit.ms.loanservice.service.InterServiceCalls;
+import com.esprit.ms.loanservice.service.ValidationResultCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DataJpaTest
+@Import({BorrowingController.class, BorrowingService.class, ValidationResultCache.class, RestConfig.class,
+        InterServiceCalls.class, ValidationConfig.class, BorrowTrendTracker.class, SimpleMeterRegistry.class})
+class BorrowingControllerTest {
+
+    @Autowired
+    private BorrowingController controller;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void activeLoansIncludeOverdueOnesButNotReturnedOnes() throws Exception {
+        LocalDate today = LocalDate.now();
+        Borrowing borrowed = borrowing(1L, today, "BORROWED");
+        Borrowing overdue = borrowing(2L, today.minusDays(20), "OVERDUE");
+        Borrowing returned = borrowing(3L, today.minusDays(10), "RETURNED");
+        borrowingRepository.saveAllAndFlush(List.of(borrowed, overdue, returned));
+
+        mockMvc.perform(get("/api/loans/active").param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].bookId").value(contains(1, 2)))
+                .andExpect(jsonPath("$.content[*].status").value(contains("BORROWED", "OVERDUE")))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void activeLoansPageAcrossBothStatuses() throws Exception {
+        LocalDate today = LocalDate.now();
+        borrowingRepository.saveAllAndFlush(List.of(
+                borrowing(1L, today, "BORROWED"),
+                borrowing(2L, today.minusDays(20), "OVERDUE"),
+                borrowing(3L, today.minusDays(30), "OVERDUE")));
+
+        String first = mockMvc.perform(get("/api/loans/active").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].bookId").value(contains(1, 2)))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(first, "$.nextCursor");
+
+        mockMvc.perform(get("/api/loans/active").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].bookId").value(contains(3)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    private static Borrowing borrowing(Long bookId, LocalDate borrowDate, String status) {
+        Borrowing borrowing = new Borrowing();
+        borrowing.setUserId(7L);
+        borrowing.setBookId(bookId);
+        borrowing.setBorrowDate(borrowDate);
+        borrowing.setDueDate(borrowDate.plusDays(14));
+        borrowing.setStatus(status);
+        return borrowing;
+    }
+}
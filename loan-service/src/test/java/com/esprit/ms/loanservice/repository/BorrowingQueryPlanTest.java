@@ -0,0 +1,52 @@
+package com.esprit.ms.loanservice.repository;
+
+import com.esprit.ms.loanservice.support.BorrowingQueries;
+import com.esprit.ms.loanservice.support.BorrowingQueries.HotQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the borrowings indexes: every hot repository query, run against the
+ * schema the migrations build, must be planned as an index lookup.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.esprit.ms.loanservice.support.SqlCapture"
+})
+class BorrowingQueryPlanTest {
+
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        BorrowingQueries.seed(jdbcTemplate, ROWS);
+    }
+
+    static List<HotQuery> hotQueries() {
+        return BorrowingQueries.hotQueries();
+    }
+
+    @ParameterizedTest
+    @MethodSource("hotQueries")
+    void usesItsIndex(HotQuery query) {
+        String plan = BorrowingQueries.explain(jdbcTemplate, borrowingRepository, query, 7L);
+
+        assertThat(BorrowingQueries.usesIndex(plan, query.index()))
+                .as("%s should use %s, plan was:%n%s", query.name(), query.index(), plan)
+                .isTrue();
+    }
+}
@@ -0,0 +1,105 @@
+package com.esprit.ms.loanservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations the way the service does (baseline at 0), on a fresh
+ * database and on one whose borrowings table was created by ddl-auto=update
+ * before Flyway, and checks both end up with every index.
+ */
+class SchemaMigrationTest {
+
+    private static final List<String> INDEXES = List.of(
+            "idx_book_daily_activity_date",
+            "idx_borrowings_book_borrow_date",
+            "idx_borrowings_status_borrow_date",
+            "idx_borrowings_status_due_date",
+            "idx_borrowings_user_book_status",
+            "idx_borrowings_user_borrow_date",
+            "idx_borrowings_user_return_date",
+            "idx_borrowings_user_status",
+            "idx_gamification_outbox_status_next_attempt");
+
+    @Test
+    void freshDatabaseGetsEveryIndex() throws SQLException {
+        String url = newDatabase();
+
+        migrate(url);
+
+        assertThat(indexes(url)).containsExactlyElementsOf(INDEXES);
+    }
+
+    @Test
+    void databaseCreatedByDdlAutoGetsEveryIndex() throws SQLException {
+        String url = newDatabase();
+        // borrowings as ddl-auto=update created it, with a loan from last week
+        execute(url, "CREATE TABLE borrowings (id BIGINT NOT NULL AUTO_INCREMENT, user_id BIGINT NOT NULL, " +
+                "book_id BIGINT NOT NULL, borrow_date DATE NOT NULL, due_date DATE NOT NULL, return_date DATE, " +
+                "status VARCHAR(255) NOT NULL, notes VARCHAR(255), renewal_count INT NOT NULL, fine_amount DOUBLE, " +
+                "PRIMARY KEY (id)) ENGINE = InnoDB");
+        execute(url, "INSERT INTO borrowings (user_id, book_id, borrow_date, due_date, status, renewal_count) " +
+                "VALUES (1, 2, CURRENT_DATE - INTERVAL '7' DAY, CURRENT_DATE + INTERVAL '7' DAY, 'BORROWED', 0)");
+
+        migrate(url);
+
+        assertThat(indexes(url)).containsExactlyElementsOf(INDEXES);
+        assertThat(count(url, "SELECT COUNT(*) FROM borrowings")).isEqualTo(1);
+        assertThat(count(url, "SELECT SUM(borrow_count) FROM book_daily_activity")).isEqualTo(1);
+    }
+
+    private static String newDatabase() {
+        return "jdbc:h2:mem:migration_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    // Same settings as spring.flyway.* in application.properties
+    private static void migrate(String url) {
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .table("loan_service_schema_history")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long count(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(sql)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static List<String> indexes(String url) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT DISTINCT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES " +
+                     "WHERE LOWER(INDEX_NAME) LIKE 'idx_%' ORDER BY 1")) {
+            while (rows.next()) {
+                names.add(rows.getString(1));
+            }
+        }
+        return names;
+    }
+}
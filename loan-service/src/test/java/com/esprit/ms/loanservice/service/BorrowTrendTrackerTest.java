@@ -0,0 +1,111 @@
+package com.esprit.ms.loanservice.service;
+
+import com.esprit.ms.loanservice.dto.PopularBooks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Counts reach memory after commit, so each test commits for real
+@DataJpaTest
+@Import(BorrowTrendTracker.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BorrowTrendTrackerTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private BorrowTrendTracker tracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void reset() {
+        jdbcTemplate.update("DELETE FROM book_daily_activity");
+        tracker.load();
+    }
+
+    @Test
+    void countsOnlyCommittedBorrows() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            tracker.recordBorrow(5L, TODAY);
+            tracker.recordBorrow(5L, TODAY);
+            // Not visible before the commit
+            assertThat(tracker.getBorrowings(5L, 1)).isZero();
+        });
+        transactionTemplate.executeWithoutResult(tx -> {
+            tracker.recordBorrow(6L, TODAY);
+            tx.setRollbackOnly();
+        });
+
+        assertThat(tracker.getBorrowings(5L, 1)).isEqualTo(2);
+        assertThat(tracker.getBorrowings(6L, 1)).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT book_id FROM book_daily_activity", Long.class))
+                .containsExactly(5L);
+    }
+
+    @Test
+    void persistsOneRowPerBookAndDay() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            tracker.recordBorrow(5L, TODAY.minusDays(1));
+            tracker.recordBorrow(5L, TODAY.minusDays(1));
+            tracker.recordReturn(5L, TODAY);
+        });
+
+        assertThat(jdbcTemplate.queryForList("SELECT borrow_count, return_count FROM book_daily_activity " +
+                "ORDER BY activity_date"))
+                .extracting(row -> row.get("borrow_count") + "/" + row.get("return_count"))
+                .containsExactly("2/0", "0/1");
+    }
+
+    @Test
+    void reloadRebuildsTheSameTrendsFromTheDailyRows() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            for (int day = 0; day < 40; day++) {
+                for (long bookId = 1; bookId <= 12; bookId++) {
+                    if ((day + bookId) % 3 == 0) {
+                        tracker.recordBorrow(bookId * 100, TODAY.minusDays(day));
+                    }
+                }
+                tracker.recordReturn(100L, TODAY.minusDays(day));
+            }
+        });
+        PopularBooks week = tracker.getPopularBooks(7, 5);
+        PopularBooks month = tracker.getPopularBooks(30, 5);
+
+        tracker.load();
+
+        assertThat(tracker.getPopularBooks(7, 5)).isEqualTo(week);
+        assertThat(tracker.getPopularBooks(30, 5)).isEqualTo(month);
+        assertThat(month.getTotalReturns()).isEqualTo(30);
+    }
+
+    @Test
+    void trimsDaysThatLeftTheLongestWindow() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            tracker.recordBorrow(5L, TODAY.minusDays(40));
+            tracker.recordBorrow(5L, TODAY.minusDays(30));
+            tracker.recordBorrow(5L, TODAY.minusDays(29));
+        });
+
+        tracker.trimExpiredDays();
+
+        assertThat(jdbcTemplate.queryForList("SELECT activity_date FROM book_daily_activity", Date.class))
+                .containsExactly(Date.valueOf(TODAY.minusDays(29)));
+        assertThat(tracker.getBorrowings(5L, 30)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.esprit.ms.loanservice.service;
+
+import com.esprit.ms.loanservice.dto.PopularBooks;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BorrowTrendsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 1);
+
+    private final BorrowTrends trends = new BorrowTrends(4, 8192, 100, TODAY);
+
+    @Test
+    void windowsSlideOneDayAtATime() {
+        trends.recordBorrows(1, TODAY, 1);
+        trends.recordBorrows(1, TODAY.minusDays(3), 2);
+        trends.recordBorrows(1, TODAY.minusDays(10), 4);
+        trends.recordBorrows(1, TODAY.minusDays(30), 8);
+
+        assertThat(windowCounts(1, TODAY)).containsExactly(1L, 3L, 7L);
+        assertThat(windowCounts(1, TODAY.plusDays(1))).containsExactly(0L, 3L, 7L);
+        assertThat(windowCounts(1, TODAY.plusDays(4))).containsExactly(0L, 1L, 7L);
+        assertThat(windowCounts(1, TODAY.plusDays(7))).containsExactly(0L, 0L, 7L);
+        assertThat(windowCounts(1, TODAY.plusDays(20))).containsExactly(0L, 0L, 3L);
+        assertThat(windowCounts(1, TODAY.plusDays(27))).containsExactly(0L, 0L, 1L);
+        assertThat(windowCounts(1, TODAY.plusDays(30))).containsExactly(0L, 0L, 0L);
+    }
+
+    @Test
+    void lateEventsOnlyCountInTheWindowsStillHoldingTheirDay() {
+        trends.recordBorrows(1, TODAY.plusDays(2), 1);
+        trends.recordBorrows(1, TODAY, 1);
+
+        assertThat(windowCounts(1, TODAY.plusDays(2))).containsExactly(1L, 2L, 2L);
+    }
+
+    @Test
+    void aLongPauseEmptiesEveryWindow() {
+        trends.recordBorrows(1, TODAY, 5);
+        trends.recordReturns(TODAY, 2);
+
+        PopularBooks later = trends.popular(30, 10, TODAY.plusDays(45));
+
+        assertThat(later.getBooks()).isEmpty();
+        assertThat(later.getTotalBorrowings()).isZero();
+        assertThat(later.getTotalReturns()).isZero();
+        assertThat(windowCounts(1, TODAY.plusDays(45))).containsExactly(0L, 0L, 0L);
+    }
+
+    @Test
+    void topBooksFollowTheWindowAsDaysPass() {
+        trends.recordBorrows(1, TODAY.minusDays(6), 10);
+        trends.recordBorrows(2, TODAY, 3);
+        trends.recordBorrows(3, TODAY, 1);
+
+        assertThat(trends.popular(7, 2, TODAY).getBooks())
+                .containsExactly(new PopularBooks.Entry(1L, 10), new PopularBooks.Entry(2L, 3));
+        assertThat(trends.popular(7, 2, TODAY.plusDays(1)).getBooks())
+                .containsExactly(new PopularBooks.Entry(2L, 3), new PopularBooks.Entry(3L, 1));
+        assertThat(trends.popular(7, 10, TODAY.plusDays(1)).getFrom()).isEqualTo(TODAY.minusDays(5));
+    }
+
+    @Test
+    void rejectsUnknownWindowsAndLimits() {
+        assertThatThrownBy(() -> trends.popular(14, 10, TODAY)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trends.popular(7, 0, TODAY)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trends.popular(7, 101, TODAY)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Long> windowCounts(long bookId, LocalDate asOf) {
+        return List.of(trends.borrowings(bookId, 1, asOf), trends.borrowings(bookId, 7, asOf),
+                trends.borrowings(bookId, 30, asOf));
+    }
+}
@@ -0,0 +1,131 @@
+package com.esprit.ms.loanservice.service;
+
+import com.esprit.ms.loanservice.config.RestConfig;
+import com.esprit.ms.loanservice.config.ValidationConfig;
+import com.esprit.ms.loanservice.repository.BorrowingRepository;
+import com.esprit.ms.loanservice.repository.OutboxEventRepository;
+import com.esprit.ms.loanservice.support.StubValidationServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BorrowValidationTest {
+
+    private StubValidationServer stub;
+    private ExecutorService executor;
+    private BorrowingService borrowingService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubValidationServer();
+        executor = new ValidationConfig().validationExecutor(4);
+        borrowingService = service(new RestTemplate(),
+                new InterServiceCalls(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults()));
+    }
+
+    private BorrowingService service(RestTemplate restTemplate, InterServiceCalls interServiceCalls) {
+        BorrowingService service = new BorrowingService(mock(BorrowingRepository.class),
+                mock(OutboxEventRepository.class), restTemplate, interServiceCalls,
+                new ValidationResultCache(Duration.ofMinutes(1), Duration.ofMinutes(1), 100), executor,
+                mock(BorrowTrendTracker.class));
+        ReflectionTestUtils.setField(service, "userServiceUrl", stub.url());
+        ReflectionTestUtils.setField(service, "booksServiceUrl", stub.url());
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        stub.close();
+    }
+
+    @Test
+    void userAndBookChecksOverlap() {
+        stub.latencyMs = 300;
+
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> user = borrowingService.validateUserAsync(1L);
+        CompletableFuture<Boolean> book = borrowingService.validateBookAsync(2L);
+        boolean valid = user.join() && book.join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(valid).isTrue();
+        assertThat(elapsedMs).isLessThan(550);
+    }
+
+    @Test
+    void hitsAndMissesAreCached() {
+        stub.unknownIds.add(7L);
+
+        assertThat(borrowingService.validateUser(1L)).isTrue();
+        assertThat(borrowingService.validateUser(1L)).isTrue();
+        assertThat(borrowingService.validateBook(7L)).isFalse();
+        assertThat(borrowingService.validateBook(7L)).isFalse();
+
+        assertThat(stub.userCalls).hasValue(1);
+        assertThat(stub.bookCalls).hasValue(1);
+    }
+
+    @Test
+    void failOpenAnswersAreNotCached() {
+        stub.failing = true;
+
+        assertThat(borrowingService.validateBook(3L)).isTrue();
+        assertThat(borrowingService.validateBook(3L)).isTrue();
+
+        assertThat(stub.bookCalls).hasValue(2);
+    }
+
+    @Test
+    void slowServiceIsCutOffByReadTimeout() {
+        RestConfig config = new RestConfig();
+        CloseableHttpClient client = config.interServiceHttpClient(
+                config.interServiceConnectionManager(10, 10, Duration.ofSeconds(1), Duration.ofMillis(200),
+                        Duration.ofMinutes(5), new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class)),
+                Duration.ofMillis(200), Duration.ofMillis(100), Duration.ofSeconds(30));
+        BorrowingService service = service(
+                config.restTemplate(new StaticListableBeanFactory().getBeanProvider(RestTemplateBuilder.class), client),
+                new InterServiceCalls(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults()));
+        stub.latencyMs = 2000;
+
+        long start = System.nanoTime();
+        assertThat(service.validateBook(4L)).isTrue();
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(1000);
+    }
+
+    @Test
+    void openBreakerStopsCallingTheService() {
+        CircuitBreakerRegistry breakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        InterServiceCalls calls = new InterServiceCalls(breakers, BulkheadRegistry.ofDefaults());
+        BorrowingService service = service(new RestTemplate(), calls);
+        stub.failing = true;
+
+        for (long id = 1; id <= 10; id++) {
+            assertThat(service.validateBook(id)).isTrue();
+        }
+
+        assertThat(calls.state(InterServiceCalls.BOOKS_SERVICE)).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(stub.bookCalls).hasValue(4);
+    }
+}
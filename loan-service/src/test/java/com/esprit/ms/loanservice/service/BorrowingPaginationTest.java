@@ -0,0 +1,89 @@
+package com.esprit.ms.loanservice.service;
+
+import com.esprit.ms.loanservice.config.RestConfig;
+import com.esprit.ms.loanservice.config.ValidationConfig;
+import com.esprit.ms.loanservice.dto.CursorPage;
+import com.esprit.ms.loanservice.model.Borrowing;
+import com.esprit.ms.loanservice.repository.BorrowingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({BorrowingService.class, ValidationResultCache.class, RestConfig.class, InterServiceCalls.class, ValidationConfig.class,
+        BorrowTrendTracker.class})
+class BorrowingPaginationTest {
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @BeforeEach
+    void seed() {
+        LocalDate today = LocalDate.now();
+        List<Borrowing> borrowings = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // Several loans share a borrow date so the id tie-breaker is exercised
+            borrowings.add(borrowing(1L, (long) i, today.minusDays(i / 4), i % 3 == 0 ? "RETURNED" : "BORROWED"));
+        }
+        borrowings.add(borrowing(2L, 99L, today, "BORROWED"));
+        borrowingRepository.saveAll(borrowings);
+    }
+
+    @Test
+    void walksAllUserBorrowingsWithoutGapsOrDuplicates() {
+        List<Borrowing> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Borrowing> page = borrowingService.getUserBorrowingsPage(1L, cursor, 10, false);
+            seen.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(25).doesNotHaveDuplicates();
+        assertThat(seen).isSortedAccordingTo(Comparator.comparing(Borrowing::getBorrowDate)
+                .thenComparing(Borrowing::getId).reversed());
+    }
+
+    @Test
+    void statusPagesOnlyContainThatStatus() {
+        CursorPage<Borrowing> first = borrowingService.getBorrowingsByStatusPage("BORROWED", null, 10, true);
+        CursorPage<Borrowing> second = borrowingService.getBorrowingsByStatusPage("BORROWED", first.getNextCursor(), 10, true);
+
+        assertThat(first.getTotalElements()).isEqualTo(17L);
+        assertThat(first.getContent()).hasSize(10).allMatch(b -> "BORROWED".equals(b.getStatus()));
+        assertThat(second.getContent()).hasSize(7);
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> borrowingService.getUserBorrowingsPage(1L, "not-a-cursor", 10, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Borrowing borrowing(Long userId, Long bookId, LocalDate borrowDate, String status) {
+        Borrowing borrowing = new Borrowing();
+        borrowing.setUserId(userId);
+        borrowing.setBookId(bookId);
+        borrowing.setBorrowDate(borrowDate);
+        borrowing.setDueDate(borrowDate.plusDays(14));
+        borrowing.setStatus(status);
+        return borrowing;
+    }
+}
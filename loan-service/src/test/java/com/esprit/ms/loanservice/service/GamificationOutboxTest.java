@@ -0,0 +1,263 @@
+package com.esprit.ms.loanservice.service;
+
+import com.esprit.ms.loanservice.config.RestConfig;
+import com.esprit.ms.loanservice.config.ValidationConfig;
+import com.esprit.ms.loanservice.model.Borrowing;
+import com.esprit.ms.loanservice.model.OutboxEvent;
+import com.esprit.ms.loanservice.repository.BorrowingRepository;
+import com.esprit.ms.loanservice.repository.OutboxEventRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the outbox against a stub gamification server. Each test commits for
+ * real, so a fresh dispatcher sees exactly what a restarted service would.
+ */
+// The scheduled poll is pushed out of the way; the tests drive the dispatcher directly
+@DataJpaTest(properties = {
+        "gamification.outbox.initial-backoff-ms=0",
+        "gamification.outbox.max-attempts=3",
+        "gamification.outbox.poll-interval-ms=3600000"
+})
+@Import({BorrowingService.class, GamificationOutboxDispatcher.class, ValidationResultCache.class,
+        InterServiceCalls.class, RestConfig.class, ValidationConfig.class, BorrowTrendTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GamificationOutboxTest {
+
+    private static final List<String> received = new CopyOnWriteArrayList<>();
+    private static volatile int status = 200;
+    private static volatile long delayMs = 0;
+    private static final HttpServer stub = startStub();
+
+    @DynamicPropertySource
+    static void gamificationUrl(DynamicPropertyRegistry registry) {
+        registry.add("GAMIFICATION_SERVICE_URL", () -> "http://localhost:" + stub.getAddress().getPort());
+    }
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private GamificationOutboxDispatcher dispatcher;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BorrowTrendTracker borrowTrendTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void reset() {
+        outboxEventRepository.deleteAll();
+        borrowingRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM book_daily_activity");
+        borrowTrendTracker.load();
+        received.clear();
+        status = 200;
+        delayMs = 0;
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void loansDoNotWaitForTheGamificationService() {
+        delayMs = 2_000;
+
+        long start = System.nanoTime();
+        Borrowing saved = borrowingService.recordBorrowing(borrowing(1L));
+        borrowingService.recordReturn(saved.getId());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMs).isLessThan(1_000);
+        assertThat(received).isEmpty();
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getAction)
+                .containsExactly("BOOK_BORROWED", "BOOK_RETURNED");
+    }
+
+    @Test
+    void aRepeatedReturnRecordsNothingAgain() {
+        Borrowing saved = borrowingService.recordBorrowing(borrowing(1L));
+        Borrowing returned = borrowingService.recordReturn(saved.getId()).orElseThrow();
+        jdbcTemplate.update("UPDATE borrowings SET return_date = ? WHERE id = ?",
+                Date.valueOf(LocalDate.now().minusDays(1)), saved.getId());
+
+        assertThat(borrowingService.recordReturn(saved.getId())).isEmpty();
+        assertThat(borrowingService.recordReturn(-1L)).isEmpty();
+
+        assertThat(returned.getStatus()).isEqualTo("RETURNED");
+        assertThat(borrowingRepository.findById(saved.getId()).orElseThrow().getReturnDate())
+                .isEqualTo(LocalDate.now().minusDays(1));
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getAction)
+                .containsExactly("BOOK_BORROWED", "BOOK_RETURNED");
+        assertThat(borrowTrendTracker.getPopularBooks(1, 10).getTotalReturns()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentReturnsOfOneLoanCountOnce() throws Exception {
+        Borrowing saved = borrowingService.recordBorrowing(borrowing(1L));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Optional<Borrowing>>> returns = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                returns.add(pool.submit(() -> {
+                    start.await();
+                    return borrowingService.recordReturn(saved.getId());
+                }));
+            }
+            start.countDown();
+
+            int returned = 0;
+            for (Future<Optional<Borrowing>> result : returns) {
+                returned += result.get().isPresent() ? 1 : 0;
+            }
+            assertThat(returned).isEqualTo(1);
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getAction)
+                .containsExactly("BOOK_BORROWED", "BOOK_RETURNED");
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(return_count) FROM book_daily_activity", Long.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void eventsSurviveAnOutageAndAreDeliveredOnce() {
+        status = 503;
+        for (long userId = 1; userId <= 5; userId++) {
+            borrowingService.recordBorrowing(borrowing(userId));
+        }
+
+        assertThat(dispatcher.dispatchDueEvents()).isZero();
+        assertThat(outboxEventRepository.findAll()).hasSize(5);
+        assertThat(outboxEventRepository.findAll().get(0).getAttempts()).isEqualTo(1);
+
+        // Service back up: whatever was committed before the outage is still queued
+        status = 200;
+        received.clear();
+        assertThat(dispatcher.dispatchDueEvents()).isEqualTo(5);
+        assertThat(dispatcher.dispatchDueEvents()).isZero();
+
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(received).hasSize(5).allMatch(body -> body.contains("\"action\":\"BOOK_BORROWED\""))
+                .allMatch(body -> body.contains("\"eventType\":\"progress_increment\""));
+    }
+
+    @Test
+    void rejectedEventsAreMarkedFailedAndNotRetried() {
+        status = 400;
+        for (long userId = 1; userId <= 3; userId++) {
+            borrowingService.recordBorrowing(borrowing(userId));
+        }
+
+        // A rejection says nothing about the service being down, so the poll goes on
+        assertThat(dispatcher.dispatchDueEvents()).isZero();
+        assertThat(received).hasSize(3);
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getStatus)
+                .containsExactly("FAILED", "FAILED", "FAILED");
+
+        status = 200;
+        assertThat(dispatcher.dispatchDueEvents()).isZero();
+        assertThat(received).hasSize(3);
+    }
+
+    @Test
+    void throttledEventsAreRetried() {
+        status = 429;
+        borrowingService.recordBorrowing(borrowing(1L));
+
+        assertThat(dispatcher.dispatchDueEvents()).isZero();
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getStatus).containsExactly("PENDING");
+
+        status = 200;
+        assertThat(dispatcher.dispatchDueEvents()).isEqualTo(1);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void eventsOutOfAttemptsAreMarkedFailed() {
+        status = 503;
+        borrowingService.recordBorrowing(borrowing(1L));
+
+        for (int poll = 0; poll < 3; poll++) {
+            dispatcher.dispatchDueEvents();
+        }
+
+        assertThat(outboxEventRepository.findAll()).singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getStatus()).isEqualTo("FAILED");
+                    assertThat(event.getAttempts()).isEqualTo(3);
+                });
+
+        status = 200;
+        received.clear();
+        assertThat(dispatcher.dispatchDueEvents()).isZero();
+        assertThat(received).isEmpty();
+    }
+
+    private static Borrowing borrowing(Long userId) {
+        Borrowing borrowing = new Borrowing();
+        borrowing.setUserId(userId);
+        borrowing.setBookId(42L);
+        borrowing.setBorrowDate(LocalDate.now());
+        borrowing.setDueDate(LocalDate.now().plusDays(14));
+        borrowing.setStatus("BORROWED");
+        return borrowing;
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/events", exchange -> {
+                byte[] body = exchange.getRequestBody().readAllBytes();
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.add(new String(body, StandardCharsets.UTF_8));
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
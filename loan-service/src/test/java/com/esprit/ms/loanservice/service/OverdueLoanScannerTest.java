@@ -0,0 +1,82 @@
+package com.esprit.ms.loanservice.service;
+
+import com.esprit.ms.loanservice.model.Borrowing;
+import com.esprit.ms.loanservice.model.OutboxEvent;
+import com.esprit.ms.loanservice.repository.BorrowingRepository;
+import com.esprit.ms.loanservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A chunk size of 2 makes the scanner page through several chunks, some sharing a due date
+@DataJpaTest(properties = {
+        "loan.overdue.chunk-size=2",
+        "loan.overdue.initial-delay-ms=3600000"
+})
+@Import({OverdueLoanScanner.class, SimpleMeterRegistry.class})
+class OverdueLoanScannerTest {
+
+    @Autowired
+    private OverdueLoanScanner scanner;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void marksLoansPastDueAndQueuesOneEventEach() {
+        LocalDate today = LocalDate.of(2024, 3, 20);
+        List<Borrowing> borrowings = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            borrowings.add(borrowing((long) i, today.minusDays(1 + i / 3), "BORROWED"));
+        }
+        borrowings.add(borrowing(10L, today, "BORROWED"));
+        borrowings.add(borrowing(11L, today.minusDays(5), "RETURNED"));
+        borrowingRepository.saveAllAndFlush(borrowings);
+
+        assertThat(scanner.markOverdueLoans(today)).isEqualTo(7);
+        entityManager.clear();
+
+        assertThat(borrowingRepository.countByStatus("OVERDUE")).isEqualTo(7L);
+        assertThat(borrowingRepository.countByStatus("BORROWED")).isEqualTo(1L);
+        assertThat(borrowingRepository.countByStatus("RETURNED")).isEqualTo(1L);
+        assertThat(outboxEventRepository.findAll()).hasSize(7)
+                .extracting(OutboxEvent::getAction).containsOnly("BOOK_OVERDUE");
+    }
+
+    @Test
+    void loansAlreadyOverdueAreNotMarkedAgain() {
+        LocalDate today = LocalDate.of(2024, 3, 20);
+        borrowingRepository.saveAllAndFlush(List.of(
+                borrowing(1L, today.minusDays(3), "BORROWED"),
+                borrowing(2L, today.minusDays(2), "OVERDUE")));
+
+        assertThat(scanner.markOverdueLoans(today)).isEqualTo(1);
+        assertThat(scanner.markOverdueLoans(today)).isZero();
+        assertThat(outboxEventRepository.count()).isEqualTo(1L);
+    }
+
+    private static Borrowing borrowing(Long bookId, LocalDate dueDate, String status) {
+        Borrowing borrowing = new Borrowing();
+        borrowing.setUserId(1L);
+        borrowing.setBookId(bookId);
+        borrowing.setBorrowDate(dueDate.minusDays(14));
+        borrowing.setDueDate(dueDate);
+        borrowing.setStatus(status);
+        return borrowing;
+    }
+}
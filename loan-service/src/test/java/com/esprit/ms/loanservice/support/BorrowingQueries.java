@@ -0,0 +1,172 @@
+package com.esprit.ms.loanservice.support;
+
+import com.esprit.ms.loanservice.repository.BorrowingRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The hot BorrowingRepository queries, each with the index it must use, plus
+ * a seeder for the borrowings table. Shared by the query-plan test and the
+ * query latency benchmark.
+ */
+public final class BorrowingQueries {
+
+    public static final LocalDate TODAY = LocalDate.of(2025, 1, 1);
+
+    private static final int PAGE = 11;
+
+    /**
+     * One repository call. {@code key} is the user or book id to look up;
+     * {@code bindings} are the values of the generated SQL's parameters, in order.
+     */
+    public record HotQuery(String name, String index, BiConsumer<BorrowingRepository, Long> call,
+                           Function<Long, Object[]> bindings) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private BorrowingQueries() {
+    }
+
+    public static List<HotQuery> hotQueries() {
+        Date today = Date.valueOf(TODAY);
+        Date monthAgo = Date.valueOf(TODAY.minusDays(30));
+        List<HotQuery> queries = new ArrayList<>();
+        queries.add(new HotQuery("findByUserId", "idx_borrowings_user_",
+                (repository, key) -> repository.findByUserId(key),
+                key -> new Object[]{key}));
+        // H2 settles for the shortest index on a selective user_id, ignoring the ORDER BY and
+        // the other equalities; MySQL's index dives pick the longer composites named in the migrations
+        queries.add(new HotQuery("findFirstPageByUserId", "idx_borrowings_user_",
+                (repository, key) -> repository.findFirstPageByUserId(key, PageRequest.of(0, PAGE)),
+                key -> new Object[]{key, PAGE}));
+        queries.add(new HotQuery("findPageByUserIdAfter", "idx_borrowings_user_borrow_date",
+                (repository, key) -> repository.findPageByUserIdAfter(key, TODAY, Long.MAX_VALUE, PageRequest.of(0, PAGE)),
+                key -> new Object[]{key, today, today, Long.MAX_VALUE, PAGE}));
+        queries.add(new HotQuery("findFirstPageByStatus", "idx_borrowings_status_borrow_date",
+                (repository, key) -> repository.findFirstPageByStatus("OVERDUE", PageRequest.of(0, PAGE)),
+                key -> new Object[]{"OVERDUE", PAGE}));
+        queries.add(new HotQuery("findPageByStatusAfter", "idx_borrowings_status_borrow_date",
+                (repository, key) -> repository.findPageByStatusAfter("BORROWED", TODAY.minusDays(key % 1_000),
+                        Long.MAX_VALUE, PageRequest.of(0, PAGE)),
+                key -> {
+                    Date after = Date.valueOf(TODAY.minusDays(key % 1_000));
+                    return new Object[]{"BORROWED", after, after, Long.MAX_VALUE, PAGE};
+                }));
+        queries.add(new HotQuery("findFirstPageActive", "idx_borrowings_status_",
+                (repository, key) -> repository.findFirstPageActive(PageRequest.of(0, PAGE)),
+                key -> new Object[]{PAGE}));
+        queries.add(new HotQuery("findPageActiveAfter", "idx_borrowings_status_",
+                (repository, key) -> repository.findPageActiveAfter(TODAY.minusDays(key % 1_000),
+                        Long.MAX_VALUE, PageRequest.of(0, PAGE)),
+                key -> {
+                    Date after = Date.valueOf(TODAY.minusDays(key % 1_000));
+                    return new Object[]{after, after, Long.MAX_VALUE, PAGE};
+                }));
+        queries.add(new HotQuery("countByStatus", "idx_borrowings_status_",
+                (repository, key) -> repository.countByStatus("OVERDUE"),
+                key -> new Object[]{"OVERDUE"}));
+        queries.add(new HotQuery("findActiveBorrowingByUserAndBook", "idx_borrowings_user_",
+                (repository, key) -> repository.findActiveBorrowingByUserAndBook(key, key),
+                key -> new Object[]{key, key}));
+        queries.add(new HotQuery("countByUserId", "idx_borrowings_user_",
+                (repository, key) -> repository.countByUserId(key),
+                key -> new Object[]{key}));
+        queries.add(new HotQuery("countReturnedBooksByUserId", "idx_borrowings_user_status",
+                (repository, key) -> repository.countReturnedBooksByUserId(key),
+                key -> new Object[]{key}));
+        queries.add(new HotQuery("countActiveBorrowingsByUserId", "idx_borrowings_user_status",
+                (repository, key) -> repository.countActiveBorrowingsByUserId(key),
+                key -> new Object[]{key}));
+        queries.add(new HotQuery("findByBookIdOrderByBorrowDateDesc", "idx_borrowings_book_borrow_date",
+                (repository, key) -> repository.findByBookIdOrderByBorrowDateDesc(key),
+                key -> new Object[]{key}));
+        queries.add(new HotQuery("countByBookId", "idx_borrowings_book_borrow_date",
+                (repository, key) -> repository.countByBookId(key),
+                key -> new Object[]{key}));
+        queries.add(new HotQuery("findUserBorrowingsBetweenDates", "idx_borrowings_user_return_date",
+                (repository, key) -> repository.findUserBorrowingsBetweenDates(key, TODAY.minusDays(30), TODAY),
+                key -> new Object[]{key, monthAgo, today}));
+        return queries;
+    }
+
+    /**
+     * Runs the query once and returns the database's plan for the SQL it sent.
+     * Needs {@link SqlCapture} registered as the statement inspector.
+     */
+    public static String explain(JdbcTemplate jdbcTemplate, BorrowingRepository repository, HotQuery query, long key) {
+        SqlCapture.clear();
+        query.call().accept(repository, key);
+        String sql = SqlCapture.first();
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class,
+                query.bindings().apply(key)));
+    }
+
+    // H2 names the index it scans in a comment: /* PUBLIC.IDX_...: USER_ID = ?1 */
+    public static boolean usesIndex(String plan, String indexPrefix) {
+        return plan.contains("/* PUBLIC." + indexPrefix.toUpperCase(Locale.ROOT)) && !plan.contains("tableScan");
+    }
+
+    public static int users(int rows) {
+        return Math.max(1, rows / 20);
+    }
+
+    public static int books(int rows) {
+        return Math.max(1, rows / 50);
+    }
+
+    /**
+     * Inserts {@code rows} loans over three years: 5% OVERDUE, 20% BORROWED,
+     * the rest RETURNED, spread over rows / 20 users and rows / 50 books.
+     */
+    public static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        int users = users(rows);
+        int books = books(rows);
+        int chunk = 10_000;
+        for (int from = 0; from < rows; from += chunk) {
+            int start = from;
+            int size = Math.min(chunk, rows - from);
+            jdbcTemplate.batchUpdate("INSERT INTO borrowings " +
+                            "(user_id, book_id, borrow_date, due_date, return_date, status, renewal_count, fine_amount) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, 0, 0)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int n = start + i;
+                            // Multiplicative hashing spreads each user's and book's loans over the whole range
+                            long user = (n * 2_654_435_761L) % users;
+                            long book = (n * 40_503L) % books;
+                            LocalDate borrowDate = TODAY.minusDays((n * 7_919L) % 1_095);
+                            String status = n % 20 == 0 ? "OVERDUE" : n % 5 == 0 ? "BORROWED" : "RETURNED";
+                            ps.setLong(1, user);
+                            ps.setLong(2, book);
+                            ps.setDate(3, Date.valueOf(borrowDate));
+                            ps.setDate(4, Date.valueOf(borrowDate.plusDays(14)));
+                            ps.setDate(5, "RETURNED".equals(status) ? Date.valueOf(borrowDate.plusDays(n % 21)) : null);
+                            ps.setString(6, status);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    });
+        }
+        // Refresh the planner's selectivity statistics
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,35 @@
+package com.esprit.ms.loanservice.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate sends on the current thread, so tests can
+ * EXPLAIN exactly what a repository method runs. Enable with
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        statements.get().add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        statements.get().clear();
+    }
+
+    // The first statement since clear(); paged finders follow it with a count query
+    public static String first() {
+        List<String> captured = statements.get();
+        if (captured.isEmpty()) {
+            throw new IllegalStateException("No SQL captured");
+        }
+        return captured.get(0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.esprit.ms.loanservice.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stands in for the user-service and books-management-service validate
+ * endpoints. Every id is valid except those in {@link #unknownIds};
+ * responses are delayed by {@link #latencyMs} to mimic a network hop.
+ */
+public class StubValidationServer implements AutoCloseable {
+
+    public final Set<Long> unknownIds = ConcurrentHashMap.newKeySet();
+    public final AtomicInteger userCalls = new AtomicInteger();
+    public final AtomicInteger bookCalls = new AtomicInteger();
+    public volatile long latencyMs;
+    public volatile boolean failing;
+
+    private final HttpServer server;
+
+    public StubValidationServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/user/validate/", exchange -> answer(exchange, userCalls));
+        server.createContext("/api/books/validate/", exchange -> answer(exchange, bookCalls));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void answer(HttpExchange exchange, AtomicInteger calls) throws IOException {
+        calls.incrementAndGet();
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failing) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        String path = exchange.getRequestURI().getPath();
+        long id = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+        byte[] body = String.valueOf(!unknownIds.contains(id)).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -1,82 +1,52 @@
 package com.example.searchservice.config;
 
-import com.example.searchservice.entity.Book;
 import com.example.searchservice.repository.BookRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+/**
+ * Fills an empty database with the ten sample books, in one JDBC batch.
+ * Book ids are IDENTITY columns, which Hibernate never batches, so the rows
+ * bypass JPA. Builds with -Pseed can load synthetic books first instead
+ * (SyntheticBookLoader).
+ */
 @Component
 public class DataLoader implements CommandLineRunner {
 
+    static final String INSERT = "INSERT INTO books (title, author, category) VALUES (?, ?, ?)";
+
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Override
     public void run(String... args) throws Exception {
-        if (bookRepository.count() == 0) {
-            // Add sample books
-            bookRepository.save(Book.builder()
-                    .title("The Great Gatsby")
-                    .author("F. Scott Fitzgerald")
-                    .category("Fiction")
-                    .build());
-// Add sample books
-            bookRepository.save(Book.builder()
-                    .title("To Kill a Mockingbird")
-                    .author("Harper Lee")
-                    .category("Fiction")
-                    .build());
-// Add sample books
-            bookRepository.save(Book.builder()
-                    .title("1984")
-                    .author("George Orwell")
-                    .category("Dystopian Fiction")
-                    .build());
-// Add sample books
-            bookRepository.save(Book.builder()
-                    .title("Pride and Prejudice")
-                    .author("Jane Austen")
-                    .category("Romance")
-                    .build());
-// Add sample books
-            bookRepository.save(Book.builder()
-                    .title("The Catcher in the Rye")
-                    .author("J.D. Salinger")
-                    .category("Fiction")
-                    .build());
-// Add sample books
-            bookRepository.save(Book.builder()
-                    .title("Lord of the Flies")
-                    .author("William Golding")
-                    .category("Fiction")
-                    .build());
-// Add sample books
-            bookRepository.save(Book.builder()
-                    .title("The Hobbit")
-                    .author("J.R.R. Tolkien")
-                    .category("Fantasy")
-                    .build());
-
-            bookRepository.save(Book.builder()
-                    .title("Harry Potter and the Philosopher's Stone")
-                    .author("J.K. Rowling")
-                    .category("Fantasy")
-                    .build());
-
-            bookRepository.save(Book.builder()
-                    .title("The Da Vinci Code")
-                    .author("Dan Brown")
-                    .category("Mystery")
-                    .build());
-
-            bookRepository.save(Book.builder()
-                    .title("The Alchemist")
-                    .author("Paulo Coelho")
-                    .category("Philosophy")
-                    .build());
-
-            System.out.println("Sample books have been loaded into the database.");
+        if (bookRepository.count() > 0) {
+            return;
         }
+        // Add sample books
+        jdbcTemplate.batchUpdate(INSERT, List.of(
+                book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction"),
+                book("To Kill a Mockingbird", "Harper Lee", "Fiction"),
+                book("1984", "George Orwell", "Dystopian Fiction"),
+                book("Pride and Prejudice", "Jane Austen", "Romance"),
+                book("The Catcher in the Rye", "J.D. Salinger", "Fiction"),
+                book("Lord of the Flies", "William Golding", "Fiction"),
+                book("The Hobbit", "J.R.R. Tolkien", "Fantasy"),
+                book("Harry Potter and the Philosopher's Stone", "J.K. Rowling", "Fantasy"),
+                book("The Da Vinci Code", "Dan Brown", "Mystery"),
+                book("The Alchemist", "Paulo Coelho", "Philosophy")));
+
+        System.out.println("Sample books have been loaded into the database.");
+    }
+
+    private static Object[] book(String title, String author, String category) {
+        return new Object[]{title, author, category};
     }
 }
@@ -0,0 +1,25 @@
+package com.example.searchservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "search.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class SyncConfig {
+
+    // The read timeout applies per read, so a long snapshot export is not cut off
+    @Bean
+    public RestTemplate syncRestTemplate(@Value("${search.sync.connect-timeout-ms:2000}") int connectTimeoutMs,
+                                         @Value("${search.sync.read-timeout-ms:10000}") int readTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        return new RestTemplate(requestFactory);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.search.BookSearchEngine;
+import com.example.searchservice.search.SearchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private BookSearchEngine searchEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Ranked full-text search; "category" narrows the hits but not the category counts.
+    // Pages end at the engine's result window, past it the request is rejected rather than collected
+    @GetMapping
+    public ResponseEntity<SearchResult> search(@RequestParam(name = "q", defaultValue = "") String query,
+                                               @RequestParam(required = false) String category,
+                                               @RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE
+                || (page + 1L) * size > BookSearchEngine.MAX_RESULT_WINDOW) {
+            return ResponseEntity.badRequest().build();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        SearchResult result = searchEngine.search(query, category, page, size);
+        String filter = category == null || category.isBlank() ? "none" : "category";
+        sample.stop(searchTimer(filter));
+        countSearch(filter, result.total() == 0 ? "empty" : "hits");
+        return ResponseEntity.ok(result);
+    }
+
+    private Timer searchTimer(String filter) {
+        return Timer.builder("search.latency")
+                .description("Time to rank, page and facet one search")
+                .tag("filter", filter)
+                .register(meterRegistry);
+    }
+
+    // Searches that find nothing are counted apart, they point at gaps in the catalog or the typo tolerance
+    private void countSearch(String filter, String outcome) {
+        Counter.builder("search.queries")
+                .description("Searches served")
+                .tag("filter", filter)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
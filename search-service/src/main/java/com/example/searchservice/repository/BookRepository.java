@@ -0,0 +1,9 @@
+package com.example.searchservice.repository;
+
+import com.example.searchservice.entity.Book;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookRepository extends JpaRepository<Book, Long> {
+}
@@ -0,0 +1,394 @@
+package com.example.searchservice.search;
+
+import com.example.searchservice.entity.Book;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded Lucene index over the title, author and category of every book.
+ * <p>
+ * Each query term must match in at least one field, exactly or within a
+ * small edit distance. Scores are BM25, boosted title over author over
+ * category, with typo matches weighted below exact ones. Category counts are
+ * read from doc values and ignore the category filter, so the facet list
+ * still shows the other categories while one is selected.
+ * <p>
+ * Writes go through a single IndexWriter and become searchable on the next
+ * {@link #refresh()}; searches never block on writes. A refresh can also
+ * record the change-feed position the index reflects, committed atomically
+ * with the documents, so an on-disk index resumes syncing where it stopped.
+ */
+@Component
+public class BookSearchEngine implements DisposableBean {
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String AUTHOR = "author";
+    static final String CATEGORY = "category";
+    static final String CATEGORY_EXACT = "category_exact";
+    static final String CATEGORY_FACET = "category_facet";
+    static final String AVAILABLE_COPIES = "available_copies";
+    static final String SYNC_POSITION = "sync.position";
+
+    /**
+     * Deepest hit a search may page to. Lucene collects every hit above the
+     * requested page, so without a bound one request can allocate an
+     * arbitrarily large priority queue.
+     */
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(TITLE, 3f, AUTHOR, 2f, CATEGORY, 1f);
+    private static final float FUZZY_WEIGHT = 0.5f;
+    private static final float TIE_BREAKER = 0.1f;
+    private static final int FUZZY_PREFIX = 1;
+    private static final int FUZZY_EXPANSIONS = 50;
+    private static final int FACET_LIMIT = 20;
+
+    private final Analyzer analyzer = new BookAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile FacetState facetState;
+    private volatile long syncPosition = -1;
+
+    public BookSearchEngine(@Value("${search.index.path:}") String indexPath,
+                            @Value("${search.index.ram-buffer-mb:64}") double ramBufferMb) throws IOException {
+        // Without a path the index lives on the heap and is rebuilt at startup
+        this.directory = indexPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexPath));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setSimilarity(new BM25Similarity())
+                .setRAMBufferSizeMB(ramBufferMb)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(directory, config);
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (SYNC_POSITION.equals(entry.getKey())) {
+                    syncPosition = Long.parseLong(entry.getValue());
+                }
+            }
+        }
+        this.searcherManager = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(new BM25Similarity());
+                return searcher;
+            }
+        });
+    }
+
+    public void index(Book book) {
+        index(String.valueOf(book.getId()), book.getTitle(), book.getAuthor(), book.getCategory());
+    }
+
+    /**
+     * Adds or replaces one book; visible to searches after the next refresh.
+     */
+    public void index(String id, String title, String author, String category) {
+        index(id, title, author, category, null);
+    }
+
+    public void index(String id, String title, String author, String category, Integer availableCopies) {
+        Document document = new Document();
+        document.add(new StringField(ID, id, Field.Store.YES));
+        addText(document, TITLE, title);
+        addText(document, AUTHOR, author);
+        addText(document, CATEGORY, category);
+        if (category != null && !category.isBlank()) {
+            document.add(new StringField(CATEGORY_EXACT, category, Field.Store.NO));
+            document.add(new SortedSetDocValuesFacetField(CATEGORY_FACET, category));
+        }
+        if (availableCopies != null) {
+            document.add(new StoredField(AVAILABLE_COPIES, availableCopies));
+        }
+        try {
+            writer.updateDocument(new Term(ID, id), facetsConfig.build(document));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index book " + id, e);
+        }
+    }
+
+    public void indexAll(Iterable<Book> books) {
+        for (Book book : books) {
+            index(book);
+        }
+        refresh();
+    }
+
+    public void delete(String id) {
+        try {
+            writer.deleteDocuments(new Term(ID, id));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not remove book " + id, e);
+        }
+    }
+
+    // Takes effect, like any other write, on the next refresh
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clear the search index", e);
+        }
+    }
+
+    /**
+     * The last change-feed sequence committed with the index, or -1 if the
+     * index was never synced.
+     */
+    public long syncPosition() {
+        return syncPosition;
+    }
+
+    /**
+     * Like {@link #refresh()}, and records that the index now reflects the
+     * change feed up to {@code position}.
+     */
+    public synchronized void refresh(long position) {
+        writer.setLiveCommitData(Map.of(SYNC_POSITION, String.valueOf(position)).entrySet());
+        refresh();
+        syncPosition = position;
+    }
+
+    /**
+     * Makes the writes so far visible to searches and, with an on-disk index, durable.
+     */
+    public void refresh() {
+        try {
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not refresh the search index", e);
+        }
+    }
+
+    public SearchResult search(String text, String category, int page, int size) {
+        if (page < 0 || size < 1 || (page + 1L) * size > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("page " + page + " of size " + size
+                    + " is outside the first " + MAX_RESULT_WINDOW + " hits");
+        }
+        long start = System.nanoTime();
+        Query query = parse(text);
+        Query filtered = query;
+        if (category != null && !category.isBlank()) {
+            filtered = new BooleanQuery.Builder()
+                    .add(query, BooleanClause.Occur.MUST)
+                    .add(new TermQuery(new Term(CATEGORY_EXACT, category)), BooleanClause.Occur.FILTER)
+                    .build();
+        }
+        IndexSearcher searcher = acquire();
+        try {
+            TopDocs top = searcher.search(filtered, (page + 1) * size);
+            StoredFields storedFields = searcher.storedFields();
+            List<SearchResult.Hit> hits = new ArrayList<>(size);
+            ScoreDoc[] scoreDocs = top.scoreDocs;
+            for (int i = page * size; i < scoreDocs.length; i++) {
+                Document document = storedFields.document(scoreDocs[i].doc);
+                IndexableField copies = document.getField(AVAILABLE_COPIES);
+                hits.add(new SearchResult.Hit(document.get(ID), document.get(TITLE), document.get(AUTHOR),
+                        document.get(CATEGORY), copies == null ? null : copies.numericValue().intValue(),
+                        scoreDocs[i].score));
+            }
+            Map<String, Long> categories = categoryCounts(searcher, query);
+            return new SearchResult(hits, top.totalHits.value, categories, (System.nanoTime() - start) / 1_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    public int size() {
+        IndexSearcher searcher = acquire();
+        try {
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            release(searcher);
+        }
+    }
+
+    // One DisjunctionMaxQuery per term, so a term counts once, in its best field
+    Query parse(String text) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return new MatchAllDocsQuery();
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            List<Query> alternatives = new ArrayList<>();
+            FIELD_BOOSTS.forEach((field, boost) -> {
+                alternatives.add(new BoostQuery(new TermQuery(new Term(field, term)), boost));
+                int maxEdits = maxEdits(term);
+                if (maxEdits > 0) {
+                    alternatives.add(new BoostQuery(new FuzzyQuery(new Term(field, term), maxEdits,
+                            FUZZY_PREFIX, FUZZY_EXPANSIONS, true), boost * FUZZY_WEIGHT));
+                }
+            });
+            query.add(new DisjunctionMaxQuery(alternatives, TIE_BREAKER), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    // Short words tolerate fewer typos, otherwise "cat" would also match "car", "hat" and "act"
+    private static int maxEdits(String term) {
+        if (term.length() <= 3) {
+            return 0;
+        }
+        return term.length() <= 6 ? 1 : 2;
+    }
+
+    private Map<String, Long> categoryCounts(IndexSearcher searcher, Query query) throws IOException {
+        SortedSetDocValuesReaderState state = facetState(searcher.getIndexReader());
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (state == null) {
+            return counts;
+        }
+        FacetsCollector collector = searcher.search(query, new FacetsCollectorManager());
+        FacetResult result = new SortedSetDocValuesFacetCounts(state, collector)
+                .getTopChildren(FACET_LIMIT, CATEGORY_FACET);
+        if (result != null) {
+            for (LabelAndValue entry : result.labelValues) {
+                counts.put(entry.label, entry.value.longValue());
+            }
+        }
+        return counts;
+    }
+
+    // Building the ordinal map walks every segment, so it is done once per reader, not per query
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        FacetState current = facetState;
+        if (current != null && current.reader() == reader) {
+            return current.state();
+        }
+        synchronized (this) {
+            current = facetState;
+            if (current == null || current.reader() != reader) {
+                SortedSetDocValuesReaderState state = null;
+                try {
+                    state = new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+                } catch (IllegalArgumentException e) {
+                    // No document carries a category yet
+                }
+                current = new FacetState(reader, state);
+                facetState = current;
+            }
+            return current.state();
+        }
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.YES));
+        }
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private record FacetState(IndexReader reader, SortedSetDocValuesReaderState state) {
+    }
+
+    /**
+     * Standard tokenization, lower-cased and folded to ASCII so "Brontë" matches "bronte".
+     */
+    private static final class BookAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.searchservice.search;
+
+import com.example.searchservice.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads every stored book into the search index once the application is up,
+ * after DataLoader has seeded the sample books. Only used when the index is
+ * not synced from books-management-service (search.sync.enabled=false).
+ */
+@Component
+@ConditionalOnProperty(name = "search.sync.enabled", havingValue = "false")
+public class SearchIndexInitializer {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchEngine searchEngine;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long start = System.nanoTime();
+        searchEngine.indexAll(bookRepository.findAll());
+        System.out.println("Search index built with " + searchEngine.size() + " books in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.searchservice.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of ranked hits, the total number of matches (a lower bound past
+ * 1000) and the match count per category.
+ */
+public record SearchResult(List<Hit> hits, long total, Map<String, Long> categories, long tookMicros) {
+
+    // availableCopies is null for books indexed without inventory, e.g. the local sample books
+    public record Hit(String id, String title, String author, String category, Integer availableCopies,
+                      float score) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.searchservice.sync;
+
+/**
+ * One event of the books-management-service change feed, carrying the
+ * book's full searchable state after the change.
+ */
+public record BookChange(long sequence, Type type, String bookId, String title, String author, String genre,
+                         Integer availableCopies, Integer totalCopies) {
+
+    public enum Type { CREATED, UPDATED, DELETED, AVAILABILITY }
+}
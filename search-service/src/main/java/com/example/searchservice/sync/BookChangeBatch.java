@@ -0,0 +1,10 @@
+package com.example.searchservice.sync;
+
+import java.util.List;
+
+/**
+ * Changes after the requested position, the last sequence handed out so far
+ * and the sequence through which the feed has been trimmed.
+ */
+public record BookChangeBatch(List<BookChange> changes, long head, long trimmedThrough) {
+}
@@ -0,0 +1,22 @@
+package com.example.searchservice.sync;
+
+import java.util.function.Consumer;
+
+/**
+ * Where catalog changes come from: books-management-service over HTTP in
+ * production, an in-memory feed in tests.
+ */
+public interface BookChangeSource {
+
+    /**
+     * Up to {@code limit} changes with a sequence greater than {@code after}, in order.
+     */
+    BookChangeBatch fetch(long after, int limit);
+
+    /**
+     * Passes every active book to {@code sink} and returns the feed head
+     * read before the first book, so replaying the feed from there on top of
+     * the snapshot loses nothing.
+     */
+    long snapshot(Consumer<BookChange> sink);
+}
@@ -0,0 +1,130 @@
+package com.example.searchservice.sync;
+
+import com.example.searchservice.search.BookSearchEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the search index in step with the books-management-service change
+ * feed.
+ * <p>
+ * A fresh index is loaded once from a catalog snapshot; after that only
+ * changes are applied, a batch at a time, and each batch is committed
+ * together with the sequence it reached. With an on-disk index
+ * (search.index.path) a restart resumes from that sequence instead of
+ * reloading. Every change carries the book's full state and changes at or
+ * below the committed sequence are skipped, so replays are harmless.
+ * <p>
+ * A missing sequence usually means a slower writer has not inserted its
+ * event yet, so the sync stops there and waits up to the gap timeout
+ * before moving past it. A consumer that has fallen behind the feed's trim
+ * point reloads from a snapshot.
+ */
+@Component
+@ConditionalOnProperty(name = "search.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class BookChangeSync {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeSync.class);
+
+    private final BookSearchEngine searchEngine;
+    private final BookChangeSource source;
+    private final int batchSize;
+    private final long gapTimeoutNanos;
+    private boolean waitingOnGap;
+    private long gapSince;
+
+    public BookChangeSync(BookSearchEngine searchEngine, BookChangeSource source,
+                          @Value("${search.sync.batch-size:500}") int batchSize,
+                          @Value("${search.sync.gap-timeout-ms:10000}") long gapTimeoutMs) {
+        this.searchEngine = searchEngine;
+        this.source = source;
+        this.batchSize = batchSize;
+        this.gapTimeoutNanos = gapTimeoutMs * 1_000_000;
+    }
+
+    @Scheduled(fixedDelayString = "${search.sync.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            log.warn("Book change sync failed, retrying on the next poll: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies changes until the feed is drained or blocked on a missing
+     * sequence; returns the number applied.
+     */
+    public synchronized int catchUp() {
+        long position = searchEngine.syncPosition();
+        if (position < 0) {
+            position = reload();
+        }
+        int applied = 0;
+        while (true) {
+            BookChangeBatch batch = source.fetch(position, batchSize);
+            if (position < batch.trimmedThrough()) {
+                log.warn("Sync position {} is behind the change feed trim point {}, reloading",
+                        position, batch.trimmedThrough());
+                position = reload();
+                continue;
+            }
+            long reached = position;
+            boolean blocked = false;
+            for (BookChange change : batch.changes()) {
+                if (change.sequence() <= reached) {
+                    continue;
+                }
+                if (change.sequence() != reached + 1 && !gapExpired()) {
+                    blocked = true;
+                    break;
+                }
+                waitingOnGap = false;
+                apply(change);
+                reached = change.sequence();
+                applied++;
+            }
+            if (reached > position) {
+                searchEngine.refresh(reached);
+                position = reached;
+            }
+            if (blocked || batch.changes().size() < batchSize) {
+                return applied;
+            }
+        }
+    }
+
+    private boolean gapExpired() {
+        if (!waitingOnGap) {
+            waitingOnGap = true;
+            gapSince = System.nanoTime();
+            return false;
+        }
+        return System.nanoTime() - gapSince >= gapTimeoutNanos;
+    }
+
+    private void apply(BookChange change) {
+        if (change.type() == BookChange.Type.DELETED) {
+            searchEngine.delete(change.bookId());
+        } else {
+            searchEngine.index(change.bookId(), change.title(), change.author(), change.genre(),
+                    change.availableCopies());
+        }
+    }
+
+    // Searches keep seeing the previous index until the snapshot is committed
+    private long reload() {
+        long start = System.nanoTime();
+        searchEngine.deleteAll();
+        long head = source.snapshot(this::apply);
+        searchEngine.refresh(head);
+        waitingOnGap = false;
+        log.info("Search index reloaded with {} books at change sequence {} in {} ms",
+                searchEngine.size(), head, (System.nanoTime() - start) / 1_000_000);
+        return head;
+    }
+}
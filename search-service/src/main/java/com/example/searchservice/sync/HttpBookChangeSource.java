@@ -0,0 +1,72 @@
+package com.example.searchservice.sync;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Reads the change feed from GET /api/books/changes and the snapshot from
+ * the NDJSON catalog export of books-management-service.
+ */
+@Component
+@ConditionalOnProperty(name = "search.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class HttpBookChangeSource implements BookChangeSource {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private RestTemplate syncRestTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${search.sync.books-service-url:http://localhost:8085}")
+    private String booksServiceUrl;
+
+    @Override
+    public BookChangeBatch fetch(long after, int limit) {
+        return syncRestTemplate.getForObject(booksServiceUrl + "/api/books/changes?after={after}&limit={limit}",
+                BookChangeBatch.class, after, limit);
+    }
+
+    @Override
+    public long snapshot(Consumer<BookChange> sink) {
+        // No change is past Long.MAX_VALUE, so this only returns the head
+        long head = fetch(Long.MAX_VALUE, 1).head();
+        syncRestTemplate.execute(booksServiceUrl + "/api/books", HttpMethod.GET,
+                request -> request.getHeaders().set(HttpHeaders.ACCEPT, NDJSON),
+                response -> {
+                    BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank()) {
+                            sink.accept(toChange(objectMapper.readTree(line)));
+                        }
+                    }
+                    return null;
+                });
+        return head;
+    }
+
+    private static BookChange toChange(JsonNode book) {
+        return new BookChange(0, BookChange.Type.CREATED, book.path("id").asText(),
+                book.path("title").asText(null), book.path("author").asText(null), book.path("genre").asText(null),
+                intOrNull(book.get("availableCopies")), intOrNull(book.get("totalCopies")));
+    }
+
+    private static Integer intOrNull(JsonNode value) {
+        return value == null || value.isNull() ? null : value.asInt();
+    }
+}
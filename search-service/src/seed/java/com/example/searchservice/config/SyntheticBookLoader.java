@@ -0,0 +1,91 @@
+package com.example.searchservice.config;
+
+import com.example.dataset.SyntheticCatalog;
+import com.example.searchservice.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fills an empty database with search.seed.books synthetic books (the same
+ * titles as books-management-service seeds with the same search.seed.seed),
+ * inserted in JDBC batches of search.seed.batch-size, one transaction each,
+ * by search.seed.threads producers. Runs before DataLoader, which then finds
+ * books and skips the samples.
+ * <p>
+ * On MySQL, add rewriteBatchedStatements=true to the JDBC URL, otherwise
+ * every row of a batch is still sent as its own INSERT.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SyntheticBookLoader implements CommandLineRunner {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${search.seed.books:0}")
+    private int seedBooks;
+
+    @Value("${search.seed.seed:42}")
+    private long seed;
+
+    @Value("${search.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${search.seed.threads:0}")
+    private int threads;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (seedBooks <= 0 || bookRepository.count() > 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        int producers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Callable<Integer>> batches = new ArrayList<>();
+            for (long from = 1; from <= seedBooks; from += batchSize) {
+                long first = from;
+                long last = Math.min(seedBooks, from + batchSize - 1);
+                batches.add(() -> saveBatch(first, last));
+            }
+            long saved = 0;
+            for (Future<Integer> batch : executor.invokeAll(batches)) {
+                saved += batch.get();
+            }
+            System.out.println(saved + " synthetic books have been loaded into the database in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int saveBatch(long first, long last) {
+        List<Object[]> rows = new ArrayList<>((int) (last - first + 1));
+        for (long ordinal = first; ordinal <= last; ordinal++) {
+            SyntheticCatalog.Book synthetic = SyntheticCatalog.book(seed, ordinal);
+            rows.add(new Object[]{synthetic.title(), synthetic.author(), synthetic.category()});
+        }
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(DataLoader.INSERT, rows));
+        return rows.size();
+    }
+}
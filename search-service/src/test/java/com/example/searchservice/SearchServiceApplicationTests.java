@@ -0,0 +1,58 @@
+package com.example.searchservice;
+
+import com.example.searchservice.search.SearchResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Without the books-management-service sync, the sample books are stored and indexed at startup;
+// tests turn metrics export off unless asked, so the Prometheus scrape needs @AutoConfigureObservability
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "search.sync.enabled=false")
+class SearchServiceApplicationTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void searchesTheSampleBooks() {
+        SearchResult result = restTemplate.getForObject("/api/search?q=hobit", SearchResult.class);
+
+        assertThat(result.hits()).extracting(SearchResult.Hit::title).containsExactly("The Hobbit");
+        assertThat(result.categories()).containsEntry("Fantasy", 1L);
+    }
+
+    @Test
+    void rejectsPagesPastTheResultWindow() {
+        ResponseEntity<String> last = restTemplate.getForEntity("/api/search?q=hobbit&page=499&size=20", String.class);
+        ResponseEntity<String> beyond = restTemplate.getForEntity("/api/search?q=hobbit&page=500&size=20", String.class);
+        ResponseEntity<String> overflow = restTemplate.getForEntity(
+                "/api/search?q=hobbit&page=" + Integer.MAX_VALUE + "&size=100", String.class);
+
+        assertThat(last.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(beyond.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(overflow.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void exposesSearchMetricsToPrometheus() {
+        restTemplate.getForObject("/api/search?q=hobit", SearchResult.class);
+        restTemplate.getForObject("/api/search?q=zzzzzz&category=Fantasy", SearchResult.class);
+
+        String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        assertThat(scrape)
+                .contains("search_latency_seconds_bucket{filter=\"none\"")
+                .contains("search_latency_seconds_bucket{filter=\"category\"")
+                .contains("search_queries_total{filter=\"none\",outcome=\"hits\"}")
+                .contains("search_queries_total{filter=\"category\",outcome=\"empty\"}")
+                .contains("http_server_requests_seconds_bucket");
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.search.BookSearchEngine;
+import com.example.searchservice.search.SearchResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.searchservice.benchmark.SyntheticCatalog.MULTI;
+import static com.example.searchservice.benchmark.SyntheticCatalog.SINGLE;
+import static com.example.searchservice.benchmark.SyntheticCatalog.TYPO;
+
+/**
+ * Query latency of BookSearchEngine over a {@link SyntheticCatalog} (1M
+ * books by default). "typo" misspells every word, "mixedUnderLoad" runs a
+ * mix of all query shapes from four threads at once. Sample mode reports
+ * p50/p99.
+ *
+ * Run {@link #main} on the test classpath; give it -Xmx2g for 1M books.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookSearchBenchmark {
+
+    @Param("1000000")
+    private int books;
+
+    private BookSearchEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        engine = new BookSearchEngine("", 256);
+        SyntheticCatalog.populate(engine, books, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public SearchResult singleTerm() {
+        return engine.search(pick(SINGLE), null, 0, 20);
+    }
+
+    @Benchmark
+    public SearchResult multiTerm() {
+        return engine.search(pick(MULTI), null, 0, 20);
+    }
+
+    @Benchmark
+    public SearchResult typo() {
+        return engine.search(pick(TYPO), null, 0, 20);
+    }
+
+    @Benchmark
+    public SearchResult categoryFiltered() {
+        return engine.search(pick(MULTI), "Fantasy", 0, 20);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SearchResult mixedUnderLoad() {
+        switch (ThreadLocalRandom.current().nextInt(4)) {
+            case 0:
+                return engine.search(pick(SINGLE), null, 0, 20);
+            case 1:
+                return engine.search(pick(MULTI), null, 0, 20);
+            case 2:
+                return engine.search(pick(TYPO), null, 0, 20);
+            default:
+                return engine.search(pick(MULTI), "Fantasy", 1, 20);
+        }
+    }
+
+    private static String pick(String[] queries) {
+        return queries[ThreadLocalRandom.current().nextInt(queries.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.search.BookSearchEngine;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closed-loop load on BookSearchEngine: {@link #CLIENTS} threads send a
+ * mix of single-term, multi-term, misspelled and category-filtered queries
+ * back to back for {@link #PHASE}, then p50/p99/max and throughput are
+ * printed. Opt-in, with the catalog size set by -Dbenchmark.books:
+ *
+ *   mvn test -Dtest=BookSearchLoadTest -Dbenchmark=true -DargLine=-Xmx2g
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookSearchLoadTest {
+
+    private static final int CLIENTS = 8;
+    private static final Duration PHASE = Duration.ofSeconds(20);
+    private static final double P99_BUDGET_MS = 10;
+
+    private static BookSearchEngine engine;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        engine = new BookSearchEngine("", 256);
+        SyntheticCatalog.populate(engine, Integer.getInteger("benchmark.books", 1_000_000), 42);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        engine.destroy();
+    }
+
+    @Test
+    void p99StaysUnderBudgetWithConcurrentClients() throws Exception {
+        // Warm up the JIT and the page cache before measuring
+        run(Duration.ofSeconds(5));
+
+        long start = System.nanoTime();
+        List<Long> latencies = run(PHASE);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d books, %d clients: %d queries, %.0f q/s | p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                engine.size(), CLIENTS, latencies.size(), latencies.size() / seconds,
+                percentile(latencies, 50), percentile(latencies, 99), percentile(latencies, 100));
+
+        assertThat(percentile(latencies, 99)).isLessThan(P99_BUDGET_MS);
+    }
+
+    private static List<Long> run(Duration duration) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long end = System.nanoTime() + duration.toNanos();
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < end) {
+                        long queryStart = System.nanoTime();
+                        query();
+                        latencies.add(System.nanoTime() - queryStart);
+                    }
+                    return latencies;
+                }));
+            }
+            List<Long> all = new ArrayList<>();
+            for (Future<List<Long>> future : futures) {
+                all.addAll(future.get());
+            }
+            return all;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static void query() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (random.nextInt(4)) {
+            case 0 -> engine.search(pick(SyntheticCatalog.SINGLE, random), null, 0, 20);
+            case 1 -> engine.search(pick(SyntheticCatalog.MULTI, random), null, 0, 20);
+            case 2 -> engine.search(pick(SyntheticCatalog.TYPO, random), null, 0, 20);
+            default -> engine.search(pick(SyntheticCatalog.MULTI, random), "Fantasy", random.nextInt(3), 20);
+        }
+    }
+
+    private static String pick(String[] queries, ThreadLocalRandom random) {
+        return queries[random.nextInt(queries.length)];
+    }
+
+    private static double percentile(List<Long> nanos, int percentile) {
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+}
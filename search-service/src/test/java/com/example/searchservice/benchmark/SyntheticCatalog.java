@@ -0,0 +1,68 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.search.BookSearchEngine;
+
+import java.util.Random;
+
+/**
+ * Deterministic catalog generator shared by the search benchmarks. Titles
+ * draw from a Zipf-like vocabulary so common words match hundreds of
+ * thousands of books and rare ones a handful, as in a real catalog.
+ */
+public final class SyntheticCatalog {
+
+    private static final String[] WORDS = {
+            "the", "of", "and", "night", "house", "river", "shadow", "king", "garden", "war",
+            "secret", "winter", "city", "daughter", "stone", "fire", "island", "journey", "letters", "mountain",
+            "silence", "empire", "storm", "memory", "ocean", "forest", "crown", "glass", "thief", "mirror",
+            "harbor", "wolves", "lantern", "orchard", "cathedral", "compass", "labyrinth", "meridian", "nocturne", "tapestry"};
+    private static final String[] FIRST_NAMES = {
+            "Anna", "James", "Maria", "Kenji", "Fatima", "Oliver", "Chloe", "Dmitri", "Amara", "Lucas",
+            "Ingrid", "Mateo", "Priya", "Samuel", "Yara", "Hugo", "Leila", "Tomas", "Nadia", "Elliot"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Garcia", "Tanaka", "Okafor", "Novak", "Moreau", "Larsen", "Rossi", "Haddad", "Brennan",
+            "Fischer", "Silva", "Kowalski", "Lindqvist", "Mendes", "Petrov", "Quinn", "Sato", "Varga", "Weber"};
+    private static final String[] CATEGORIES = {
+            "Fiction", "Fantasy", "Mystery", "Romance", "Science Fiction", "History", "Biography",
+            "Philosophy", "Poetry", "Thriller", "Dystopian Fiction", "Travel"};
+
+    static final String[] SINGLE = {"labyrinth", "meridian", "cathedral", "nocturne", "orchard"};
+    static final String[] MULTI = {"winter garden", "secret river king", "glass mirror", "storm island journey"};
+    static final String[] TYPO = {"labirynth", "meridain", "catedral", "nocturn", "ochard", "shadwo kingg"};
+
+    private SyntheticCatalog() {
+    }
+
+    /**
+     * Indexes {@code books} synthetic books with ids 0..books-1 and refreshes once.
+     */
+    public static void populate(BookSearchEngine engine, int books, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < books; i++) {
+            engine.index(String.valueOf(i), title(random), author(random),
+                    CATEGORIES[skewed(random, CATEGORIES.length)]);
+        }
+        engine.refresh();
+    }
+
+    private static String title(Random random) {
+        int words = 2 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(WORDS[skewed(random, WORDS.length)]);
+        }
+        return title.toString();
+    }
+
+    private static String author(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[skewed(random, LAST_NAMES.length)];
+    }
+
+    // Roughly 1/rank: the first entries are common, the last ones rare
+    private static int skewed(Random random, int size) {
+        return (int) Math.min(size - 1, Math.floor(Math.pow(size + 1, random.nextDouble())) - 1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.searchservice.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookSearchEngineTest {
+
+    private BookSearchEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new BookSearchEngine("", 16);
+        engine.index("1", "The Hobbit", "J.R.R. Tolkien", "Fantasy");
+        engine.index("2", "Harry Potter and the Philosopher's Stone", "J.K. Rowling", "Fantasy");
+        engine.index("3", "The Alchemist", "Paulo Coelho", "Philosophy");
+        engine.index("4", "Wuthering Heights", "Emily Brontë", "Fiction");
+        engine.index("5", "Philosophy of Mind", "Hobbit Fan", "Philosophy");
+        engine.refresh();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        engine.destroy();
+    }
+
+    @Test
+    void titleMatchesRankAboveAuthorMatches() {
+        assertThat(engine.search("hobbit", null, 0, 10).hits())
+                .extracting(SearchResult.Hit::id)
+                .containsExactly("1", "5");
+    }
+
+    @Test
+    void toleratesTyposAndAccents() {
+        assertThat(engine.search("alchemsit", null, 0, 10).hits())
+                .extracting(SearchResult.Hit::id)
+                .containsExactly("3");
+        assertThat(engine.search("bronte", null, 0, 10).hits())
+                .extracting(SearchResult.Hit::id)
+                .containsExactly("4");
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        assertThat(engine.search("harry hobbit", null, 0, 10).hits()).isEmpty();
+    }
+
+    @Test
+    void categoryFilterNarrowsHitsButNotFacetCounts() {
+        SearchResult result = engine.search("the", "Fantasy", 0, 10);
+
+        assertThat(result.hits()).extracting(SearchResult.Hit::id).containsExactlyInAnyOrder("1", "2");
+        assertThat(result.categories()).containsEntry("Fantasy", 2L).containsEntry("Philosophy", 1L);
+    }
+
+    @Test
+    void reindexingReplacesAndDeleteRemoves() {
+        engine.index("3", "The Pilgrimage", "Paulo Coelho", "Philosophy");
+        engine.delete("1");
+        engine.refresh();
+
+        assertThat(engine.search("alchemist", null, 0, 10).hits()).isEmpty();
+        assertThat(engine.search("hobbit", null, 0, 10).hits()).extracting(SearchResult.Hit::id).containsExactly("5");
+        assertThat(engine.size()).isEqualTo(4);
+    }
+
+    @Test
+    void pagesStopAtTheResultWindow() {
+        int size = 20;
+        int lastPage = BookSearchEngine.MAX_RESULT_WINDOW / size - 1;
+
+        assertThat(engine.search("hobbit", null, lastPage, size).hits()).isEmpty();
+        assertThatThrownBy(() -> engine.search("hobbit", null, lastPage + 1, size))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> engine.search("hobbit", null, Integer.MAX_VALUE, size))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
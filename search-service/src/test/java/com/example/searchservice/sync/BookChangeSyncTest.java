@@ -0,0 +1,148 @@
+package com.example.searchservice.sync;
+
+import com.example.searchservice.search.BookSearchEngine;
+import com.example.searchservice.search.SearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookChangeSyncTest {
+
+    @TempDir
+    Path indexDir;
+
+    private final InMemoryBookChangeSource source = new InMemoryBookChangeSource();
+    private BookSearchEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        source.publish(BookChange.Type.CREATED, "1", "The Hobbit", "J.R.R. Tolkien", "Fantasy", 3);
+        source.publish(BookChange.Type.CREATED, "2", "The Alchemist", "Paulo Coelho", "Philosophy", 1);
+        engine = new BookSearchEngine(indexDir.toString(), 16);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        engine.destroy();
+    }
+
+    @Test
+    void freshIndexLoadsSnapshotThenAppliesOnlyChanges() {
+        BookChangeSync sync = new BookChangeSync(engine, source, 100, 10_000);
+        sync.catchUp();
+
+        assertThat(source.snapshots).isEqualTo(1);
+        assertThat(engine.syncPosition()).isEqualTo(2);
+        assertThat(ids("hobbit")).containsExactly("1");
+
+        source.publish(BookChange.Type.UPDATED, "1", "The Hobbit, or There and Back Again", "J.R.R. Tolkien",
+                "Fantasy", 3);
+        source.publish(BookChange.Type.AVAILABILITY, "2", "The Alchemist", "Paulo Coelho", "Philosophy", 0);
+        source.publish(BookChange.Type.DELETED, "1", "The Hobbit, or There and Back Again", "J.R.R. Tolkien",
+                "Fantasy", 3);
+
+        assertThat(sync.catchUp()).isEqualTo(3);
+        assertThat(source.snapshots).isEqualTo(1);
+        assertThat(engine.syncPosition()).isEqualTo(5);
+        assertThat(ids("hobbit")).isEmpty();
+        assertThat(engine.search("alchemist", null, 0, 10).hits().get(0).availableCopies()).isZero();
+    }
+
+    @Test
+    void drainsLargeBacklogsInBatches() {
+        BookChangeSync sync = new BookChangeSync(engine, source, 10, 10_000);
+        sync.catchUp();
+        for (int i = 0; i < 95; i++) {
+            source.publish(BookChange.Type.CREATED, "n" + i, "Volume " + i, "Anonymous", "Poetry", 1);
+        }
+        int fetchesBefore = source.fetches;
+
+        assertThat(sync.catchUp()).isEqualTo(95);
+        assertThat(source.fetches - fetchesBefore).isEqualTo(10);
+        assertThat(engine.size()).isEqualTo(97);
+    }
+
+    @Test
+    void restartResumesFromTheCommittedPosition() throws Exception {
+        new BookChangeSync(engine, source, 100, 10_000).catchUp();
+        engine.destroy();
+
+        source.publish(BookChange.Type.CREATED, "3", "Dune", "Frank Herbert", "Science Fiction", 2);
+        engine = new BookSearchEngine(indexDir.toString(), 16);
+        BookChangeSync restarted = new BookChangeSync(engine, source, 100, 10_000);
+
+        assertThat(engine.syncPosition()).isEqualTo(2);
+        assertThat(restarted.catchUp()).isEqualTo(1);
+        assertThat(source.snapshots).isEqualTo(1);
+        assertThat(ids("dune")).containsExactly("3");
+        assertThat(engine.size()).isEqualTo(3);
+    }
+
+    @Test
+    void replayedChangesAreIgnored() {
+        BookChangeSync sync = new BookChangeSync(engine, source, 100, 10_000);
+        sync.catchUp();
+        source.publish(BookChange.Type.DELETED, "2", "The Alchemist", "Paulo Coelho", "Philosophy", 1);
+        sync.catchUp();
+
+        // Re-delivering the creation must not resurrect the deleted book
+        source.redeliver = 3;
+
+        assertThat(sync.catchUp()).isZero();
+        assertThat(ids("alchemist")).isEmpty();
+    }
+
+    @Test
+    void waitsOnAMissingSequenceUntilItArrives() {
+        BookChangeSync sync = new BookChangeSync(engine, source, 100, 60_000);
+        sync.catchUp();
+        long slowWriter = source.reserve();
+        source.publish(BookChange.Type.CREATED, "4", "Emma", "Jane Austen", "Romance", 1);
+
+        assertThat(sync.catchUp()).isZero();
+        assertThat(engine.syncPosition()).isEqualTo(2);
+
+        source.publish(slowWriter, BookChange.Type.CREATED, "3", "Dune", "Frank Herbert", "Science Fiction", 2);
+
+        assertThat(sync.catchUp()).isEqualTo(2);
+        assertThat(engine.syncPosition()).isEqualTo(4);
+    }
+
+    @Test
+    void movesPastAMissingSequenceAfterTheGapTimeout() {
+        BookChangeSync sync = new BookChangeSync(engine, source, 100, 0);
+        sync.catchUp();
+        source.reserve();
+        source.publish(BookChange.Type.CREATED, "4", "Emma", "Jane Austen", "Romance", 1);
+
+        assertThat(sync.catchUp()).isZero();
+        assertThat(sync.catchUp()).isEqualTo(1);
+        assertThat(engine.syncPosition()).isEqualTo(4);
+    }
+
+    @Test
+    void fallingBehindTheTrimPointReloads() {
+        BookChangeSync sync = new BookChangeSync(engine, source, 100, 10_000);
+        sync.catchUp();
+        source.publish(BookChange.Type.DELETED, "1", "The Hobbit", "J.R.R. Tolkien", "Fantasy", 3);
+        source.publish(BookChange.Type.CREATED, "3", "Dune", "Frank Herbert", "Science Fiction", 2);
+        source.trimThrough(4);
+
+        sync.catchUp();
+
+        assertThat(source.snapshots).isEqualTo(2);
+        assertThat(engine.syncPosition()).isEqualTo(4);
+        assertThat(ids("hobbit")).isEmpty();
+        assertThat(ids("dune")).containsExactly("3");
+    }
+
+    private List<String> ids(String query) {
+        return engine.search(query, null, 0, 10).hits().stream().map(SearchResult.Hit::id).toList();
+    }
+}
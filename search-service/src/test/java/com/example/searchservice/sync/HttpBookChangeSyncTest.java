@@ -0,0 +1,107 @@
+package com.example.searchservice.sync;
+
+import com.example.searchservice.search.BookSearchEngine;
+import com.example.searchservice.search.SearchResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the sync through the real HTTP source against a stub of the
+ * books-management-service feed and export, in the JSON they produce
+ * (including fields the search service does not read).
+ */
+// The scheduled poll only runs once at startup; the test drives catchUp itself
+@SpringBootTest(properties = "search.sync.poll-interval-ms=3600000")
+class HttpBookChangeSyncTest {
+
+    private static final List<String> changes = new CopyOnWriteArrayList<>();
+    private static volatile long head = 0;
+    private static final HttpServer stub = startStub();
+
+    @DynamicPropertySource
+    static void booksServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("search.sync.books-service-url", () -> "http://localhost:" + stub.getAddress().getPort());
+    }
+
+    @Autowired
+    private BookChangeSync sync;
+
+    @Autowired
+    private BookSearchEngine searchEngine;
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void loadsTheExportThenAppliesTheFeed() {
+        sync.catchUp();
+        assertThat(search("dune")).extracting(SearchResult.Hit::id).containsExactly("b2");
+
+        changes.add(change(1, "UPDATED", "b1", "The Hobbit", 0));
+        changes.add(change(2, "DELETED", "b2", "Dune", 3));
+        head = 2;
+
+        assertThat(sync.catchUp()).isEqualTo(2);
+        assertThat(search("dune")).isEmpty();
+        assertThat(search("hobbit")).extracting(SearchResult.Hit::availableCopies).containsExactly(0);
+        assertThat(searchEngine.syncPosition()).isEqualTo(2);
+    }
+
+    private List<SearchResult.Hit> search(String text) {
+        return searchEngine.search(text, null, 0, 10).hits();
+    }
+
+    private static String change(long sequence, String type, String bookId, String title, int availableCopies) {
+        return "{\"id\":\"c" + sequence + "\",\"sequence\":" + sequence + ",\"type\":\"" + type + "\"," +
+                "\"bookId\":\"" + bookId + "\",\"title\":\"" + title + "\",\"author\":\"Someone\"," +
+                "\"genre\":\"Fiction\",\"availableCopies\":" + availableCopies + ",\"totalCopies\":3," +
+                "\"createdAt\":\"2025-01-01T10:00:00\"}";
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/api/books/changes", exchange -> {
+                long after = Long.parseLong(exchange.getRequestURI().getQuery().replaceAll(".*after=(\\d+).*", "$1"));
+                List<String> batch = changes.stream()
+                        .filter(change -> Long.parseLong(change.replaceAll(".*\"sequence\":(\\d+).*", "$1")) > after)
+                        .toList();
+                respond(exchange, "application/json",
+                        "{\"changes\":[" + String.join(",", batch) + "],\"head\":" + head + ",\"trimmedThrough\":0}");
+            });
+            server.createContext("/api/books", exchange -> respond(exchange, "application/x-ndjson",
+                    "{\"id\":\"b1\",\"title\":\"The Hobbit\",\"author\":\"J.R.R. Tolkien\",\"isbn\":\"1\"," +
+                            "\"genre\":\"Fantasy\",\"availableCopies\":2,\"totalCopies\":3,\"isActive\":true}\n" +
+                            "{\"id\":\"b2\",\"title\":\"Dune\",\"author\":\"Frank Herbert\",\"isbn\":\"2\"," +
+                            "\"genre\":\"Science Fiction\",\"availableCopies\":3,\"totalCopies\":3,\"isActive\":true}\n"));
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.searchservice.sync;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in for the books-management-service change feed: a catalog plus an
+ * ordered log of its changes. Sequences can be reserved and published
+ * later, or never, to recreate slow and failed writers, and fetches can
+ * re-deliver changes the consumer has already seen.
+ */
+class InMemoryBookChangeSource implements BookChangeSource {
+
+    private final Map<String, BookChange> catalog = new LinkedHashMap<>();
+    private final TreeMap<Long, BookChange> log = new TreeMap<>();
+    private long head;
+    private long trimmedThrough;
+    int snapshots;
+    int fetches;
+    int redeliver;
+
+    synchronized long reserve() {
+        return ++head;
+    }
+
+    synchronized void publish(BookChange.Type type, String id, String title, String author, String genre,
+                              Integer copies) {
+        publish(reserve(), type, id, title, author, genre, copies);
+    }
+
+    synchronized void publish(long sequence, BookChange.Type type, String id, String title, String author,
+                              String genre, Integer copies) {
+        BookChange change = new BookChange(sequence, type, id, title, author, genre, copies, copies);
+        if (type == BookChange.Type.DELETED) {
+            catalog.remove(id);
+        } else {
+            catalog.put(id, change);
+        }
+        log.put(sequence, change);
+    }
+
+    synchronized void trimThrough(long sequence) {
+        trimmedThrough = sequence;
+        log.headMap(sequence, true).clear();
+    }
+
+    @Override
+    public synchronized BookChangeBatch fetch(long after, int limit) {
+        fetches++;
+        List<BookChange> changes = new ArrayList<>();
+        for (BookChange change : log.tailMap(after - redeliver, false).values()) {
+            if (changes.size() == limit) {
+                break;
+            }
+            changes.add(change);
+        }
+        return new BookChangeBatch(changes, head, trimmedThrough);
+    }
+
+    @Override
+    public synchronized long snapshot(Consumer<BookChange> sink) {
+        snapshots++;
+        catalog.values().forEach(sink);
+        return head;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.dataset;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic books for seeding: book {@code ordinal} is a pure
+ * function of (seed, ordinal), so any service can regenerate the title,
+ * author and category of a catalog book without the rest of the catalog.
+ * Title words, surnames and categories follow a Zipf-like vocabulary, so
+ * common words match a large share of the catalog and rare ones a handful.
+ * Changing the vocabularies or the draw order changes every seeded dataset.
+ */
+public final class SyntheticCatalog {
+
+    private static final String[] WORDS = {
+            "Night", "House", "River", "Shadow", "King", "Garden", "War", "Secret", "Winter", "City",
+            "Daughter", "Stone", "Fire", "Island", "Journey", "Letters", "Mountain", "Silence", "Empire", "Storm",
+            "Memory", "Ocean", "Forest", "Crown", "Glass", "Thief", "Mirror", "Harbor", "Wolves", "Lantern",
+            "Orchard", "Cathedral", "Compass", "Labyrinth", "Meridian", "Nocturne", "Tapestry"};
+    private static final String[] TITLE_PATTERNS = {"The %s", "%s of the %s", "The %s and the %s", "The %s %s", "%s %s"};
+    private static final String[] FIRST_NAMES = {
+            "Anna", "James", "Maria", "Kenji", "Fatima", "Oliver", "Chloe", "Dmitri", "Amara", "Lucas",
+            "Ingrid", "Mateo", "Priya", "Samuel", "Yara", "Hugo", "Leila", "Tomas", "Nadia", "Elliot"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Garcia", "Tanaka", "Okafor", "Novak", "Moreau", "Larsen", "Rossi", "Haddad", "Brennan",
+            "Fischer", "Silva", "Kowalski", "Lindqvist", "Mendes", "Petrov", "Quinn", "Sato", "Varga", "Weber"};
+    private static final String[] CATEGORIES = {
+            "Fiction", "Fantasy", "Mystery", "Romance", "Science Fiction", "History", "Biography",
+            "Philosophy", "Poetry", "Thriller", "Dystopian Fiction", "Travel"};
+    private static final String[] PUBLISHERS = {
+            "Synthetic Press", "Meridian Books", "Lantern House", "Orchard Editions", "Harbor & Crown"};
+
+    public record Book(String title, String author, String category, String isbn, String description,
+                       int publicationYear, String publisher, int copies) {
+    }
+
+    private SyntheticCatalog() {
+    }
+
+    /**
+     * A valid ObjectId holding the ordinal, so loan-service's numeric book
+     * ids map one to one onto seeded Mongo ids.
+     */
+    public static String bookId(long ordinal) {
+        return String.format("%024x", ordinal);
+    }
+
+    public static Book book(long seed, long ordinal) {
+        SplittableRandom random = random(seed, ordinal);
+        String title = title(random);
+        String author = author(random);
+        String category = CATEGORIES[skewed(random, CATEGORIES.length)];
+
+        int publicationYear = 1900 + random.nextInt(125);
+        String publisher = PUBLISHERS[random.nextInt(PUBLISHERS.length)];
+        int copies = 1 + random.nextInt(5);
+        return new Book(title, author, category, String.format("978-%010d", ordinal),
+                "Synthetic description for " + title, publicationYear, publisher, copies);
+    }
+
+    private static SplittableRandom random(long seed, long ordinal) {
+        return new SplittableRandom(seed ^ (ordinal * 0x9E3779B97F4A7C15L));
+    }
+
+    // Always two word draws, whatever the pattern, so later draws stay aligned
+    private static String title(SplittableRandom random) {
+        String pattern = TITLE_PATTERNS[random.nextInt(TITLE_PATTERNS.length)];
+        String first = WORDS[skewed(random, WORDS.length)];
+        String second = WORDS[skewed(random, WORDS.length)];
+        return String.format(pattern, first, second);
+    }
+
+    private static String author(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[skewed(random, LAST_NAMES.length)];
+    }
+
+    // Roughly 1/rank: the first entries are common, the last ones rare
+    private static int skewed(SplittableRandom random, int size) {
+        return (int) Math.min(size - 1, Math.floor(Math.pow(size + 1, random.nextDouble())) - 1);
+    }
+}
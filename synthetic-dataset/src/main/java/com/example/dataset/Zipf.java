@@ -0,0 +1,72 @@
+package com.example.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf-like popularity over {@code n} items: rank r (0 = most popular) has
+ * weight 1 / (r + 1)^skew. Ranks map to ordinals 1..n through a fixed
+ * permutation, so the popular items are spread over the id range instead of
+ * being the lowest ids. Every service's seeder draws from this class, so
+ * the same n, skew and seed give the same popular books everywhere.
+ */
+public final class Zipf {
+
+    private final int n;
+    private final double skew;
+    private final double[] cumulative;
+    private final double total;
+    private final long stride;
+
+    public Zipf(int n, double skew) {
+        if (n < 1 || skew < 0) {
+            throw new IllegalArgumentException("Zipf needs n >= 1 and skew >= 0, got n=" + n + ", skew=" + skew);
+        }
+        this.n = n;
+        this.skew = skew;
+        this.cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += Math.pow(rank + 1, -skew);
+            cumulative[rank] = sum;
+        }
+        this.total = sum;
+        // Golden-ratio stride, moved to the next value coprime with n so that it is a permutation
+        long candidate = Math.max(1, Math.round(n * 0.6180339887));
+        while (gcd(candidate, n) != 1) {
+            candidate++;
+        }
+        this.stride = candidate;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int sampleRank(SplittableRandom random) {
+        int position = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+        int rank = position >= 0 ? position : -position - 1;
+        return Math.min(rank, n - 1);
+    }
+
+    public long sample(SplittableRandom random) {
+        return ordinal(sampleRank(random));
+    }
+
+    public double probability(int rank) {
+        return Math.pow(rank + 1, -skew) / total;
+    }
+
+    public long ordinal(int rank) {
+        return (rank + 1L) * stride % n + 1;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.dataset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SyntheticCatalogTest {
+
+    @Test
+    void booksAreAPureFunctionOfSeedAndOrdinal() {
+        SyntheticCatalog.Book first = SyntheticCatalog.book(42L, 7);
+
+        assertThat(SyntheticCatalog.book(42L, 7)).isEqualTo(first);
+        assertThat(first.isbn()).isEqualTo("978-0000000007");
+        assertThat(SyntheticCatalog.bookId(7)).isEqualTo("000000000000000000000007");
+        assertThat(IntStream.rangeClosed(1, 50).filter(ordinal -> !SyntheticCatalog.book(42L, ordinal).title()
+                .equals(SyntheticCatalog.book(43L, ordinal).title())).count()).isGreaterThan(25);
+    }
+
+    @Test
+    void zipfRanksArePermutedOverAllOrdinals() {
+        for (int n : new int[]{1, 2, 10, 1_000, 1_048_576}) {
+            Zipf zipf = new Zipf(n, 0.8);
+            assertThat(IntStream.range(0, n).mapToLong(zipf::ordinal).distinct().count()).isEqualTo(n);
+            assertThat(IntStream.range(0, n).mapToLong(zipf::ordinal).min().getAsLong()).isEqualTo(1);
+            assertThat(IntStream.range(0, n).mapToLong(zipf::ordinal).max().getAsLong()).isEqualTo(n);
+        }
+    }
+
+    @Test
+    void zipfSamplesFollowTheWeights() {
+        Zipf zipf = new Zipf(1_000, 1.0);
+        SplittableRandom random = new SplittableRandom(42L);
+        int samples = 200_000;
+        long topRank = IntStream.range(0, samples).filter(i -> zipf.sampleRank(random) == 0).count();
+
+        assertThat((double) topRank / samples).isCloseTo(zipf.probability(0), within(0.005));
+        assertThat(IntStream.range(0, 1_000).mapToDouble(zipf::probability).sum()).isCloseTo(1.0, within(1e-9));
+        assertThat(LongStream.of(zipf.ordinal(0), zipf.ordinal(1)).boxed().collect(Collectors.toSet()))
+                .doesNotContain(1L, 2L);
+    }
+}
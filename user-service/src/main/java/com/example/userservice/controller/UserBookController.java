@@ -0,0 +1,60 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.ReadingStatsResponse;
+import com.example.userservice.dto.UserBookRequest;
+import com.example.userservice.entity.User;
+import com.example.userservice.entity.UserBook;
+import com.example.userservice.service.UserBookService;
+import com.example.userservice.service.UserCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/user-books")
+public class UserBookController {
+
+    @Autowired
+    private UserBookService userBookService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @PostMapping
+    public UserBook addBook(@AuthenticationPrincipal UserDetails userDetails, @RequestBody UserBookRequest request) {
+        request.setUserId(requireCaller(userDetails, request.getUserId()));
+        return userBookService.addBook(request);
+    }
+
+    @PutMapping("/{bookId}/user/{userId}")
+    public UserBook updateBook(@AuthenticationPrincipal UserDetails userDetails, @PathVariable Long bookId,
+                               @PathVariable Long userId, @RequestBody UserBookRequest request) {
+        return userBookService.updateBook(bookId, requireCaller(userDetails, userId), request);
+    }
+
+    @DeleteMapping("/{bookId}/user/{userId}")
+    public void deleteBook(@AuthenticationPrincipal UserDetails userDetails, @PathVariable Long bookId,
+                           @PathVariable Long userId) {
+        userBookService.deleteBook(bookId, requireCaller(userDetails, userId));
+    }
+
+    @GetMapping("/user/{userId}/stats")
+    public ReadingStatsResponse getReadingStats(@AuthenticationPrincipal UserDetails userDetails,
+                                                @PathVariable Long userId) {
+        return userBookService.getReadingStats(requireCaller(userDetails, userId));
+    }
+
+    // Users only reach their own books and stats; a missing userId means the caller
+    private Long requireCaller(UserDetails userDetails, Long userId) {
+        Long callerId = userCache.findByUsername(userDetails.getUsername())
+                .map(User::getId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN));
+        if (userId != null && !userId.equals(callerId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot access another user's books");
+        }
+        return callerId;
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.userservice.controller;
 
 import com.example.userservice.entity.User;
-import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,11 +12,11 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     @Autowired
-    private UserRepository userRepo;
+    private UserCache userCache;
 
     @GetMapping("/profile")
     public User getProfile(@AuthenticationPrincipal UserDetails userDetails) {
-        return userRepo.findByUsername(userDetails.getUsername())
+        return userCache.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 }
@@ -0,0 +1,42 @@
+package com.example.userservice.dto;
+
+/**
+ * Result of UserBookRepository#aggregateReadingStats: every figure of a
+ * ReadingStatsResponse from one grouped scan. The rating is kept as sum and
+ * count so it can also seed the materialized UserReadingStats row.
+ */
+public class ReadingStatsAggregate {
+    private final Long totalBooks;
+    private final Long booksRead;
+    private final Long booksInProgress;
+    private final Long booksInWishlist;
+    private final Long totalPagesRead;
+    private final Long ratingSum;
+    private final Long ratingCount;
+
+    public ReadingStatsAggregate(Long totalBooks, Long booksRead, Long booksInProgress, Long booksInWishlist,
+                                 Long totalPagesRead, Long ratingSum, Long ratingCount) {
+        this.totalBooks = totalBooks;
+        this.booksRead = booksRead;
+        this.booksInProgress = booksInProgress;
+        this.booksInWishlist = booksInWishlist;
+        this.totalPagesRead = totalPagesRead;
+        this.ratingSum = ratingSum;
+        this.ratingCount = ratingCount;
+    }
+
+    public ReadingStatsResponse toResponse() {
+        Double averageRating = ratingCount == null || ratingCount == 0 ? null : (double) ratingSum / ratingCount;
+        return new ReadingStatsResponse(totalBooks, booksRead, booksInProgress, booksInWishlist,
+                totalPagesRead, averageRating);
+    }
+
+    // Getters
+    public Long getTotalBooks() { return totalBooks; }
+    public Long getBooksRead() { return booksRead; }
+    public Long getBooksInProgress() { return booksInProgress; }
+    public Long getBooksInWishlist() { return booksInWishlist; }
+    public Long getTotalPagesRead() { return totalPagesRead; }
+    public Long getRatingSum() { return ratingSum; }
+    public Long getRatingCount() { return ratingCount; }
+}
@@ -3,6 +3,7 @@ package com.example.userservice.dto;
 import com.example.userservice.entity.UserBook;
 
 public class UserBookRequest {
+    private Long userId;
     private String title;
     private String author;
     private String category;
@@ -16,6 +17,9 @@ public class UserBookRequest {
     public UserBookRequest() {}
 
     // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
 
@@ -0,0 +1,95 @@
+package com.example.userservice.entity;
+
+import com.example.userservice.dto.ReadingStatsAggregate;
+import com.example.userservice.dto.ReadingStatsResponse;
+import jakarta.persistence.*;
+
+/**
+ * Materialized reading statistics, one row per user, adjusted by
+ * UserBookService on every add, update and delete so the dashboard reads
+ * a single row instead of aggregating user_books.
+ */
+@Entity
+@Table(name = "user_reading_stats")
+public class UserReadingStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "total_books")
+    private long totalBooks;
+
+    @Column(name = "books_read")
+    private long booksRead;
+
+    @Column(name = "books_in_progress")
+    private long booksInProgress;
+
+    @Column(name = "books_in_wishlist")
+    private long booksInWishlist;
+
+    @Column(name = "pages_read")
+    private long pagesRead;
+
+    @Column(name = "rating_sum")
+    private long ratingSum;
+
+    @Column(name = "rating_count")
+    private long ratingCount;
+
+    // Constructors
+    public UserReadingStats() {}
+
+    public UserReadingStats(Long userId) {
+        this.userId = userId;
+    }
+
+    public static UserReadingStats from(Long userId, ReadingStatsAggregate aggregate) {
+        UserReadingStats stats = new UserReadingStats(userId);
+        stats.totalBooks = aggregate.getTotalBooks();
+        stats.booksRead = aggregate.getBooksRead();
+        stats.booksInProgress = aggregate.getBooksInProgress();
+        stats.booksInWishlist = aggregate.getBooksInWishlist();
+        stats.pagesRead = aggregate.getTotalPagesRead() == null ? 0 : aggregate.getTotalPagesRead();
+        stats.ratingSum = aggregate.getRatingSum() == null ? 0 : aggregate.getRatingSum();
+        stats.ratingCount = aggregate.getRatingCount() == null ? 0 : aggregate.getRatingCount();
+        return stats;
+    }
+
+    // Adds (sign = 1) or removes (sign = -1) one book's contribution
+    public void apply(UserBook.BookStatus status, Integer currentPage, Integer rating, int sign) {
+        totalBooks += sign;
+        if (status == UserBook.BookStatus.READ) {
+            booksRead += sign;
+        } else if (status == UserBook.BookStatus.READING) {
+            booksInProgress += sign;
+        } else if (status == UserBook.BookStatus.WISHLIST) {
+            booksInWishlist += sign;
+        }
+        if (currentPage != null) {
+            pagesRead += (long) sign * currentPage;
+        }
+        if (rating != null && rating > 0) {
+            ratingSum += (long) sign * rating;
+            ratingCount += sign;
+        }
+    }
+
+    // Same nulls as the aggregate query: no pages without books, no average without ratings
+    public ReadingStatsResponse toResponse() {
+        return new ReadingStatsResponse(totalBooks, booksRead, booksInProgress, booksInWishlist,
+                totalBooks == 0 ? null : pagesRead,
+                ratingCount == 0 ? null : (double) ratingSum / ratingCount);
+    }
+
+    // Getters
+    public Long getUserId() { return userId; }
+    public long getTotalBooks() { return totalBooks; }
+    public long getBooksRead() { return booksRead; }
+    public long getBooksInProgress() { return booksInProgress; }
+    public long getBooksInWishlist() { return booksInWishlist; }
+    public long getPagesRead() { return pagesRead; }
+    public long getRatingSum() { return ratingSum; }
+    public long getRatingCount() { return ratingCount; }
+}
@@ -1,5 +1,6 @@
 package com.example.userservice.repository;
 
+import com.example.userservice.dto.ReadingStatsAggregate;
 import com.example.userservice.entity.UserBook;
 import com.example.userservice.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -28,6 +29,18 @@ public interface UserBookRepository extends JpaRepository<UserBook, Long> {
     @Query("SELECT SUM(ub.currentPage) FROM UserBook ub WHERE ub.user = :user")
     Long getTotalPagesReadByUser(@Param("user") User user);
     
+    // Everything ReadingStatsResponse needs in one pass over the user's rows
+    @Query("SELECT new com.example.userservice.dto.ReadingStatsAggregate(" +
+            "COUNT(ub), " +
+            "COUNT(CASE WHEN ub.status = com.example.userservice.entity.UserBook.BookStatus.READ THEN 1 END), " +
+            "COUNT(CASE WHEN ub.status = com.example.userservice.entity.UserBook.BookStatus.READING THEN 1 END), " +
+            "COUNT(CASE WHEN ub.status = com.example.userservice.entity.UserBook.BookStatus.WISHLIST THEN 1 END), " +
+            "SUM(ub.currentPage), " +
+            "SUM(CASE WHEN ub.rating > 0 THEN ub.rating END), " +
+            "COUNT(CASE WHEN ub.rating > 0 THEN 1 END)) " +
+            "FROM UserBook ub WHERE ub.user = :user")
+    ReadingStatsAggregate aggregateReadingStats(@Param("user") User user);
+    
     @Query("SELECT ub FROM UserBook ub WHERE ub.user = :user AND (ub.dateFinished IS NOT NULL OR ub.dateStarted IS NOT NULL) ORDER BY COALESCE(ub.dateFinished, ub.dateStarted) DESC")
     List<UserBook> findRecentActivityByUser(@Param("user") User user);
 }
@@ -0,0 +1,27 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.UserReadingStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface UserReadingStatsRepository extends JpaRepository<UserReadingStats, Long> {
+
+    // Serializes concurrent adjustments of the same user's row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserReadingStats s WHERE s.userId = :userId")
+    Optional<UserReadingStats> findForUpdate(@Param("userId") Long userId);
+
+    // Gives findForUpdate a row to lock on a user's first write. Returns 1 if it created the row;
+    // a concurrent first write waits on the new key, then inserts nothing and returns 0.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO user_reading_stats (user_id, total_books, books_read, books_in_progress, " +
+            "books_in_wishlist, pages_read, rating_sum, rating_count) VALUES (:userId, 0, 0, 0, 0, 0, 0, 0)",
+            nativeQuery = true)
+    int insertIfMissing(@Param("userId") Long userId);
+}
@@ -0,0 +1,11 @@
+package com.example.userservice.security;
+
+/**
+ * The password hashing pool is saturated; answered with 503 and Retry-After.
+ */
+public class HashingOverloadedException extends RuntimeException {
+
+    public HashingOverloadedException(String message) {
+        super(message);
+    }
+}
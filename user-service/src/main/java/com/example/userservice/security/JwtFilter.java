@@ -1,12 +1,18 @@
 package com.example.userservice.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,23 +28,23 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private MyUserDetailsService userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain)
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtUtil.extractUsername(token);
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token)) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = authenticate(authHeader.substring(7));
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
@@ -49,5 +55,33 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
 
+    // Cache hit: one hash lookup. Miss: one signature check and one user lookup, then cached until expiry
+    private UserDetails authenticate(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        UserDetails cached = tokenCache.get(token);
+        if (cached != null) {
+            sample.stop(timer("cached"));
+            return cached;
+        }
+        try {
+            Claims claims = jwtUtil.parseVerifiedClaims(token);
+            UserDetails loaded = userDetailsService.loadUserByUsername(claims.getSubject());
+            // The cached principal never needs the password hash
+            UserDetails principal = new User(loaded.getUsername(), "", loaded.getAuthorities());
+            tokenCache.put(token, principal, claims.getExpiration());
+            sample.stop(timer("verified"));
+            return principal;
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            sample.stop(timer("rejected"));
+            return null;
+        }
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder("security.jwt.filter")
+                .description("Bearer token authentication, by cache and verification outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.userservice.dto.*;
 import com.example.userservice.entity.User;
 import com.example.userservice.repository.UserRepository;
 import com.example.userservice.security.JwtUtil;
+import com.example.userservice.security.PasswordHashingExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -24,22 +25,30 @@ public class AuthService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private PasswordHashingExecutor hashingExecutor;
+
     public AuthResponse register(RegisterRequest request) {
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(hashingExecutor.execute(() -> passwordEncoder.encode(request.getPassword())))
                 .role(request.getRole())
                 .build();
         userRepo.save(user);
+        userCache.invalidate(user.getUsername());
         String token = jwtUtil.generateToken(user.getUsername());
         return new AuthResponse(token);
     }
 
     public AuthResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
+        // The BCrypt check inside authenticate() runs on the hashing pool, not the request thread
+        hashingExecutor.execute(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
+        ));
         String token = jwtUtil.generateToken(request.getUsername());
         return new AuthResponse(token);
     }
@@ -0,0 +1,123 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.ReadingStatsResponse;
+import com.example.userservice.dto.UserBookRequest;
+import com.example.userservice.entity.User;
+import com.example.userservice.entity.UserBook;
+import com.example.userservice.entity.UserReadingStats;
+import com.example.userservice.repository.UserBookRepository;
+import com.example.userservice.repository.UserReadingStatsRepository;
+import com.example.userservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+public class UserBookService {
+
+    @Autowired
+    private UserBookRepository userBookRepo;
+
+    @Autowired
+    private UserReadingStatsRepository statsRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Transactional
+    public UserBook addBook(UserBookRequest request) {
+        User user = findUser(request.getUserId());
+        UserReadingStats stats = lockStats(user);
+        UserBook book = new UserBook(user, request.getTitle(), request.getAuthor());
+        applyRequest(book, request);
+        userBookRepo.save(book);
+        recordChange(stats, null, book);
+        return book;
+    }
+
+    @Transactional
+    public UserBook updateBook(Long bookId, Long userId, UserBookRequest request) {
+        // Lock the stats row before reading the book so "before" cannot be stale
+        User user = findUser(userId);
+        UserReadingStats stats = lockStats(user);
+        UserBook book = findBook(user, bookId);
+        Contribution before = Contribution.of(book);
+        applyRequest(book, request);
+        userBookRepo.save(book);
+        recordChange(stats, before, book);
+        return book;
+    }
+
+    @Transactional
+    public void deleteBook(Long bookId, Long userId) {
+        User user = findUser(userId);
+        UserReadingStats stats = lockStats(user);
+        UserBook book = findBook(user, bookId);
+        Contribution before = Contribution.of(book);
+        userBookRepo.delete(book);
+        recordChange(stats, before, null);
+    }
+
+    // One primary-key read; users who never wrote since the row was introduced get the one-pass aggregate
+    @Transactional(readOnly = true)
+    public ReadingStatsResponse getReadingStats(Long userId) {
+        return statsRepo.findById(userId)
+                .map(UserReadingStats::toResponse)
+                .orElseGet(() -> userBookRepo.aggregateReadingStats(findUser(userId)).toResponse());
+    }
+
+    // Every write holds the user's row until commit; the first one creates it, so two first writes cannot both insert
+    private UserReadingStats lockStats(User user) {
+        boolean created = statsRepo.insertIfMissing(user.getId()) == 1;
+        UserReadingStats stats = statsRepo.findForUpdate(user.getId()).orElseThrow();
+        if (created) {
+            // Books added before the row existed; nobody else can change them while we hold the lock
+            stats = statsRepo.save(UserReadingStats.from(user.getId(), userBookRepo.aggregateReadingStats(user)));
+        }
+        return stats;
+    }
+
+    private void recordChange(UserReadingStats stats, Contribution before, UserBook after) {
+        if (before != null) {
+            stats.apply(before.status(), before.currentPage(), before.rating(), -1);
+        }
+        if (after != null) {
+            stats.apply(after.getStatus(), after.getCurrentPage(), after.getRating(), 1);
+        }
+    }
+
+    private void applyRequest(UserBook book, UserBookRequest request) {
+        if (request.getTitle() != null) book.setTitle(request.getTitle());
+        if (request.getAuthor() != null) book.setAuthor(request.getAuthor());
+        if (request.getCategory() != null) book.setCategory(request.getCategory());
+        if (request.getTotalPages() != null) book.setTotalPages(request.getTotalPages());
+        if (request.getCurrentPage() != null) book.setCurrentPage(request.getCurrentPage());
+        if (request.getRating() != null) book.setRating(request.getRating());
+        if (request.getNotes() != null) book.setNotes(request.getNotes());
+        if (request.getStatus() != null && request.getStatus() != book.getStatus()) {
+            book.setStatus(request.getStatus());
+            if (request.getStatus() == UserBook.BookStatus.READING && book.getDateStarted() == null) {
+                book.setDateStarted(LocalDateTime.now());
+            } else if (request.getStatus() == UserBook.BookStatus.READ) {
+                book.setDateFinished(LocalDateTime.now());
+            }
+        }
+    }
+
+    private User findUser(Long userId) {
+        return userRepo.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private UserBook findBook(User user, Long bookId) {
+        return userBookRepo.findByUserAndId(user, bookId).orElseThrow(() -> new RuntimeException("Book not found"));
+    }
+
+    // What a book contributed to the stats before it was changed
+    private record Contribution(UserBook.BookStatus status, Integer currentPage, Integer rating) {
+        static Contribution of(UserBook book) {
+            return new Contribution(book.getStatus(), book.getCurrentPage(), book.getRating());
+        }
+    }
+}
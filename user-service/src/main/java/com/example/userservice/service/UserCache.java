@@ -0,0 +1,53 @@
+package com.example.userservice.service;
+
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.security.VerifiedTokenCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Users by username, shared by authentication and the profile endpoint.
+ * Concurrent misses for the same username wait on a single repository
+ * load. Entries expire after a TTL; any code that writes a user must call
+ * {@link #invalidate(String)}. Hit ratio and load times are published as
+ * the "users" cache metrics (cache.gets, cache.load.duration, ...).
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepo;
+    private final VerifiedTokenCache tokenCache;
+    private final Cache<String, User> cache;
+
+    public UserCache(UserRepository userRepo, VerifiedTokenCache tokenCache, MeterRegistry meterRegistry,
+                     @Value("${users.cache.ttl:5m}") Duration ttl,
+                     @Value("${users.cache.max-size:10000}") long maxSize) {
+        this.userRepo = userRepo;
+        this.tokenCache = tokenCache;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    // Unknown usernames are not cached, so a user registered a moment later is found at once
+    public Optional<User> findByUsername(String username) {
+        return Optional.ofNullable(cache.get(username, key -> userRepo.findByUsername(key).orElse(null)));
+    }
+
+    // Also drops the user's verified tokens so they pick up the new account state
+    public void invalidate(String username) {
+        cache.invalidate(username);
+        tokenCache.invalidateUser(username);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.userservice.service;
+
+import com.example.dataset.SyntheticCatalog;
+import com.example.dataset.Zipf;
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The producers commit on their own connections, so the test runs outside a transaction and cleans up
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-seeder;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "users.seed.batch-size=300"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserSeeder.class, BCryptPasswordEncoder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSeederTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 1);
+    private static final UserSeeder.Spec SPEC =
+            new UserSeeder.Spec(50, 2_000, 500, 42L, 0.8, TODAY, 365, "secret");
+
+    @Autowired
+    private UserSeeder userSeeder;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM user_books");
+        jdbcTemplate.update("DELETE FROM user");
+    }
+
+    @Test
+    void seedsUsersThatCanLogIn() throws Exception {
+        assertThat(userSeeder.seed(SPEC, 4)).isEqualTo(2_050);
+
+        assertThat(userRepo.count()).isEqualTo(50);
+        User reader = userRepo.findById(7L).orElseThrow();
+        assertThat(reader.getUsername()).isEqualTo("reader7");
+        assertThat(reader.getEmail()).isEqualTo("reader7@example.com");
+        assertThat(reader.getRole()).isEqualTo(Role.ETUDIANT);
+        assertThat(passwordEncoder.matches("secret", reader.getPassword())).isTrue();
+    }
+
+    @Test
+    void readingListsAreConsistent() throws Exception {
+        userSeeder.seed(SPEC, 4);
+
+        assertThat(count("user_id NOT BETWEEN 1 AND 50")).isZero();
+        assertThat(count("date_added > ? OR date_started < date_added OR date_finished < date_started " +
+                "OR date_started > ? OR date_finished > ?", midnight(), midnight(), midnight())).isZero();
+        assertThat(count("status = 'READ' AND (current_page <> total_pages OR date_finished IS NULL)")).isZero();
+        assertThat(count("status = 'WISHLIST' AND (current_page <> 0 OR date_started IS NOT NULL)")).isZero();
+        assertThat(count("status IN ('READING', 'DNF') AND " +
+                "(current_page NOT BETWEEN 1 AND total_pages - 1 OR date_started IS NULL)")).isZero();
+        assertThat(count("ABS(progress - current_page * 100.0 / total_pages) > 0.001")).isZero();
+        assertThat(count("status = 'READ'")).isBetween(850L, 1_150L);
+    }
+
+    @Test
+    void popularBooksShowUpInManyReadingLists() throws Exception {
+        userSeeder.seed(SPEC, 4);
+
+        Zipf popularity = new Zipf(SPEC.books(), SPEC.skew());
+        SyntheticCatalog.Book top = SyntheticCatalog.book(SPEC.seed(), popularity.ordinal(0));
+        long expected = Math.round(SPEC.userBooks() * popularity.probability(0));
+        // Other books may share the generated title and author, so only the lower bound is tight
+        assertThat(count("title = ? AND author = ? AND category = ?", top.title(), top.author(), top.category()))
+                .isGreaterThan(expected * 3 / 4);
+    }
+
+    @Test
+    void sameSeedGivesTheSameRowsWhateverTheThreadCount() throws Exception {
+        userSeeder.seed(SPEC, 1);
+        List<Map<String, Object>> sequential = snapshot();
+        cleanUp();
+
+        userSeeder.seed(SPEC, 8);
+
+        assertThat(snapshot()).isEqualTo(sequential);
+    }
+
+    @Test
+    void refusesToSeedOverExistingUsers() {
+        userRepo.save(User.builder().username("reader").email("reader@example.com")
+                .password("hash").role(Role.ETUDIANT).build());
+
+        assertThatThrownBy(() -> userSeeder.seed(SPEC, 4)).hasMessageContaining("must not exist yet");
+        assertThat(userRepo.count()).isEqualTo(1);
+    }
+
+    private Timestamp midnight() {
+        return Timestamp.valueOf(TODAY.atStartOfDay());
+    }
+
+    private long count(String condition, Object... args) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_books WHERE " + condition, Long.class, args);
+    }
+
+    private List<Map<String, Object>> snapshot() {
+        return jdbcTemplate.queryForList("SELECT user_id, title, author, status, current_page, total_pages, rating, " +
+                "date_added FROM user_books ORDER BY user_id, date_added, title, author, status, current_page");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.userservice.config;
+
+import com.example.userservice.service.UserSeeder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Command-line seeding of synthetic users: start the service with
+ * --seed-users=100000, optionally with --seed-user-books (reading-list
+ * entries, default 20 per user), --seed-books (catalog size), --seed (RNG
+ * seed, default 42), --seed-skew (default 0.8), --seed-days (default 730),
+ * --seed-date (default the current date), --seed-password (shared by every
+ * seeded user, default "password") and --seed-threads. Pass the same values
+ * as to books-management-service and loan-service. The application exits
+ * once the users are written.
+ */
+@Component
+public class UserSeedRunner implements ApplicationRunner {
+
+    @Autowired
+    private UserSeeder userSeeder;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("seed-users")) {
+            return;
+        }
+        int users = Integer.parseInt(option(args, "seed-users", null));
+        UserSeeder.Spec spec = new UserSeeder.Spec(
+                users,
+                Long.parseLong(option(args, "seed-user-books", String.valueOf(20L * users))),
+                Integer.parseInt(option(args, "seed-books", String.valueOf(10 * users))),
+                Long.parseLong(option(args, "seed", "42")),
+                Double.parseDouble(option(args, "seed-skew", "0.8")),
+                LocalDate.parse(option(args, "seed-date", LocalDate.now().toString())),
+                Integer.parseInt(option(args, "seed-days", "730")),
+                option(args, "seed-password", "password"));
+        int threads = Integer.parseInt(option(args, "seed-threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        userSeeder.seed(spec, threads);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    private static String option(ApplicationArguments args, String name, String defaultValue) {
+        return args.containsOption(name) ? args.getOptionValues(name).get(0) : defaultValue;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.userservice.service;
+
+import com.example.dataset.SyntheticCatalog;
+import com.example.dataset.Zipf;
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.UserBook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Seeds synthetic users and reading lists for load tests, with JDBC batches
+ * written by parallel producers, one transaction per batch.
+ * <p>
+ * Users get the ids 1..users that loan-service's LoanSeeder borrows with,
+ * usernames reader1, reader2... and all share one password, hashed once.
+ * Reading-list entries pick users with the same Zipf activity as the loans
+ * and books with the catalog's Zipf popularity, and carry the catalog's
+ * title, author and category. Reading statistics are not written: the
+ * dashboard aggregates user_books until a user's first change.
+ * <p>
+ * On MySQL, add rewriteBatchedStatements=true to the JDBC URL, otherwise
+ * every row of a batch is still sent as its own INSERT.
+ */
+@Service
+public class UserSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSeeder.class);
+
+    private static final String INSERT_USER = "INSERT INTO user (id, username, email, password, role) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_USER_BOOK = "INSERT INTO user_books (user_id, title, author, category, " +
+            "total_pages, current_page, progress, status, rating, date_added, date_started, date_finished) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${users.seed.batch-size:5000}")
+    private int batchSize;
+
+    /**
+     * What to seed: {@code users} users and {@code userBooks} reading-list
+     * entries over {@code books} catalog books, added in the {@code days}
+     * days before {@code today}.
+     */
+    public record Spec(int users, long userBooks, int books, long seed, double skew, LocalDate today, int days,
+                       String password) {
+    }
+
+    public long seed(Spec spec, int threads) throws InterruptedException {
+        Long taken = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE id BETWEEN 1 AND ?",
+                Long.class, spec.users());
+        if (taken != null && taken > 0) {
+            throw new RuntimeException("Users 1.." + spec.users() + " must not exist yet, found " + taken);
+        }
+
+        long start = System.currentTimeMillis();
+        String hash = passwordEncoder.encode(spec.password());
+        Zipf bookPopularity = new Zipf(spec.books(), spec.skew());
+        Zipf userActivity = new Zipf(spec.users(), spec.skew());
+        ExecutorService producers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Integer>> users = new ArrayList<>();
+            for (long from = 1; from <= spec.users(); from += batchSize) {
+                long first = from;
+                long last = Math.min(spec.users(), from + batchSize - 1);
+                users.add(() -> insertUsers(first, last, hash));
+            }
+            // Reading lists reference users, so they start once every user is committed
+            long insertedUsers = sum(producers.invokeAll(users));
+
+            List<Callable<Integer>> userBooks = new ArrayList<>();
+            for (long from = 0, chunk = 0; from < spec.userBooks(); from += batchSize, chunk++) {
+                int size = (int) Math.min(batchSize, spec.userBooks() - from);
+                SplittableRandom random = new SplittableRandom(spec.seed() ^ ((chunk + 1) * 0x9E3779B97F4A7C15L));
+                userBooks.add(() -> insertUserBooks(spec, bookPopularity, userActivity, random, size));
+            }
+            long insertedUserBooks = sum(producers.invokeAll(userBooks));
+
+            log.info("Seeded {} users and {} reading-list entries in {} ms", insertedUsers, insertedUserBooks,
+                    System.currentTimeMillis() - start);
+            return insertedUsers + insertedUserBooks;
+        } catch (ExecutionException e) {
+            throw new RuntimeException("User seeding failed", e.getCause());
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    private int insertUsers(long first, long last, String hash) {
+        List<Object[]> rows = new ArrayList<>((int) (last - first + 1));
+        for (long id = first; id <= last; id++) {
+            rows.add(new Object[]{id, "reader" + id, "reader" + id + "@example.com", hash, Role.ETUDIANT.name()});
+        }
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(INSERT_USER, rows));
+        return rows.size();
+    }
+
+    private int insertUserBooks(Spec spec, Zipf bookPopularity, Zipf userActivity, SplittableRandom random,
+                                int size) {
+        LocalDateTime now = spec.today().atStartOfDay();
+        List<Object[]> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long userId = userActivity.sample(random);
+            SyntheticCatalog.Book book = SyntheticCatalog.book(spec.seed(), bookPopularity.sample(random));
+            int totalPages = 80 + random.nextInt(721);
+            LocalDateTime added = now.minusDays(1 + random.nextInt(spec.days())).plusMinutes(random.nextInt(1440));
+            LocalDateTime started = earliest(added.plusDays(random.nextInt(30)), now);
+            LocalDateTime finished = null;
+            int currentPage = 0;
+            int rating = 0;
+
+            int roll = random.nextInt(100);
+            UserBook.BookStatus status;
+            if (roll < 50) {
+                status = UserBook.BookStatus.READ;
+                currentPage = totalPages;
+                finished = earliest(started.plusDays(1 + random.nextInt(60)), now);
+                rating = random.nextInt(6);
+            } else if (roll < 70) {
+                status = UserBook.BookStatus.READING;
+                currentPage = 1 + random.nextInt(totalPages - 1);
+            } else if (roll < 95) {
+                status = UserBook.BookStatus.WISHLIST;
+                started = null;
+            } else {
+                status = UserBook.BookStatus.DNF;
+                currentPage = 1 + random.nextInt(totalPages / 2);
+                rating = random.nextInt(3);
+            }
+            rows.add(new Object[]{userId, book.title(), book.author(), book.category(), totalPages, currentPage,
+                    currentPage * 100.0 / totalPages, status.name(), rating, Timestamp.valueOf(added),
+                    started == null ? null : Timestamp.valueOf(started),
+                    finished == null ? null : Timestamp.valueOf(finished)});
+        }
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(INSERT_USER_BOOK, rows));
+        return size;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static long sum(List<Future<Integer>> batches) throws InterruptedException, ExecutionException {
+        long total = 0;
+        for (Future<Integer> batch : batches) {
+            total += batch.get();
+        }
+        return total;
+    }
+}
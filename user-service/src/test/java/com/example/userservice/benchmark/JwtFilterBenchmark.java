@@ -0,0 +1,112 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.security.JwtFilter;
+import com.example.userservice.security.JwtUtil;
+import com.example.userservice.security.MyUserDetailsService;
+import com.example.userservice.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JwtFilter. "legacy" replays the former filter: two
+ * full parse + HMAC passes with a freshly built parser each, plus the user
+ * lookup. "cacheMiss" is the single-parse path, "cacheHit" the steady state.
+ * The user lookup is served from memory here, so the DB round trip the
+ * cache saves in production is not even part of these numbers.
+ *
+ * Run {@link #main} on the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-signing-key-for-user-service-0123456789abcdefghijklmnopqr";
+
+    private SecretKey key;
+    private String token;
+    private UserDetails user;
+    private MyUserDetailsService userDetailsService;
+    private JwtFilter cachedFilter;
+    private VerifiedTokenCache missCache;
+    private JwtFilter missFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000);
+        token = jwtUtil.generateToken("alice");
+        user = new User("alice", "{bcrypt}hash", Collections.emptyList());
+        userDetailsService = new MyUserDetailsService() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return user;
+            }
+        };
+        cachedFilter = filter(jwtUtil, new VerifiedTokenCache(10_000));
+        missCache = new VerifiedTokenCache(10_000);
+        missFilter = filter(jwtUtil, missCache);
+    }
+
+    @Benchmark
+    public Object legacy() {
+        String username = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return userDetails;
+    }
+
+    @Benchmark
+    public Object cacheMiss() throws Exception {
+        missCache.invalidateUser("alice");
+        return run(missFilter);
+    }
+
+    @Benchmark
+    public Object cacheHit() throws Exception {
+        return run(cachedFilter);
+    }
+
+    private Object run(JwtFilter filter) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private JwtFilter filter(JwtUtil jwtUtil, VerifiedTokenCache cache) {
+        JwtFilter filter = new JwtFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "tokenCache", cache);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        return filter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
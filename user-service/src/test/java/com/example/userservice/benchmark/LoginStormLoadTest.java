@@ -0,0 +1,150 @@
+package com.example.userservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of an authenticated, non-auth endpoint (/api/user/profile) while
+ * {@link #STORM_CLIENTS} clients hammer /api/auth/login at BCrypt cost 12.
+ * Runs against H2 and is opt-in:
+ *
+ *   mvn test -Dtest=LoginStormLoadTest -Dbenchmark=true
+ *
+ * Add -Dauth.hashing.threads=200 -Dauth.hashing.queue-capacity=10000 to
+ * approximate the former inline hashing for comparison.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:users;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "auth.bcrypt.strength=12",
+        "jwt.secret=test-signing-key-for-user-service-tests-0123456789abcdefghijklmnopq"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoginStormLoadTest {
+
+    private static final int STORM_CLIENTS = 150;
+    private static final Duration PHASE = Duration.ofSeconds(10);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(STORM_CLIENTS + 8))
+            .build();
+
+    @Test
+    void profileLatencyStaysFlatDuringLoginStorm() throws Exception {
+        String token = register("reader", "secret-password");
+
+        List<Long> idle = probe(token, PHASE);
+
+        AtomicBoolean storming = new AtomicBoolean(true);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService storm = Executors.newFixedThreadPool(STORM_CLIENTS);
+        for (int i = 0; i < STORM_CLIENTS; i++) {
+            storm.submit(() -> {
+                while (storming.get()) {
+                    HttpResponse<String> response = post("/api/auth/login",
+                            Map.of("username", "reader", "password", "secret-password"));
+                    if (response.statusCode() == 200) {
+                        accepted.incrementAndGet();
+                    } else {
+                        // Well-behaved clients honour Retry-After
+                        rejected.incrementAndGet();
+                        long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(retryAfter));
+                    }
+                }
+                return null;
+            });
+        }
+        List<Long> loaded;
+        try {
+            Thread.sleep(1000);
+            loaded = probe(token, PHASE);
+        } finally {
+            storming.set(false);
+            storm.shutdown();
+            storm.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        System.out.printf("profile idle: p50 %.1f ms, p99 %.1f ms | during storm: p50 %.1f ms, p99 %.1f ms"
+                        + " | logins accepted %d, rejected %d%n",
+                percentile(idle, 50), percentile(idle, 99), percentile(loaded, 50), percentile(loaded, 99),
+                accepted.get(), rejected.get());
+
+        assertThat(accepted.get()).isPositive();
+    }
+
+    private List<Long> probe(String token, Duration duration) throws Exception {
+        List<Long> latencies = new ArrayList<>();
+        long end = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < end) {
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/user/profile"))
+                    .header("Authorization", "Bearer " + token)
+                    .build();
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies.add(System.nanoTime() - start);
+            assertThat(response.statusCode()).isEqualTo(200);
+            Thread.sleep(10);
+        }
+        return latencies;
+    }
+
+    private String register(String username, String password) throws Exception {
+        HttpResponse<String> response = post("/api/auth/register",
+                Map.of("username", username, "email", username + "@example.com",
+                        "password", password, "role", "ETUDIANT"));
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> post(String path, Map<String, String> body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double percentile(List<Long> nanos, int percentile) {
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+}
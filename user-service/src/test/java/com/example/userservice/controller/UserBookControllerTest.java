@@ -0,0 +1,87 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.User;
+import com.example.userservice.service.UserBookService;
+import com.example.userservice.service.UserCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserBookControllerTest {
+
+    private final UserBookService userBookService = mock(UserBookService.class);
+    private final UserCache userCache = mock(UserCache.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        UserBookController controller = new UserBookController();
+        ReflectionTestUtils.setField(controller, "userBookService", userBookService);
+        ReflectionTestUtils.setField(controller, "userCache", userCache);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+
+        when(userCache.findByUsername("alice")).thenReturn(Optional.of(user(1L, "alice")));
+        org.springframework.security.core.userdetails.User principal =
+                new org.springframework.security.core.userdetails.User("alice", "", Collections.emptyList());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void anotherUsersBooksAndStatsAreForbidden() throws Exception {
+        mockMvc.perform(post("/api/user-books").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":2,\"title\":\"Dune\",\"author\":\"Herbert\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/user-books/5/user/2").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPage\":10}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/user-books/5/user/2"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/user-books/user/2/stats"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(userBookService);
+    }
+
+    @Test
+    void ownBooksGoThroughWithTheCallersId() throws Exception {
+        mockMvc.perform(post("/api/user-books").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Dune\",\"author\":\"Herbert\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/user-books/5/user/1"))
+                .andExpect(status().isOk());
+
+        verify(userBookService).addBook(argThat(request -> Long.valueOf(1L).equals(request.getUserId())));
+        verify(userBookService).deleteBook(5L, 1L);
+    }
+
+    private static User user(Long id, String username) {
+        User user = User.builder().username(username).email(username + "@example.com")
+                .password("hash").role(Role.ETUDIANT).build();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.userservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class JwtFilterTest {
+
+    static final String SECRET = "test-signing-key-for-user-service-tests-0123456789abcdefghijklmnopq";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000);
+    private final MyUserDetailsService userDetailsService = mock(MyUserDetailsService.class);
+    private final VerifiedTokenCache tokenCache = new VerifiedTokenCache(100);
+    private final JwtFilter filter = new JwtFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "tokenCache", tokenCache);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenReturn(new User("alice", "{bcrypt}hash", Collections.emptyList()));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verifiedTokensSkipTheUserLookupUntilInvalidated() throws Exception {
+        String token = jwtUtil.generateToken("alice");
+
+        assertThat(authenticate(token).getName()).isEqualTo("alice");
+        assertThat(authenticate(token).getName()).isEqualTo("alice");
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+
+        tokenCache.invalidateUser("alice");
+        authenticate(token);
+        verify(userDetailsService, times(2)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void cachedPrincipalCarriesNoPassword() throws Exception {
+        assertThat(((User) authenticate(jwtUtil.generateToken("alice")).getPrincipal()).getPassword()).isEmpty();
+    }
+
+    @Test
+    void badTokensAndUnknownUsersStayAnonymous() throws Exception {
+        String foreign = new JwtUtil(SECRET.replace('t', 'x'), 60_000).generateToken("alice");
+        String expired = new JwtUtil(SECRET, -1_000).generateToken("alice");
+        when(userDetailsService.loadUserByUsername("bob")).thenThrow(new UsernameNotFoundException("User not found"));
+
+        assertThat(authenticate(foreign)).isNull();
+        assertThat(authenticate(expired)).isNull();
+        assertThat(authenticate("not-a-jwt")).isNull();
+        assertThat(authenticate(jwtUtil.generateToken("bob"))).isNull();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.userservice.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        executor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5));
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> executor.execute(() -> {
+            running.countDown();
+            return awaitRelease();
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture.runAsync(() -> executor.execute(this::awaitRelease));
+        Thread.sleep(100);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> executor.execute(() -> "hash"))
+                .isInstanceOf(HashingOverloadedException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void givesUpAfterMaxWait() throws Exception {
+        executor = new PasswordHashingExecutor(1, 4, Duration.ofMillis(100));
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> executor.execute(() -> {
+            running.countDown();
+            return awaitRelease();
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> executor.execute(() -> "hash"))
+                .isInstanceOf(HashingOverloadedException.class);
+    }
+
+    @Test
+    void propagatesAuthenticationFailuresUnchanged() {
+        executor = new PasswordHashingExecutor(1, 4, Duration.ofSeconds(5));
+
+        assertThat(executor.execute(() -> "hash")).isEqualTo("hash");
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new BadCredentialsException("Bad credentials");
+        })).isInstanceOf(BadCredentialsException.class);
+    }
+
+    // Like BCrypt, keeps the worker busy even when the caller gives up and interrupts it
+    private Boolean awaitRelease() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            try {
+                return release.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ignored) {
+                // Keep waiting
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.ReadingStatsResponse;
+import com.example.userservice.dto.UserBookRequest;
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.User;
+import com.example.userservice.entity.UserBook;
+import com.example.userservice.repository.UserBookRepository;
+import com.example.userservice.repository.UserReadingStatsRepository;
+import com.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-books;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UserBookService.class)
+class UserBookServiceTest {
+
+    @Autowired
+    private UserBookService userBookService;
+
+    @Autowired
+    private UserBookRepository userBookRepo;
+
+    @Autowired
+    private UserReadingStatsRepository statsRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepo.save(User.builder().username("reader").email("reader@example.com")
+                .password("hash").role(Role.ETUDIANT).build());
+    }
+
+    @Test
+    void aggregateMatchesPerQueryValues() {
+        assertMatchesPerQueryValues(userBookRepo.aggregateReadingStats(user).toResponse());
+
+        Random random = new Random(42);
+        UserBook.BookStatus[] statuses = UserBook.BookStatus.values();
+        for (int i = 0; i < 25; i++) {
+            UserBook book = new UserBook(user, "Book " + i, "Author " + i);
+            book.setTotalPages(300);
+            book.setCurrentPage(random.nextInt(301));
+            book.setStatus(statuses[random.nextInt(statuses.length)]);
+            book.setRating(random.nextInt(6));
+            userBookRepo.save(book);
+        }
+
+        assertMatchesPerQueryValues(userBookRepo.aggregateReadingStats(user).toResponse());
+    }
+
+    @Test
+    void materializedRowFollowsAddsUpdatesAndDeletes() {
+        Random random = new Random(7);
+        UserBook.BookStatus[] statuses = UserBook.BookStatus.values();
+        List<Long> bookIds = new ArrayList<>();
+        for (int step = 0; step < 60; step++) {
+            UserBookRequest request = new UserBookRequest();
+            request.setStatus(statuses[random.nextInt(statuses.length)]);
+            request.setRating(random.nextInt(6));
+            request.setCurrentPage(random.nextInt(200));
+            int operation = bookIds.isEmpty() ? 0 : random.nextInt(3);
+            if (operation == 0) {
+                request.setUserId(user.getId());
+                request.setTitle("Book " + step);
+                request.setAuthor("Author");
+                request.setTotalPages(200);
+                bookIds.add(userBookService.addBook(request).getId());
+            } else if (operation == 1) {
+                userBookService.updateBook(bookIds.get(random.nextInt(bookIds.size())), user.getId(), request);
+            } else {
+                userBookService.deleteBook(bookIds.remove(random.nextInt(bookIds.size())), user.getId());
+            }
+
+            assertThat(statsRepo.findById(user.getId())).isPresent();
+            assertMatchesPerQueryValues(userBookService.getReadingStats(user.getId()));
+        }
+    }
+
+    // Each write commits for real, so the test cleans up after itself
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentFirstWritesShareOneStatsRow() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 10; round++) {
+                User reader = userRepo.save(User.builder().username("first-writer" + round)
+                        .email("first-writer" + round + "@example.com").password("hash").role(Role.ETUDIANT).build());
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<UserBook>> adds = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    UserBookRequest request = new UserBookRequest();
+                    request.setUserId(reader.getId());
+                    request.setTitle("Book " + i);
+                    request.setAuthor("Author");
+                    request.setStatus(UserBook.BookStatus.READ);
+                    request.setCurrentPage(100);
+                    adds.add(pool.submit(() -> {
+                        start.await();
+                        return userBookService.addBook(request);
+                    }));
+                }
+                start.countDown();
+                for (Future<UserBook> add : adds) {
+                    add.get();
+                }
+
+                ReadingStatsResponse stats = userBookService.getReadingStats(reader.getId());
+                assertThat(stats.getTotalBooks()).isEqualTo(4);
+                assertThat(stats.getBooksRead()).isEqualTo(4);
+                assertThat(stats.getTotalPagesRead()).isEqualTo(400);
+            }
+        } finally {
+            pool.shutdown();
+            userBookRepo.deleteAll();
+            statsRepo.deleteAll();
+            userRepo.deleteAll();
+        }
+    }
+
+    // The five queries the dashboard used to run
+    private void assertMatchesPerQueryValues(ReadingStatsResponse stats) {
+        assertThat(stats.getTotalBooks()).isEqualTo(userBookRepo.findByUserOrderByDateAddedDesc(user).size());
+        assertThat(stats.getBooksRead()).isEqualTo(userBookRepo.countByUserAndStatus(user, UserBook.BookStatus.READ));
+        assertThat(stats.getBooksInProgress())
+                .isEqualTo(userBookRepo.countByUserAndStatus(user, UserBook.BookStatus.READING));
+        assertThat(stats.getBooksInWishlist())
+                .isEqualTo(userBookRepo.countByUserAndStatus(user, UserBook.BookStatus.WISHLIST));
+        assertThat(stats.getTotalPagesRead()).isEqualTo(userBookRepo.getTotalPagesReadByUser(user));
+        Double averageRating = userBookRepo.getAverageRatingByUser(user);
+        if (averageRating == null) {
+            assertThat(stats.getAverageRating()).isNull();
+        } else {
+            assertThat(stats.getAverageRating()).isCloseTo(averageRating, within(1e-9));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.userservice.service;
+
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final VerifiedTokenCache tokenCache = mock(VerifiedTokenCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(userRepo, tokenCache, meterRegistry, Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        when(userRepo.findByUsername("alice")).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return Optional.of(user("alice"));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<User>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userCache.findByUsername("alice");
+                }));
+            }
+            start.countDown();
+            for (Future<Optional<User>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isPresent();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(userRepo, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void invalidateForcesReloadAndDropsTokens() {
+        when(userRepo.findByUsername("alice")).thenReturn(Optional.of(user("alice")));
+
+        userCache.findByUsername("alice");
+        userCache.findByUsername("alice");
+        userCache.invalidate("alice");
+        userCache.findByUsername("alice");
+
+        verify(userRepo, times(2)).findByUsername("alice");
+        verify(tokenCache).invalidateUser("alice");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        when(userRepo.findByUsername("bob")).thenReturn(Optional.empty());
+
+        assertThat(userCache.findByUsername("bob")).isEmpty();
+        assertThat(userCache.findByUsername("bob")).isEmpty();
+
+        verify(userRepo, times(2)).findByUsername("bob");
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).password("{bcrypt}hash").build();
+    }
+}